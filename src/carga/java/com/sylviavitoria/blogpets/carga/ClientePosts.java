@@ -0,0 +1,160 @@
+package com.sylviavitoria.blogpets.carga;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+// Executa cada operação contra /api/v1/posts e mantém os ids dos posts existentes: criar acrescenta,
+// excluir retira antes de enviar o DELETE para que nenhuma outra operação sorteie um post que está
+// sendo removido. Um GET ou PUT já em andamento sobre o mesmo id ainda pode receber 404.
+final class ClientePosts {
+
+    private static final String POSTS = "/api/v1/posts";
+    private static final int PAGINAS_LISTAGEM = 10;
+    private static final String DESCRICAO = "Cuidados diários com o seu pet durante o teste de carga. ".repeat(8);
+
+    private final HttpClient httpClient;
+    private final URI base;
+    private final Duration timeout;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final IdsPosts ids = new IdsPosts();
+    private final AtomicLong sequencia = new AtomicLong();
+
+    ClientePosts(HttpClient httpClient, URI base, Duration timeout) {
+        this.httpClient = httpClient;
+        this.base = base;
+        this.timeout = timeout;
+    }
+
+    int executar(Operacao operacao) throws IOException, InterruptedException {
+        return switch (operacao) {
+            case CRIAR -> criar();
+            case BUSCAR_POR_ID -> enviar(requisicao(POSTS + "/" + ids.sortear()).GET()).statusCode();
+            case LISTAR_TODOS -> enviar(requisicao(POSTS + "?page="
+                    + ThreadLocalRandom.current().nextInt(PAGINAS_LISTAGEM) + "&size=10&sort=-dataCriacao").GET()).statusCode();
+            case ATUALIZAR -> enviar(requisicao(POSTS + "/" + ids.sortear())
+                    .header("If-Match", "*")
+                    .PUT(corpo(novoPost("Post atualizado na carga")))).statusCode();
+            case EXCLUIR -> excluir();
+        };
+    }
+
+    // Cria os posts iniciais pelo endpoint de lote, em grupos de até 500.
+    void popular(int quantidade) throws IOException, InterruptedException {
+        for (int criados = 0; criados < quantidade; ) {
+            int lote = Math.min(500, quantidade - criados);
+            List<Map<String, Object>> posts = IntStream.range(0, lote)
+                    .mapToObj(i -> novoPost("Post inicial da carga"))
+                    .toList();
+            HttpResponse<String> resposta = enviar(requisicao(POSTS + "/batch").POST(corpo(posts)));
+            if (resposta.statusCode() != 201 && resposta.statusCode() != 207) {
+                throw new IllegalStateException("Falha ao criar os posts iniciais: HTTP " + resposta.statusCode()
+                        + " " + resposta.body());
+            }
+            for (JsonNode item : objectMapper.readTree(resposta.body()).path("itens")) {
+                if (item.has("post")) {
+                    ids.adicionar(item.path("post").path("id").asLong());
+                }
+            }
+            criados += lote;
+        }
+    }
+
+    int postsDisponiveis() {
+        return ids.quantidade();
+    }
+
+    private int criar() throws IOException, InterruptedException {
+        HttpResponse<String> resposta = enviar(requisicao(POSTS).POST(corpo(novoPost("Post criado na carga"))));
+        if (resposta.statusCode() == 201) {
+            ids.adicionar(objectMapper.readTree(resposta.body()).path("id").asLong());
+        }
+        return resposta.statusCode();
+    }
+
+    private int excluir() throws IOException, InterruptedException {
+        long id = ids.retirar();
+        int status;
+        try {
+            status = enviar(requisicao(POSTS + "/" + id).header("If-Match", "*").DELETE()).statusCode();
+        } catch (IOException | RuntimeException e) {
+            ids.adicionar(id);
+            throw e;
+        }
+        if (status != 204 && status != 404) {
+            ids.adicionar(id);
+        }
+        return status;
+    }
+
+    private Map<String, Object> novoPost(String titulo) {
+        long numero = sequencia.incrementAndGet();
+        return Map.of(
+                "titulo", titulo + " " + numero,
+                "descricao", DESCRICAO,
+                "autor", "Autor " + (numero % 50));
+    }
+
+    private HttpRequest.BodyPublisher corpo(Object valor) throws IOException {
+        return HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(valor));
+    }
+
+    private HttpRequest.Builder requisicao(String caminho) {
+        return HttpRequest.newBuilder(base.resolve(caminho))
+                .timeout(timeout)
+                .header("Accept", "application/json")
+                .header("Content-Type", "application/json");
+    }
+
+    private HttpResponse<String> enviar(HttpRequest.Builder requisicao) throws IOException, InterruptedException {
+        return httpClient.send(requisicao.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static final class IdsPosts {
+
+        private long[] ids = new long[1024];
+        private int quantidade;
+
+        synchronized void adicionar(long id) {
+            if (quantidade == ids.length) {
+                ids = Arrays.copyOf(ids, ids.length * 2);
+            }
+            ids[quantidade++] = id;
+        }
+
+        synchronized long sortear() {
+            return ids[indice()];
+        }
+
+        // Troca o sorteado pelo último para retirar em tempo constante.
+        synchronized long retirar() {
+            int indice = indice();
+            long id = ids[indice];
+            ids[indice] = ids[--quantidade];
+            return id;
+        }
+
+        synchronized int quantidade() {
+            return quantidade;
+        }
+
+        private int indice() {
+            if (quantidade == 0) {
+                throw new IllegalStateException("Nenhum post disponível; aumente carga.posts-iniciais ou o peso de criar");
+            }
+            return ThreadLocalRandom.current().nextInt(quantidade);
+        }
+    }
+}
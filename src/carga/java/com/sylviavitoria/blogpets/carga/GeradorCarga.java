@@ -0,0 +1,305 @@
+package com.sylviavitoria.blogpets.carga;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.boot.convert.DurationStyle;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+// Carga HTTP em modelo aberto: as requisições saem na taxa pedida (-Dcarga.taxa por segundo),
+// espaçadas igualmente ou com chegadas de Poisson, independentemente de as anteriores terem
+// respondido. Cada requisição roda em uma virtual thread, então a concorrência cresce sozinha quando
+// o servidor fica lento, até -Dcarga.maximo-pendentes; acima disso as chegadas são descartadas e
+// contadas. Sem -Dcarga.url, sobe o jar de target/ com o H2 em memória numa porta livre.
+//
+// Depois de -Dcarga.aquecimento, mede por -Dcarga.duracao e imprime por operação a vazão e os
+// percentis p50/p95/p99/p99.9. O resultado vai para -Dcarga.resultado (JSON) e a distribuição
+// completa para o mesmo nome com .hgrm; com -Dcarga.base apontando para o JSON de outro build, o
+// relatório mostra a diferença de vazão e de p99 por operação.
+public final class GeradorCarga {
+
+    private static final String POSTS = "/api/v1/posts";
+    private static final Duration LIMITE_SUBIDA = Duration.ofMinutes(3);
+    private static final double REGRESSAO = 0.10;
+
+    private final double taxa;
+    private final Duration duracao;
+    private final Duration aquecimento;
+    private final MixOperacoes mix;
+    private final boolean poisson;
+    private final int maximoPendentes;
+    private final SplittableRandom aleatorio = new SplittableRandom();
+
+    private GeradorCarga(double taxa, Duration duracao, Duration aquecimento, MixOperacoes mix, boolean poisson,
+            int maximoPendentes) {
+        if (taxa <= 0 || maximoPendentes < 1) {
+            throw new IllegalArgumentException("A taxa e o máximo de pendentes devem ser positivos");
+        }
+        this.taxa = taxa;
+        this.duracao = duracao;
+        this.aquecimento = aquecimento;
+        this.mix = mix;
+        this.poisson = poisson;
+        this.maximoPendentes = maximoPendentes;
+    }
+
+    public static void main(String[] args) throws Exception {
+        String chegadas = propriedade("carga.chegadas", "poisson");
+        if (!chegadas.equals("poisson") && !chegadas.equals("constante")) {
+            throw new IllegalArgumentException("carga.chegadas deve ser poisson ou constante: " + chegadas);
+        }
+        GeradorCarga gerador = new GeradorCarga(
+                Double.parseDouble(propriedade("carga.taxa", "200")),
+                DurationStyle.detectAndParse(propriedade("carga.duracao", "60s")),
+                DurationStyle.detectAndParse(propriedade("carga.aquecimento", "10s")),
+                MixOperacoes.ler(propriedade("carga.mix", "criar=10,buscarPorId=50,listarTodos=30,atualizar=5,excluir=5")),
+                chegadas.equals("poisson"),
+                Integer.parseInt(propriedade("carga.maximo-pendentes", "10000")));
+        Duration timeout = DurationStyle.detectAndParse(propriedade("carga.timeout", "10s"));
+        int postsIniciais = Integer.parseInt(propriedade("carga.posts-iniciais", "1000"));
+        Path resultado = Path.of(propriedade("carga.resultado", "target/carga-resultado.json"));
+        String base = propriedade("carga.base", "");
+
+        Process aplicacao = null;
+        try (ExecutorService virtuais = Executors.newVirtualThreadPerTaskExecutor();
+                HttpClient httpClient = HttpClient.newBuilder()
+                        .executor(virtuais)
+                        .version(HttpClient.Version.HTTP_1_1)
+                        .connectTimeout(Duration.ofSeconds(5))
+                        .build()) {
+            String url = propriedade("carga.url", "");
+            if (url.isEmpty()) {
+                int porta = portaLivre();
+                aplicacao = subirAplicacao(porta);
+                url = "http://localhost:" + porta;
+            }
+            URI uri = URI.create(url);
+            aguardarAplicacao(httpClient, uri, aplicacao);
+
+            ClientePosts cliente = new ClientePosts(httpClient, uri, timeout);
+            cliente.popular(postsIniciais);
+            System.out.printf("%nCarga em %s: %.0f req/s (%s), mix %s, %d posts iniciais%n", uri, gerador.taxa,
+                    chegadas, gerador.mix, cliente.postsDisponiveis());
+
+            if (!gerador.aquecimento.isZero()) {
+                System.out.printf("Aquecimento por %d s...%n", gerador.aquecimento.toSeconds());
+                gerador.executar(cliente, gerador.aquecimento, virtuais);
+            }
+            System.out.printf("Medição por %d s...%n", gerador.duracao.toSeconds());
+            Medicao medicao = gerador.executar(cliente, gerador.duracao, virtuais);
+
+            List<Medicao.Resumo> resumos = medicao.resumir(gerador.duracao.toNanos() / 1e9);
+            imprimir(resumos, medicao);
+            gravar(gerador, chegadas, resumos, medicao, resultado);
+            if (!base.isEmpty()) {
+                gerador.comparar(resumos, Path.of(base));
+            }
+        } finally {
+            if (aplicacao != null) {
+                aplicacao.destroy();
+                if (!aplicacao.waitFor(30, TimeUnit.SECONDS)) {
+                    aplicacao.destroyForcibly().waitFor();
+                }
+            }
+        }
+    }
+
+    // Agenda as chegadas a partir do relógio, e não do fim da requisição anterior: se o laço atrasa
+    // (GC, CPU), as requisições atrasadas saem em seguida com o instante previsto original.
+    private Medicao executar(ClientePosts cliente, Duration fase, ExecutorService virtuais) throws InterruptedException {
+        Medicao medicao = new Medicao(mix.operacoes());
+        Semaphore pendentes = new Semaphore(maximoPendentes);
+        double intervaloNanos = 1e9 / taxa;
+        long inicio = System.nanoTime();
+        long fim = inicio + fase.toNanos();
+        double proxima = inicio;
+
+        while (proxima < fim) {
+            long prevista = (long) proxima;
+            long espera = prevista - System.nanoTime();
+            if (espera > 0) {
+                LockSupport.parkNanos(espera);
+            }
+            Operacao operacao = mix.sortear(aleatorio);
+            if (pendentes.tryAcquire()) {
+                virtuais.execute(() -> {
+                    try {
+                        int status = cliente.executar(operacao);
+                        medicao.registrar(operacao, status, System.nanoTime() - prevista);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    } catch (Exception e) {
+                        medicao.registrarFalha(operacao, e, System.nanoTime() - prevista);
+                    } finally {
+                        pendentes.release();
+                    }
+                });
+            } else {
+                medicao.registrarDescarte();
+            }
+            proxima += poisson ? -Math.log(1 - aleatorio.nextDouble()) * intervaloNanos : intervaloNanos;
+        }
+
+        // Espera as requisições da fase terminarem para que entrem no resultado.
+        if (pendentes.tryAcquire(maximoPendentes, LIMITE_SUBIDA.toSeconds(), TimeUnit.SECONDS)) {
+            pendentes.release(maximoPendentes);
+        }
+        return medicao;
+    }
+
+    private static void imprimir(List<Medicao.Resumo> resumos, Medicao medicao) {
+        System.out.printf("%n%-12s %9s %9s %7s %7s %10s %9s %9s %9s %9s %9s%n", "Operação", "total", "ok", "erros",
+                "falhas", "ok/s", "p50 ms", "p95 ms", "p99 ms", "p99.9 ms", "máx ms");
+        for (Medicao.Resumo resumo : resumos) {
+            System.out.printf("%-12s %9d %9d %7d %7d %10.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n", resumo.operacao(),
+                    resumo.total(), resumo.ok(), resumo.erros(), resumo.falhas(), resumo.vazao(), resumo.p50(),
+                    resumo.p95(), resumo.p99(), resumo.p999(), resumo.maximo());
+        }
+        for (Medicao.Resumo resumo : resumos) {
+            if (resumo.erros() > 0 && !resumo.operacao().equals("total")) {
+                System.out.printf("Status de %s: %s%n", resumo.operacao(), resumo.status());
+            }
+        }
+        if (!medicao.causasFalhas().isEmpty()) {
+            System.out.printf("Falhas: %s%n", medicao.causasFalhas());
+        }
+        if (medicao.descartadas() > 0) {
+            System.out.printf("%d chegadas descartadas com carga.maximo-pendentes atingido; o servidor não acompanhou a taxa%n",
+                    medicao.descartadas());
+        }
+    }
+
+    private static void gravar(GeradorCarga gerador, String chegadas, List<Medicao.Resumo> resumos, Medicao medicao,
+            Path arquivo) throws IOException {
+        Map<String, Object> configuracao = new LinkedHashMap<>();
+        configuracao.put("taxa", gerador.taxa);
+        configuracao.put("chegadas", chegadas);
+        configuracao.put("duracaoSegundos", gerador.duracao.toSeconds());
+        configuracao.put("mix", gerador.mix.toString());
+
+        Map<String, Object> conteudo = new LinkedHashMap<>();
+        conteudo.put("configuracao", configuracao);
+        conteudo.put("descartadas", medicao.descartadas());
+        conteudo.put("operacoes", resumos);
+
+        if (arquivo.getParent() != null) {
+            Files.createDirectories(arquivo.getParent());
+        }
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(arquivo.toFile(), conteudo);
+        Path distribuicao = arquivo.resolveSibling(arquivo.getFileName().toString().replaceFirst("\\.json$", "") + ".hgrm");
+        medicao.gravarDistribuicao(distribuicao);
+        System.out.printf("%nResultado em %s e distribuição em %s%n", arquivo, distribuicao);
+    }
+
+    // Compara com o resultado de outro build; vazão menor ou p99 maior que 10% é marcada.
+    private void comparar(List<Medicao.Resumo> resumos, Path base) throws IOException {
+        JsonNode resultadoBase = new ObjectMapper().readTree(base.toFile());
+        JsonNode configuracao = resultadoBase.path("configuracao");
+        if (configuracao.path("taxa").asDouble() != taxa || !configuracao.path("mix").asText().equals(mix.toString())) {
+            System.out.printf("%nAtenção: a base foi medida com taxa %s e mix %s; a comparação só vale com a mesma carga%n",
+                    configuracao.path("taxa").asText(), configuracao.path("mix").asText());
+        }
+        Map<String, JsonNode> anteriores = new LinkedHashMap<>();
+        for (JsonNode operacao : resultadoBase.path("operacoes")) {
+            anteriores.put(operacao.path("operacao").asText(), operacao);
+        }
+        System.out.printf("%nComparação com %s%n%-12s %10s %10s %8s %9s %9s %8s%n", base, "Operação", "ok/s base",
+                "ok/s", "Δ", "p99 base", "p99", "Δ");
+        for (Medicao.Resumo resumo : resumos) {
+            JsonNode anterior = anteriores.get(resumo.operacao());
+            if (anterior == null) {
+                continue;
+            }
+            double vazaoBase = anterior.path("vazao").asDouble();
+            double p99Base = anterior.path("p99").asDouble();
+            double variacaoVazao = variacao(vazaoBase, resumo.vazao());
+            double variacaoP99 = variacao(p99Base, resumo.p99());
+            boolean regressao = variacaoVazao < -REGRESSAO || variacaoP99 > REGRESSAO;
+            System.out.printf("%-12s %10.1f %10.1f %+7.1f%% %9.2f %9.2f %+7.1f%%%s%n", resumo.operacao(), vazaoBase,
+                    resumo.vazao(), variacaoVazao * 100, p99Base, resumo.p99(), variacaoP99 * 100,
+                    regressao ? "  <- regressão" : "");
+        }
+    }
+
+    private static double variacao(double base, double atual) {
+        return base == 0 ? 0 : (atual - base) / base;
+    }
+
+    private static Process subirAplicacao(int porta) throws IOException {
+        Path jar = Path.of(propriedade("carga.jar", "target/blogpets-0.0.1-SNAPSHOT.jar"));
+        if (!Files.exists(jar)) {
+            throw new IllegalStateException("Jar não encontrado em " + jar.toAbsolutePath()
+                    + "; gere com mvn package ou informe -Dcarga.url");
+        }
+        List<String> comando = new ArrayList<>();
+        comando.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        String jvm = propriedade("carga.jvm", "");
+        if (!jvm.isBlank()) {
+            comando.addAll(Arrays.asList(jvm.trim().split("\\s+")));
+        }
+        comando.addAll(List.of("-jar", jar.toString(),
+                "--server.port=" + porta,
+                "--spring.profiles.active=h2",
+                "--blogpets.limite-escrita.habilitado=false",
+                "--spring.jpa.show-sql=false",
+                "--logging.level.root=WARN",
+                "--logging.level.com.sylviavitoria.blogpets=WARN",
+                "--logging.level.org.hibernate.SQL=WARN"));
+        Path log = jar.resolveSibling("carga-aplicacao.log");
+        System.out.printf("Subindo %s na porta %d (log em %s)%n", jar, porta, log);
+        return new ProcessBuilder(comando)
+                .redirectErrorStream(true)
+                .redirectOutput(log.toFile())
+                .start();
+    }
+
+    private static void aguardarAplicacao(HttpClient httpClient, URI base, Process aplicacao) throws InterruptedException {
+        HttpRequest requisicao = HttpRequest.newBuilder(base.resolve(POSTS)).timeout(Duration.ofSeconds(5)).build();
+        long limite = System.nanoTime() + LIMITE_SUBIDA.toNanos();
+        while (System.nanoTime() < limite) {
+            if (aplicacao != null && !aplicacao.isAlive()) {
+                throw new IllegalStateException("A aplicação terminou antes de responder; veja target/carga-aplicacao.log");
+            }
+            try {
+                if (httpClient.send(requisicao, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return;
+                }
+            } catch (IOException e) {
+                // Ainda subindo.
+            }
+            Thread.sleep(100);
+        }
+        throw new IllegalStateException("A aplicação não respondeu em " + LIMITE_SUBIDA.toSeconds() + " s: " + base);
+    }
+
+    private static String propriedade(String nome, String padrao) {
+        String valor = System.getProperty(nome);
+        return valor == null || valor.isBlank() ? padrao : valor.trim();
+    }
+
+    private static int portaLivre() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.sylviavitoria.blogpets.carga;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+// Latências de uma fase da carga, em microssegundos com 3 dígitos significativos. Cada latência é
+// contada a partir do instante em que a requisição deveria ter saído, e não de quando saiu: se o
+// servidor atrasa, as requisições que ficaram esperando entram com o atraso (correção da omissão
+// coordenada). Respostas de erro e falhas de conexão também entram no histograma.
+final class Medicao {
+
+    static final long MAXIMO_MICROS = TimeUnit.MINUTES.toMicros(5);
+
+    record Resumo(String operacao, long total, long ok, long erros, long falhas, double vazao,
+            double p50, double p95, double p99, double p999, double maximo, SortedMap<Integer, Long> status) {
+    }
+
+    private final Map<Operacao, Contagem> contagens = new EnumMap<>(Operacao.class);
+    private final Map<String, LongAdder> causasFalhas = new ConcurrentHashMap<>();
+    private final LongAdder descartadas = new LongAdder();
+
+    private static final class Contagem {
+        final Histogram latencias = new ConcurrentHistogram(MAXIMO_MICROS, 3);
+        final LongAdder ok = new LongAdder();
+        final LongAdder erros = new LongAdder();
+        final LongAdder falhas = new LongAdder();
+        final Map<Integer, LongAdder> status = new ConcurrentHashMap<>();
+    }
+
+    Medicao(Operacao[] operacoes) {
+        for (Operacao operacao : operacoes) {
+            contagens.put(operacao, new Contagem());
+        }
+    }
+
+    void registrar(Operacao operacao, int status, long latenciaNanos) {
+        Contagem contagem = contagens.get(operacao);
+        contagem.latencias.recordValue(micros(latenciaNanos));
+        contagem.status.computeIfAbsent(status, codigo -> new LongAdder()).increment();
+        (status >= 200 && status < 300 ? contagem.ok : contagem.erros).increment();
+    }
+
+    void registrarFalha(Operacao operacao, Exception causa, long latenciaNanos) {
+        Contagem contagem = contagens.get(operacao);
+        contagem.latencias.recordValue(micros(latenciaNanos));
+        contagem.falhas.increment();
+        causasFalhas.computeIfAbsent(causa.getClass().getSimpleName(), nome -> new LongAdder()).increment();
+    }
+
+    SortedMap<String, Long> causasFalhas() {
+        SortedMap<String, Long> causas = new TreeMap<>();
+        causasFalhas.forEach((nome, quantidade) -> causas.put(nome, quantidade.sum()));
+        return causas;
+    }
+
+    void registrarDescarte() {
+        descartadas.increment();
+    }
+
+    long descartadas() {
+        return descartadas.sum();
+    }
+
+    List<Resumo> resumir(double segundos) {
+        List<Resumo> resumos = new ArrayList<>();
+        Histogram total = new Histogram(MAXIMO_MICROS, 3);
+        long ok = 0;
+        long erros = 0;
+        long falhas = 0;
+        SortedMap<Integer, Long> status = new TreeMap<>();
+        for (Map.Entry<Operacao, Contagem> entrada : contagens.entrySet()) {
+            Contagem contagem = entrada.getValue();
+            Histogram latencias = contagem.latencias.copy();
+            SortedMap<Integer, Long> statusOperacao = new TreeMap<>();
+            contagem.status.forEach((codigo, quantidade) -> statusOperacao.put(codigo, quantidade.sum()));
+            resumos.add(resumo(entrada.getKey().nome(), latencias, contagem.ok.sum(), contagem.erros.sum(),
+                    contagem.falhas.sum(), segundos, statusOperacao));
+
+            total.add(latencias);
+            ok += contagem.ok.sum();
+            erros += contagem.erros.sum();
+            falhas += contagem.falhas.sum();
+            statusOperacao.forEach((codigo, quantidade) -> status.merge(codigo, quantidade, Long::sum));
+        }
+        resumos.add(resumo("total", total, ok, erros, falhas, segundos, status));
+        return resumos;
+    }
+
+    // Distribuição completa de todas as operações em ms, no formato lido pelo HdrHistogram plotter.
+    void gravarDistribuicao(Path arquivo) throws IOException {
+        Histogram total = new Histogram(MAXIMO_MICROS, 3);
+        contagens.values().forEach(contagem -> total.add(contagem.latencias));
+        try (PrintStream saida = new PrintStream(Files.newOutputStream(arquivo))) {
+            total.outputPercentileDistribution(saida, 1000.0);
+        }
+    }
+
+    private static Resumo resumo(String operacao, Histogram latencias, long ok, long erros, long falhas,
+            double segundos, SortedMap<Integer, Long> status) {
+        return new Resumo(operacao, latencias.getTotalCount(), ok, erros, falhas, ok / segundos,
+                milis(latencias.getValueAtPercentile(50)),
+                milis(latencias.getValueAtPercentile(95)),
+                milis(latencias.getValueAtPercentile(99)),
+                milis(latencias.getValueAtPercentile(99.9)),
+                milis(latencias.getMaxValue()),
+                status);
+    }
+
+    private static long micros(long nanos) {
+        return Math.min(MAXIMO_MICROS, Math.max(1, TimeUnit.NANOSECONDS.toMicros(nanos)));
+    }
+
+    private static double milis(long micros) {
+        return micros / 1000.0;
+    }
+}
@@ -0,0 +1,70 @@
+package com.sylviavitoria.blogpets.carga;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.random.RandomGenerator;
+
+// Pesos de cada operação, lidos de "criar=10,buscarPorId=50,...". Os pesos não precisam somar 100;
+// operações ausentes ficam com peso zero.
+final class MixOperacoes {
+
+    private final Map<Operacao, Integer> pesos;
+    private final Operacao[] operacoes;
+    private final int[] acumulados;
+    private final int total;
+
+    private MixOperacoes(Map<Operacao, Integer> pesos) {
+        this.pesos = pesos;
+        this.operacoes = pesos.keySet().toArray(Operacao[]::new);
+        this.acumulados = new int[operacoes.length];
+        int soma = 0;
+        for (int i = 0; i < operacoes.length; i++) {
+            soma += pesos.get(operacoes[i]);
+            acumulados[i] = soma;
+        }
+        this.total = soma;
+    }
+
+    static MixOperacoes ler(String mix) {
+        Map<Operacao, Integer> pesos = new EnumMap<>(Operacao.class);
+        for (String item : mix.split(",")) {
+            String[] partes = item.trim().split("=");
+            if (partes.length != 2) {
+                throw new IllegalArgumentException("Item inválido no mix: '" + item + "'; use operacao=peso");
+            }
+            int peso = Integer.parseInt(partes[1].trim());
+            if (peso < 0) {
+                throw new IllegalArgumentException("Peso negativo no mix: '" + item + "'");
+            }
+            if (peso > 0) {
+                pesos.put(Operacao.porNome(partes[0].trim()), peso);
+            }
+        }
+        if (pesos.isEmpty()) {
+            throw new IllegalArgumentException("O mix precisa de ao menos uma operação com peso positivo");
+        }
+        return new MixOperacoes(pesos);
+    }
+
+    Operacao sortear(RandomGenerator aleatorio) {
+        int valor = aleatorio.nextInt(total);
+        for (int i = 0; i < acumulados.length; i++) {
+            if (valor < acumulados[i]) {
+                return operacoes[i];
+            }
+        }
+        return operacoes[operacoes.length - 1];
+    }
+
+    Operacao[] operacoes() {
+        return operacoes.clone();
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder texto = new StringBuilder();
+        pesos.forEach((operacao, peso) -> texto.append(texto.isEmpty() ? "" : ",").append(operacao.nome())
+                .append('=').append(peso));
+        return texto.toString();
+    }
+}
@@ -0,0 +1,31 @@
+package com.sylviavitoria.blogpets.carga;
+
+import java.util.Arrays;
+
+// Operações que a carga distribui conforme o mix; o nome é o usado em -Dcarga.mix e no relatório.
+enum Operacao {
+
+    CRIAR("criar"),
+    BUSCAR_POR_ID("buscarPorId"),
+    LISTAR_TODOS("listarTodos"),
+    ATUALIZAR("atualizar"),
+    EXCLUIR("excluir");
+
+    private final String nome;
+
+    Operacao(String nome) {
+        this.nome = nome;
+    }
+
+    String nome() {
+        return nome;
+    }
+
+    static Operacao porNome(String nome) {
+        return Arrays.stream(values())
+                .filter(operacao -> operacao.nome.equals(nome))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Operação desconhecida no mix: " + nome
+                        + "; use " + Arrays.stream(values()).map(Operacao::nome).toList()));
+    }
+}
@@ -0,0 +1,104 @@
+package com.sylviavitoria.blogpets.benchmark;
+
+import com.sylviavitoria.blogpets.BlogpetsApplication;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Tempo de uma varredura (filtro sem índice) e de uma página ordenada com a descrição em
+// posts + post_conteudo e em posts_inline, cópia de posts com a descrição na mesma linha. Com o H2
+// em memória tudo cabe no cache; o ganho da varredura aparece no PostgreSQL, passando
+// -p url=jdbc:postgresql://... (e usuario/senha).
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ConteudoSeparadoBenchmark {
+
+    private static final long PRIMEIRO_ID = 20_000_000L;
+
+    private static final String VARREDURA_SEPARADA = "SELECT COUNT(*) FROM posts WHERE titulo LIKE '%77%'";
+    private static final String VARREDURA_INLINE = "SELECT COUNT(*) FROM posts_inline WHERE titulo LIKE '%77%'";
+    private static final String PAGINA_SEPARADA = "SELECT p.id, p.titulo, p.autor, c.descricao FROM posts p "
+            + "JOIN post_conteudo c ON c.post_id = p.id ORDER BY p.titulo, p.id LIMIT 100 OFFSET 1000";
+    private static final String PAGINA_INLINE = "SELECT id, titulo, autor, descricao FROM posts_inline "
+            + "ORDER BY titulo, id LIMIT 100 OFFSET 1000";
+
+    @Param({"20000"})
+    private int totalPosts;
+
+    @Param({""})
+    private String url;
+
+    @Param({"postgres"})
+    private String usuario;
+
+    @Param({"postgres"})
+    private String senha;
+
+    private ConfigurableApplicationContext contexto;
+    private JdbcTemplate jdbcTemplate;
+    private boolean postgres;
+
+    @Setup
+    public void setup() throws Exception {
+        SpringApplicationBuilder builder = new SpringApplicationBuilder(BlogpetsApplication.class)
+                .web(WebApplicationType.NONE);
+        contexto = url.isEmpty()
+                ? builder.run("--spring.profiles.active=h2",
+                        "--spring.jpa.show-sql=false",
+                        "--logging.level.root=WARN",
+                        "--logging.level.com.sylviavitoria.blogpets=WARN")
+                : builder.run("--spring.profiles.active=postgres",
+                        "--spring.datasource.url=" + url,
+                        "--spring.datasource.username=" + usuario,
+                        "--spring.datasource.password=" + senha,
+                        "--spring.jpa.show-sql=false",
+                        "--logging.level.root=WARN",
+                        "--logging.level.com.sylviavitoria.blogpets=WARN");
+        DataSource dataSource = contexto.getBean(DataSource.class);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        postgres = PostsEmMassa.postgres(dataSource);
+        PostsEmMassa.carregarConteudo(jdbcTemplate, postgres, totalPosts, PRIMEIRO_ID);
+    }
+
+    @TearDown
+    public void tearDown() {
+        PostsEmMassa.limpar(jdbcTemplate, postgres);
+        contexto.close();
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> varreduraSeparada() {
+        return jdbcTemplate.queryForList(VARREDURA_SEPARADA);
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> varreduraInline() {
+        return jdbcTemplate.queryForList(VARREDURA_INLINE);
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> paginaSeparada() {
+        return jdbcTemplate.queryForList(PAGINA_SEPARADA);
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> paginaInline() {
+        return jdbcTemplate.queryForList(PAGINA_INLINE);
+    }
+}
@@ -0,0 +1,74 @@
+package com.sylviavitoria.blogpets.benchmark;
+
+import com.sylviavitoria.blogpets.BlogpetsApplication;
+import com.sylviavitoria.blogpets.dto.PostRequest;
+import com.sylviavitoria.blogpets.interfaces.IPost;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Posts criados por segundo com criar() (um commit por post) e com criarEmLote() (um commit por
+// lote de TAMANHO_LOTE posts, gravados em blocos com JDBC batch).
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class CriacaoEmLoteBenchmark {
+
+    private static final int TAMANHO_LOTE = 1_000;
+
+    private ConfigurableApplicationContext contexto;
+    private IPost postService;
+    private List<PostRequest> lote;
+    private int proximo;
+
+    @Setup
+    public void setup() {
+        contexto = new SpringApplicationBuilder(BlogpetsApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.profiles.active=h2",
+                        "--spring.jpa.show-sql=false",
+                        "--logging.level.root=WARN",
+                        "--logging.level.com.sylviavitoria.blogpets=WARN",
+                        "--logging.level.org.hibernate.SQL=WARN");
+        postService = contexto.getBean(IPost.class);
+
+        lote = new ArrayList<>(TAMANHO_LOTE);
+        for (int i = 0; i < TAMANHO_LOTE; i++) {
+            PostRequest postRequest = new PostRequest();
+            postRequest.setTitulo("Post de benchmark " + i);
+            postRequest.setDescricao(Dados.descricao(640));
+            postRequest.setAutor("Autor " + (i % 50));
+            lote.add(postRequest);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        contexto.close();
+    }
+
+    @Benchmark
+    public Long criarIndividualmente() {
+        proximo = (proximo + 1) % TAMANHO_LOTE;
+        return postService.criar(lote.get(proximo)).getId();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(TAMANHO_LOTE)
+    public int criarEmLote() {
+        return postService.criarEmLote(lote).getCriados();
+    }
+}
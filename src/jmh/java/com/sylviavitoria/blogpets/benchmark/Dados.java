@@ -0,0 +1,33 @@
+package com.sylviavitoria.blogpets.benchmark;
+
+import com.sylviavitoria.blogpets.dto.PostResponse;
+import com.sylviavitoria.blogpets.model.Post;
+
+import java.time.LocalDateTime;
+
+final class Dados {
+
+    private Dados() {
+    }
+
+    static String descricao(int tamanho) {
+        String trecho = "Cuidados diários com o seu pet. ";
+        return trecho.repeat(Math.max(1, tamanho / trecho.length()));
+    }
+
+    static Post post(long id, int tamanhoDescricao) {
+        Post post = Post.criarNovo("Post de benchmark " + id, descricao(tamanhoDescricao), "Autor " + (id % 50));
+        post.setId(id);
+        post.setDataCriacao(LocalDateTime.of(2024, 1, 1, 12, 0).plusMinutes(id));
+        return post;
+    }
+
+    static PostResponse postResponse(long id, int tamanhoDescricao) {
+        return PostResponse.builder()
+                .id(id)
+                .titulo("Post de benchmark " + id)
+                .descricao(descricao(tamanhoDescricao))
+                .autor("Autor " + (id % 50))
+                .build();
+    }
+}
@@ -0,0 +1,83 @@
+package com.sylviavitoria.blogpets.benchmark;
+
+import com.sylviavitoria.blogpets.BlogpetsApplication;
+import com.sylviavitoria.blogpets.dto.CursorPageResponse;
+import com.sylviavitoria.blogpets.dto.PostResponse;
+import com.sylviavitoria.blogpets.interfaces.IPost;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.util.concurrent.TimeUnit;
+
+// Latência do feed de um autor na primeira página e após paginasPuladas páginas de cursor. Com o
+// índice (autor, data_criacao, id) as duas devem custar o mesmo, independente de totalPosts.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class FeedAutorBenchmark {
+
+    private static final int AUTORES = 1_000;
+    private static final long PRIMEIRO_ID = 10_000_000L;
+    private static final String AUTOR = "Autor 7";
+
+    @Param({"1000000"})
+    private int totalPosts;
+
+    @Param({"20"})
+    private int tamanhoPagina;
+
+    @Param({"21"})
+    private int paginasPuladas;
+
+    private ConfigurableApplicationContext contexto;
+    private IPost postService;
+    private String cursorProfundo;
+
+    @Setup
+    public void setup() {
+        contexto = new SpringApplicationBuilder(BlogpetsApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.profiles.active=h2",
+                        "--spring.jpa.show-sql=false",
+                        "--logging.level.root=WARN",
+                        "--logging.level.com.sylviavitoria.blogpets=WARN",
+                        "--logging.level.org.hibernate.SQL=WARN");
+        PostsEmMassa.carregarFeed(new JdbcTemplate(contexto.getBean(DataSource.class)), false, totalPosts, AUTORES,
+                PRIMEIRO_ID);
+
+        postService = contexto.getBean(IPost.class);
+        for (int i = 0; i < paginasPuladas; i++) {
+            cursorProfundo = postService.listarPorAutor(AUTOR, cursorProfundo, tamanhoPagina).getNextCursor();
+            if (cursorProfundo == null) {
+                throw new IllegalStateException("O autor tem menos de " + (paginasPuladas + 1) + " páginas; aumente totalPosts");
+            }
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        contexto.close();
+    }
+
+    @Benchmark
+    public CursorPageResponse<PostResponse> primeiraPagina() {
+        return postService.listarPorAutor(AUTOR, null, tamanhoPagina);
+    }
+
+    @Benchmark
+    public CursorPageResponse<PostResponse> paginaProfunda() {
+        return postService.listarPorAutor(AUTOR, cursorProfundo, tamanhoPagina);
+    }
+}
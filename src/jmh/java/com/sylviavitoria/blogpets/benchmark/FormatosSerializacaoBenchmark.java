@@ -0,0 +1,89 @@
+package com.sylviavitoria.blogpets.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import com.sylviavitoria.blogpets.dto.PostResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Custo de CPU por formato de resposta de {@code GET /api/v1/posts}, com e sem gzip. O tamanho
+ * em bytes de cada combinação é impresso no início da execução.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class FormatosSerializacaoBenchmark {
+
+    @Param({"json", "cbor", "smile"})
+    private String formato;
+
+    @Param({"false", "true"})
+    private boolean blackbird;
+
+    @Param({"10"})
+    private int tamanhoPagina;
+
+    @Param({"2000"})
+    private int tamanhoDescricao;
+
+    private ObjectMapper objectMapper;
+    private Page<PostResponse> pagina;
+
+    @Setup
+    public void setup() throws IOException {
+        Jackson2ObjectMapperBuilder builder = switch (formato) {
+            case "json" -> Jackson2ObjectMapperBuilder.json();
+            case "cbor" -> Jackson2ObjectMapperBuilder.json().factory(new CBORFactory());
+            case "smile" -> Jackson2ObjectMapperBuilder.json().factory(new SmileFactory());
+            default -> throw new IllegalArgumentException("Formato desconhecido: " + formato);
+        };
+        if (blackbird) {
+            builder.modulesToInstall(new BlackbirdModule());
+        }
+        objectMapper = builder.timeZone(TimeZone.getTimeZone("America/Sao_Paulo")).build();
+
+        List<PostResponse> posts = LongStream.rangeClosed(1, tamanhoPagina)
+                .mapToObj(id -> Dados.postResponse(id, tamanhoDescricao))
+                .toList();
+        pagina = new PageImpl<>(posts, PageRequest.of(0, tamanhoPagina, Sort.by("titulo")), 10_000);
+
+        System.out.printf("%n%s: %d bytes, %d bytes com gzip%n",
+                formato, serializar().length, serializarComGzip().length);
+    }
+
+    @Benchmark
+    public byte[] serializar() throws IOException {
+        return objectMapper.writeValueAsBytes(pagina);
+    }
+
+    @Benchmark
+    public byte[] serializarComGzip() throws IOException {
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(saida)) {
+            objectMapper.writeValue(gzip, pagina);
+        }
+        return saida.toByteArray();
+    }
+}
@@ -0,0 +1,111 @@
+package com.sylviavitoria.blogpets.benchmark;
+
+import com.sylviavitoria.blogpets.BlogpetsApplication;
+import com.sylviavitoria.blogpets.dto.IngestaoResponse;
+import com.sylviavitoria.blogpets.dto.PostRequest;
+import com.sylviavitoria.blogpets.exception.IngestaoIndisponivelException;
+import com.sylviavitoria.blogpets.interfaces.IIngestaoPost;
+import com.sylviavitoria.blogpets.interfaces.IPost;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+// Posts criados por segundo com 32 clientes simultâneos: criar() faz um commit por post, enquanto a
+// ingestão assíncrona agrupa vários posts por commit. Cada commit sofre latenciaCommitMs de atraso;
+// na ingestão a operação só termina quando o ticket sai de PENDENTE.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Threads(32)
+public class IngestaoBenchmark {
+
+    private static final long ESPERA_CONSULTA_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    @Param({"2", "20"})
+    private int latenciaCommitMs;
+
+    @Param({"50"})
+    private int tamanhoGrupo;
+
+    @Param({"2"})
+    private int janelaMs;
+
+    private ConfigurableApplicationContext contexto;
+    private IPost postService;
+    private IIngestaoPost ingestao;
+
+    @Setup
+    public void setup() {
+        LatenciaSimulada latenciaSimulada = new LatenciaSimulada(Duration.ZERO, Duration.ofMillis(latenciaCommitMs));
+        contexto = new SpringApplicationBuilder(BlogpetsApplication.class)
+                .initializers(ctx -> ctx.getBeanFactory().addBeanPostProcessor(latenciaSimulada))
+                .run("--spring.profiles.active=h2",
+                        "--server.port=0",
+                        "--blogpets.ingestao.habilitada=true",
+                        "--blogpets.ingestao.tamanho-grupo=" + tamanhoGrupo,
+                        "--blogpets.ingestao.janela=" + janelaMs + "ms",
+                        "--spring.jpa.show-sql=false",
+                        "--logging.level.root=WARN",
+                        "--logging.level.com.sylviavitoria.blogpets=WARN",
+                        "--logging.level.org.hibernate.SQL=WARN");
+        postService = contexto.getBean(IPost.class);
+        ingestao = contexto.getBean(IIngestaoPost.class);
+        latenciaSimulada.ativar();
+    }
+
+    @TearDown
+    public void tearDown() {
+        contexto.close();
+    }
+
+    @Benchmark
+    public Long criarComCommitPorPost() {
+        return postService.criar(postRequest()).getId();
+    }
+
+    @Benchmark
+    public Long criarPorIngestao() {
+        IngestaoResponse situacao = enfileirar(postRequest());
+        while (IngestaoResponse.PENDENTE.equals(situacao.getStatus())) {
+            LockSupport.parkNanos(ESPERA_CONSULTA_NANOS);
+            situacao = ingestao.consultar(situacao.getTicket());
+        }
+        if (!IngestaoResponse.CRIADO.equals(situacao.getStatus())) {
+            throw new IllegalStateException("Ingestão falhou: " + situacao.getErro());
+        }
+        return situacao.getPost().getId();
+    }
+
+    private IngestaoResponse enfileirar(PostRequest postRequest) {
+        while (true) {
+            try {
+                return ingestao.enfileirar(postRequest);
+            } catch (IngestaoIndisponivelException e) {
+                LockSupport.parkNanos(ESPERA_CONSULTA_NANOS);
+            }
+        }
+    }
+
+    private static PostRequest postRequest() {
+        int numero = ThreadLocalRandom.current().nextInt(1_000_000);
+        PostRequest postRequest = new PostRequest();
+        postRequest.setTitulo("Post de ingestão " + numero);
+        postRequest.setDescricao(Dados.descricao(500));
+        postRequest.setAutor("Autor " + (numero % 50));
+        return postRequest;
+    }
+}
@@ -0,0 +1,121 @@
+package com.sylviavitoria.blogpets.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Tempo até a primeira resposta de GET /api/v1/posts, contado do lançamento da JVM. Cada invocação
+// sobe um processo novo a partir do que o build gerou em target/: o jar executável (padrao), o jar
+// extraído pelo jarmode tools (extraido) e o jar extraído com o arquivo AppCDS do treino e o
+// contexto pré-processado pelo Spring AOT (cds-aot). Os dois últimos exigem -Pinicio-rapido.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class InicioAplicacaoBenchmark {
+
+    private static final Path ALVO = Path.of("target");
+    private static final String JAR = "blogpets-0.0.1-SNAPSHOT.jar";
+    private static final Duration LIMITE = Duration.ofMinutes(3);
+
+    @Param({"padrao", "extraido", "cds-aot"})
+    private String modo;
+
+    private HttpClient httpClient;
+    private Process processo;
+
+    @Setup
+    public void setup() {
+        httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+    }
+
+    @Benchmark
+    public int primeiraRequisicao() throws Exception {
+        int porta = portaLivre();
+        processo = new ProcessBuilder(comando(porta))
+                .directory(diretorio().toFile())
+                .redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .start();
+
+        HttpRequest requisicao = HttpRequest.newBuilder(URI.create("http://localhost:" + porta + "/api/v1/posts")).build();
+        long limite = System.nanoTime() + LIMITE.toNanos();
+        while (System.nanoTime() < limite) {
+            if (!processo.isAlive()) {
+                throw new IllegalStateException("A aplicação terminou antes de responder (modo " + modo + ")");
+            }
+            try {
+                HttpResponse<Void> resposta = httpClient.send(requisicao, HttpResponse.BodyHandlers.discarding());
+                if (resposta.statusCode() == 200) {
+                    return resposta.statusCode();
+                }
+            } catch (IOException e) {
+                // Ainda subindo.
+            }
+            Thread.sleep(10);
+        }
+        throw new IllegalStateException("A aplicação não respondeu em " + LIMITE.toSeconds() + " s (modo " + modo + ")");
+    }
+
+    @TearDown(Level.Invocation)
+    public void encerrar() throws InterruptedException {
+        if (processo != null) {
+            processo.destroy();
+            if (!processo.waitFor(30, TimeUnit.SECONDS)) {
+                processo.destroyForcibly().waitFor();
+            }
+            processo = null;
+        }
+    }
+
+    private Path diretorio() {
+        Path diretorio = "padrao".equals(modo) ? ALVO : ALVO.resolve("inicio-rapido");
+        if (!Files.exists(diretorio.resolve(JAR))) {
+            throw new IllegalStateException("Jar não encontrado em " + diretorio.toAbsolutePath()
+                    + "; gere com mvn package -Pinicio-rapido");
+        }
+        return diretorio;
+    }
+
+    private List<String> comando(int porta) {
+        List<String> comando = new ArrayList<>();
+        comando.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        if ("cds-aot".equals(modo)) {
+            comando.add("-XX:SharedArchiveFile=application.jsa");
+            comando.add("-Xlog:cds=off");
+            comando.add("-Dspring.aot.enabled=true");
+        }
+        comando.addAll(List.of("-jar", JAR,
+                "--server.port=" + porta,
+                "--spring.jpa.show-sql=false",
+                "--logging.level.root=WARN",
+                "--logging.level.com.sylviavitoria.blogpets=WARN",
+                "--logging.level.org.hibernate.SQL=WARN"));
+        return comando;
+    }
+
+    private static int portaLivre() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
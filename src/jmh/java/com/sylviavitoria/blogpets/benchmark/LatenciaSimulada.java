@@ -0,0 +1,86 @@
+package com.sylviavitoria.blogpets.benchmark;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+
+// Atrasa cada execução de SQL como se o banco estivesse em outra máquina. O atraso acontece
+// antes de chamar o driver, fora de qualquer bloco synchronized, como uma espera de rede. O commit
+// pode ter um atraso próprio, simulando o fsync do log de transações.
+final class LatenciaSimulada implements BeanPostProcessor {
+
+    private final Duration latencia;
+    private final Duration latenciaCommit;
+    private volatile boolean ativa;
+
+    LatenciaSimulada(Duration latencia) {
+        this(latencia, Duration.ZERO);
+    }
+
+    LatenciaSimulada(Duration latencia, Duration latenciaCommit) {
+        this.latencia = latencia;
+        this.latenciaCommit = latenciaCommit;
+    }
+
+    void ativar() {
+        ativa = true;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (!(bean instanceof DataSource dataSource)) {
+            return bean;
+        }
+        return new DelegatingDataSource(dataSource) {
+            @Override
+            public Connection getConnection() throws SQLException {
+                return conexao(super.getConnection());
+            }
+
+            @Override
+            public Connection getConnection(String usuario, String senha) throws SQLException {
+                return conexao(super.getConnection(usuario, senha));
+            }
+        };
+    }
+
+    private Connection conexao(Connection conexao) {
+        return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, metodo, argumentos) -> {
+                    if (ativa && "commit".equals(metodo.getName())) {
+                        Thread.sleep(latenciaCommit);
+                    }
+                    Object resultado = invocar(conexao, metodo, argumentos);
+                    if (resultado instanceof Statement statement && Statement.class.isAssignableFrom(metodo.getReturnType())) {
+                        return comando(statement, metodo.getReturnType());
+                    }
+                    return resultado;
+                });
+    }
+
+    private Object comando(Statement statement, Class<?> tipo) {
+        return Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{tipo},
+                (proxy, metodo, argumentos) -> {
+                    if (ativa && metodo.getName().startsWith("execute")) {
+                        Thread.sleep(latencia);
+                    }
+                    return invocar(statement, metodo, argumentos);
+                });
+    }
+
+    private static Object invocar(Object alvo, Method metodo, Object[] argumentos) throws Throwable {
+        try {
+            return metodo.invoke(alvo, argumentos);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
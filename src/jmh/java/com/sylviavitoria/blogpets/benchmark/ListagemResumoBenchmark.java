@@ -0,0 +1,83 @@
+package com.sylviavitoria.blogpets.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sylviavitoria.blogpets.BlogpetsApplication;
+import com.sylviavitoria.blogpets.interfaces.IPost;
+import com.sylviavitoria.blogpets.model.Post;
+import com.sylviavitoria.blogpets.repository.PostRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Latência (p95 e p99 no modo SampleTime) de uma página serializada da listagem completa e da
+// listagem de resumos, com descrições longas. O tamanho em bytes de cada página é impresso no início.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ListagemResumoBenchmark {
+
+    private static final int TOTAL_POSTS = 2_000;
+    private static final int PAGINA = 3;
+
+    @Param({"100"})
+    private int tamanhoPagina;
+
+    @Param({"8000"})
+    private int tamanhoDescricao;
+
+    private ConfigurableApplicationContext contexto;
+    private IPost postService;
+    private ObjectMapper objectMapper;
+
+    @Setup
+    public void setup() throws IOException {
+        contexto = new SpringApplicationBuilder(BlogpetsApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.profiles.active=h2",
+                        "--spring.jpa.show-sql=false",
+                        "--logging.level.root=WARN",
+                        "--logging.level.com.sylviavitoria.blogpets=WARN",
+                        "--logging.level.org.hibernate.SQL=WARN");
+
+        PostRepository postRepository = contexto.getBean(PostRepository.class);
+        List<Post> posts = new ArrayList<>(TOTAL_POSTS);
+        for (int i = 0; i < TOTAL_POSTS; i++) {
+            posts.add(Post.criarNovo("Post de benchmark " + i, Dados.descricao(tamanhoDescricao), "Autor " + (i % 50)));
+        }
+        postRepository.saveAll(posts);
+
+        postService = contexto.getBean(IPost.class);
+        objectMapper = contexto.getBean(ObjectMapper.class);
+
+        System.out.printf("%ncompleta: %d bytes, resumo: %d bytes%n", listagemCompleta().length, listagemResumo().length);
+    }
+
+    @TearDown
+    public void tearDown() {
+        contexto.close();
+    }
+
+    @Benchmark
+    public byte[] listagemCompleta() throws IOException {
+        return objectMapper.writeValueAsBytes(postService.listarTodos(PAGINA, tamanhoPagina, "titulo"));
+    }
+
+    @Benchmark
+    public byte[] listagemResumo() throws IOException {
+        return objectMapper.writeValueAsBytes(postService.listarResumos(PAGINA, tamanhoPagina, "titulo"));
+    }
+}
@@ -0,0 +1,72 @@
+package com.sylviavitoria.blogpets.benchmark;
+
+import com.sylviavitoria.blogpets.BlogpetsApplication;
+import com.sylviavitoria.blogpets.dto.PostResponse;
+import com.sylviavitoria.blogpets.interfaces.IPost;
+import com.sylviavitoria.blogpets.model.Post;
+import com.sylviavitoria.blogpets.repository.PostRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class ListarTodosBenchmark {
+
+    private static final int TOTAL_POSTS = 10_000;
+
+    @Param({"10", "100"})
+    private int tamanhoPagina;
+
+    private ConfigurableApplicationContext contexto;
+    private IPost postService;
+    private int paginas;
+    private int pagina;
+
+    @Setup
+    public void setup() {
+        contexto = new SpringApplicationBuilder(BlogpetsApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.profiles.active=h2",
+                        "--spring.jpa.show-sql=false",
+                        "--logging.level.root=WARN",
+                        "--logging.level.com.sylviavitoria.blogpets=WARN",
+                        "--logging.level.org.hibernate.SQL=WARN");
+
+        PostRepository postRepository = contexto.getBean(PostRepository.class);
+        List<Post> posts = new ArrayList<>(TOTAL_POSTS);
+        for (int i = 0; i < TOTAL_POSTS; i++) {
+            posts.add(Post.criarNovo("Post de benchmark " + i, Dados.descricao(2_000), "Autor " + (i % 50)));
+        }
+        postRepository.saveAll(posts);
+
+        postService = contexto.getBean(IPost.class);
+        paginas = TOTAL_POSTS / tamanhoPagina;
+    }
+
+    @TearDown
+    public void tearDown() {
+        contexto.close();
+    }
+
+    @Benchmark
+    public Page<PostResponse> listarTodos() {
+        pagina = (pagina + 1) % paginas;
+        return postService.listarTodos(pagina, tamanhoPagina, "titulo");
+    }
+}
@@ -0,0 +1,51 @@
+package com.sylviavitoria.blogpets.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sylviavitoria.blogpets.dto.PostResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class PaginaSerializacaoBenchmark {
+
+    @Param({"10", "100"})
+    private int tamanhoPagina;
+
+    private ObjectMapper objectMapper;
+    private Page<PostResponse> pagina;
+
+    @Setup
+    public void setup() {
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+                .timeZone(TimeZone.getTimeZone("America/Sao_Paulo"))
+                .build();
+
+        List<PostResponse> posts = LongStream.rangeClosed(1, tamanhoPagina)
+                .mapToObj(id -> Dados.postResponse(id, 2_000))
+                .toList();
+        pagina = new PageImpl<>(posts, PageRequest.of(0, tamanhoPagina, Sort.by("titulo")), 10_000);
+    }
+
+    @Benchmark
+    public byte[] serializarPagina() throws Exception {
+        return objectMapper.writeValueAsBytes(pagina);
+    }
+}
@@ -0,0 +1,34 @@
+package com.sylviavitoria.blogpets.benchmark;
+
+import com.sylviavitoria.blogpets.dto.PostResponse;
+import com.sylviavitoria.blogpets.mapper.PostMapper;
+import com.sylviavitoria.blogpets.model.Post;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class PostMapperBenchmark {
+
+    private PostMapper postMapper;
+    private Post post;
+
+    @Setup
+    public void setup() {
+        postMapper = PostMapper.INSTANCE;
+        post = Dados.post(1L, 2_000);
+    }
+
+    @Benchmark
+    public PostResponse toResponse() {
+        return postMapper.toResponse(post);
+    }
+}
@@ -0,0 +1,26 @@
+package com.sylviavitoria.blogpets.benchmark;
+
+import com.sylviavitoria.blogpets.model.Post;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class PostValidacaoBenchmark {
+
+    private final String titulo = "Como preparar sua casa para um novo pet";
+    private final String descricao = "Vai receber um novo amigo peludo? Veja dicas fáceis para deixar sua casa segura. ".repeat(20);
+    private final String autor = "Julia Silva";
+
+    @Benchmark
+    public Post criarNovo() {
+        return Post.criarNovo(titulo, descricao, autor);
+    }
+}
@@ -0,0 +1,105 @@
+package com.sylviavitoria.blogpets.benchmark;
+
+import com.sylviavitoria.blogpets.BlogpetsApplication;
+import com.sylviavitoria.blogpets.model.Post;
+import com.sylviavitoria.blogpets.repository.PostRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Mede vazão e latência (p99 no modo SampleTime) de GET /api/v1/posts com o Tomcat em threads de
+// plataforma ou em virtual threads. Cada SQL sofre latenciaMs de atraso; com threads de plataforma
+// a concorrência fica limitada a threadsTomcat, com virtual threads ao pool de conexões.
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Threads(100)
+public class ThreadsVirtuaisBenchmark {
+
+    private static final int TOTAL_POSTS = 1_000;
+    private static final int TAMANHO_PAGINA = 10;
+
+    @Param({"false", "true"})
+    private boolean threadsVirtuais;
+
+    @Param({"10"})
+    private int latenciaMs;
+
+    @Param({"20"})
+    private int threadsTomcat;
+
+    @Param({"50"})
+    private int conexoes;
+
+    private ConfigurableApplicationContext contexto;
+    private HttpClient httpClient;
+    private String base;
+
+    @Setup
+    public void setup() {
+        LatenciaSimulada latenciaSimulada = new LatenciaSimulada(Duration.ofMillis(latenciaMs));
+        contexto = new SpringApplicationBuilder(BlogpetsApplication.class)
+                .initializers(ctx -> ctx.getBeanFactory().addBeanPostProcessor(latenciaSimulada))
+                .run("--spring.profiles.active=h2",
+                        "--server.port=0",
+                        "--spring.threads.virtual.enabled=" + threadsVirtuais,
+                        "--server.tomcat.threads.max=" + threadsTomcat,
+                        "--spring.datasource.hikari.maximum-pool-size=" + conexoes,
+                        "--blogpets.threads.monitorar-pinning=true",
+                        "--spring.jpa.show-sql=false",
+                        "--logging.level.root=WARN",
+                        "--logging.level.com.sylviavitoria.blogpets=WARN",
+                        "--logging.level.org.hibernate.SQL=WARN");
+
+        PostRepository postRepository = contexto.getBean(PostRepository.class);
+        List<Post> posts = new ArrayList<>(TOTAL_POSTS);
+        for (int i = 0; i < TOTAL_POSTS; i++) {
+            posts.add(Post.criarNovo("Post de benchmark " + i, Dados.descricao(500), "Autor " + (i % 50)));
+        }
+        postRepository.saveAll(posts);
+        latenciaSimulada.ativar();
+
+        httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        base = "http://localhost:" + contexto.getEnvironment().getProperty("local.server.port")
+                + "/api/v1/posts?size=" + TAMANHO_PAGINA + "&page=";
+    }
+
+    @TearDown
+    public void tearDown() {
+        Timer pinning = contexto.getBean(MeterRegistry.class).find("blogpets.threads.virtuais.pinning").timer();
+        System.out.printf("%nEventos de pinning acima de 20 ms: %d%n", pinning == null ? 0 : pinning.count());
+        contexto.close();
+    }
+
+    @Benchmark
+    public int listarTodos() throws Exception {
+        int pagina = ThreadLocalRandom.current().nextInt(TOTAL_POSTS / TAMANHO_PAGINA);
+        HttpRequest requisicao = HttpRequest.newBuilder(URI.create(base + pagina)).GET().build();
+        HttpResponse<Void> resposta = httpClient.send(requisicao, HttpResponse.BodyHandlers.discarding());
+        if (resposta.statusCode() != 200) {
+            throw new IllegalStateException("Resposta inesperada: " + resposta.statusCode());
+        }
+        return resposta.statusCode();
+    }
+}
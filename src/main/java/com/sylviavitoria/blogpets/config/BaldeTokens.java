@@ -0,0 +1,37 @@
+package com.sylviavitoria.blogpets.config;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Balde de fichas no formato GCRA: o estado é só o instante teórico da próxima chegada, atualizado
+ * por compare-and-set. Requisições recusadas apenas leem o valor, sem disputar a escrita.
+ */
+final class BaldeTokens {
+
+    private final long intervaloNanos;
+    private final long toleranciaNanos;
+    private final AtomicLong proximaChegada;
+
+    BaldeTokens(double porSegundo, int rajada, long agoraNanos) {
+        this.intervaloNanos = Math.max(1L, Math.round(1_000_000_000L / porSegundo));
+        this.toleranciaNanos = (rajada - 1) * intervaloNanos;
+        this.proximaChegada = new AtomicLong(agoraNanos);
+    }
+
+    /**
+     * @return 0 quando a ficha foi consumida, ou quantos nanossegundos faltam para haver uma
+     */
+    long consumir(long agoraNanos) {
+        while (true) {
+            long prevista = proximaChegada.get();
+            long inicio = Math.max(prevista, agoraNanos);
+            long espera = inicio - agoraNanos - toleranciaNanos;
+            if (espera > 0) {
+                return espera;
+            }
+            if (proximaChegada.compareAndSet(prevista, inicio + intervaloNanos)) {
+                return 0;
+            }
+        }
+    }
+}
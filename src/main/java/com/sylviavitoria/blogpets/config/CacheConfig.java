@@ -0,0 +1,61 @@
+package com.sylviavitoria.blogpets.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.cache.CacheProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import java.time.Duration;
+
+// O interceptador de cache fica por fora do @Transactional (ordem padrão LOWEST_PRECEDENCE): um
+// acerto no cache não abre transação nem pega conexão.
+@Configuration
+@EnableCaching(order = CacheConfig.ORDEM_CACHE)
+@EnableConfigurationProperties(CacheProperties.class)
+public class CacheConfig {
+
+    public static final String POSTS_POR_ID = "postsPorId";
+    public static final String TOTAL_POSTS = "totalPosts";
+    public static final String PAGINAS_POSTS = "paginasPosts";
+    public static final int ORDEM_CACHE = Ordered.LOWEST_PRECEDENCE - 1;
+
+    // As invalidações só são aplicadas depois do commit, para que uma leitura feita entre a
+    // invalidação e o commit não recoloque a versão anterior. Isso não cobre a leitura que consultou
+    // o banco antes do commit e guarda o resultado depois da invalidação: em postsPorId ela é
+    // recusada pelo CacheEscritasRecentes.
+    @Bean
+    public CacheManager cacheManager(CacheProperties cacheProperties,
+            @Value("${blogpets.contagem.ttl:30s}") Duration ttlTotal,
+            @Value("${blogpets.cache-paginas.maximo:1000}") long maximoPaginas,
+            @Value("${blogpets.cache-paginas.ttl:60s}") Duration ttlPaginas,
+            @Value("${blogpets.cache.janela-escritas:1m}") Duration janelaEscritas) {
+        CaffeineCacheManager caffeineCacheManager = new CaffeineCacheManager() {
+            @Override
+            protected Cache adaptCaffeineCache(String name, com.github.benmanes.caffeine.cache.Cache<Object, Object> cache) {
+                return POSTS_POR_ID.equals(name)
+                        ? new CacheEscritasRecentes(name, cache, isAllowNullValues(), janelaEscritas)
+                        : super.adaptCaffeineCache(name, cache);
+            }
+        };
+        caffeineCacheManager.setCacheSpecification(cacheProperties.getCaffeine().getSpec());
+        caffeineCacheManager.setCacheNames(cacheProperties.getCacheNames());
+        caffeineCacheManager.registerCustomCache(TOTAL_POSTS, Caffeine.newBuilder()
+                .expireAfterWrite(ttlTotal)
+                .recordStats()
+                .build());
+        caffeineCacheManager.registerCustomCache(PAGINAS_POSTS, Caffeine.newBuilder()
+                .maximumSize(maximoPaginas)
+                .expireAfterWrite(ttlPaginas)
+                .recordStats()
+                .build());
+        return new TransactionAwareCacheManagerProxy(caffeineCacheManager);
+    }
+}
@@ -0,0 +1,118 @@
+package com.sylviavitoria.blogpets.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.cache.caffeine.CaffeineCache;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cache Caffeine que não guarda valores carregados antes da última escrita na mesma chave. Uma
+ * leitura que não encontra a entrada pode consultar o banco antes de uma escrita concorrente e só
+ * terminar depois que ela fez o commit e invalidou a entrada; sem esta proteção a versão anterior
+ * ficaria no cache até o TTL vencer. Cada {@code evict} (aplicado após o commit pelo
+ * {@code TransactionAwareCacheDecorator}) recebe um número crescente, e um carregamento feito por
+ * {@link #get(Object, Callable)} (o {@code @Cacheable(sync = true)}) só é guardado se a chave não
+ * foi escrita, nem o cache limpo, desde que ele começou. As escritas são lembradas por
+ * {@code janela}; carregamentos mais demorados que isso não são guardados. Leituras simultâneas da
+ * mesma chave ausente esperam um único carregamento, desde que ele tenha começado depois da última
+ * escrita na chave; quem chega depois de uma escrita inicia um carregamento novo.
+ */
+class CacheEscritasRecentes extends CaffeineCache {
+
+    private final Cache<Object, Long> escritas;
+    private final AtomicLong contador = new AtomicLong();
+    private final long janelaNanos;
+    private volatile long ultimaLimpeza;
+    private final ConcurrentMap<Object, Carga> carregando = new ConcurrentHashMap<>();
+
+    private record Carga(long inicio, CompletableFuture<Object> valor) {
+    }
+
+    CacheEscritasRecentes(String nome, Cache<Object, Object> cache, boolean permitirNulos, Duration janela) {
+        super(nome, cache, permitirNulos);
+        this.escritas = Caffeine.newBuilder().expireAfterWrite(janela).build();
+        this.janelaNanos = janela.toNanos();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object chave, Callable<T> carregar) {
+        ValueWrapper presente = get(chave);
+        if (presente != null) {
+            return (T) presente.get();
+        }
+        Carga nova = new Carga(contador.get(), new CompletableFuture<>());
+        Carga carga = carregando.compute(chave,
+                (mesmaChave, atual) -> atual != null && atual(mesmaChave, atual.inicio()) ? atual : nova);
+        if (carga != nova) {
+            try {
+                return (T) carga.valor().join();
+            } catch (CompletionException e) {
+                throw new ValueRetrievalException(chave, carregar, e.getCause());
+            }
+        }
+
+        long inicioNanos = System.nanoTime();
+        try {
+            T valor = carregar.call();
+            if (System.nanoTime() - inicioNanos <= janelaNanos) {
+                guardarSeAtual(chave, valor, nova.inicio());
+            }
+            nova.valor().complete(valor);
+            return valor;
+        } catch (Exception e) {
+            nova.valor().completeExceptionally(e);
+            throw new ValueRetrievalException(chave, carregar, e);
+        } finally {
+            carregando.remove(chave, nova);
+        }
+    }
+
+    // O evict da escrita toma o lock da mesma chave depois de registrá-la: ou este compute já vê
+    // a escrita, ou termina antes e o valor guardado é removido pelo evict.
+    private void guardarSeAtual(Object chave, Object valor, long inicio) {
+        getNativeCache().asMap().compute(chave, (mesmaChave, atual) -> {
+            if (atual != null || !atual(mesmaChave, inicio)) {
+                return atual;
+            }
+            return toStoreValue(valor);
+        });
+    }
+
+    // Nenhuma escrita na chave nem limpeza do cache desde o número inicio.
+    private boolean atual(Object chave, long inicio) {
+        Long escrita = escritas.getIfPresent(chave);
+        return ultimaLimpeza <= inicio && (escrita == null || escrita <= inicio);
+    }
+
+    @Override
+    public void evict(Object chave) {
+        escritas.put(chave, contador.incrementAndGet());
+        super.evict(chave);
+    }
+
+    @Override
+    public boolean evictIfPresent(Object chave) {
+        escritas.put(chave, contador.incrementAndGet());
+        return super.evictIfPresent(chave);
+    }
+
+    @Override
+    public void clear() {
+        ultimaLimpeza = contador.incrementAndGet();
+        super.clear();
+    }
+
+    @Override
+    public boolean invalidate() {
+        ultimaLimpeza = contador.incrementAndGet();
+        return super.invalidate();
+    }
+}
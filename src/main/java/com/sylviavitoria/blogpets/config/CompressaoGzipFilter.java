@@ -0,0 +1,155 @@
+package com.sylviavitoria.blogpets.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Comprime o corpo das respostas em que o controller já definiu {@code Content-Encoding: gzip}.
+ * O Tomcat não comprime respostas com ETag forte ({@code noCompressionStrongETag}), porque o ETag
+ * passaria a identificar bytes que não são os enviados; aqui quem escolhe a codificação é o
+ * controller, que inclui {@code -gzip} no ETag da representação comprimida. Com o
+ * {@code Content-Encoding} definido, a compressão do Tomcat não atua sobre a resposta.
+ */
+@Component
+public class CompressaoGzipFilter extends OncePerRequestFilter {
+
+    public static final String GZIP = "gzip";
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        RespostaComprimivel resposta = new RespostaComprimivel(response);
+        try {
+            filterChain.doFilter(request, resposta);
+        } finally {
+            resposta.terminar();
+        }
+    }
+
+    private static final class RespostaComprimivel extends HttpServletResponseWrapper {
+
+        private GZIPOutputStream gzip;
+        private ServletOutputStream saida;
+        private PrintWriter escritor;
+
+        RespostaComprimivel(HttpServletResponse response) {
+            super(response);
+        }
+
+        // A decisão é tomada na primeira escrita do corpo, quando os cabeçalhos já foram definidos.
+        private boolean comprimir() {
+            return gzip != null || GZIP.equals(getHeader(HttpHeaders.CONTENT_ENCODING));
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            if (!comprimir()) {
+                return super.getOutputStream();
+            }
+            if (saida == null) {
+                ServletOutputStream original = super.getOutputStream();
+                gzip = new GZIPOutputStream(original);
+                saida = new ServletOutputStream() {
+                    @Override
+                    public void write(int b) throws IOException {
+                        gzip.write(b);
+                    }
+
+                    @Override
+                    public void write(byte[] b, int off, int len) throws IOException {
+                        gzip.write(b, off, len);
+                    }
+
+                    @Override
+                    public void flush() throws IOException {
+                        gzip.flush();
+                    }
+
+                    @Override
+                    public boolean isReady() {
+                        return original.isReady();
+                    }
+
+                    @Override
+                    public void setWriteListener(WriteListener writeListener) {
+                        original.setWriteListener(writeListener);
+                    }
+                };
+            }
+            return saida;
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            if (!comprimir()) {
+                return super.getWriter();
+            }
+            if (escritor == null) {
+                escritor = new PrintWriter(new OutputStreamWriter(getOutputStream(), getCharacterEncoding()));
+            }
+            return escritor;
+        }
+
+        // O tamanho informado antes da compressão não vale para o corpo comprimido.
+        @Override
+        public void setContentLength(int len) {
+            if (!comprimir()) {
+                super.setContentLength(len);
+            }
+        }
+
+        @Override
+        public void setContentLengthLong(long len) {
+            if (!comprimir()) {
+                super.setContentLengthLong(len);
+            }
+        }
+
+        @Override
+        public void setHeader(String name, String value) {
+            if (!(HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name) && comprimir())) {
+                super.setHeader(name, value);
+            }
+        }
+
+        @Override
+        public void addHeader(String name, String value) {
+            if (!(HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name) && comprimir())) {
+                super.addHeader(name, value);
+            }
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            if (escritor != null) {
+                escritor.flush();
+            }
+            if (gzip != null) {
+                gzip.flush();
+            }
+            super.flushBuffer();
+        }
+
+        void terminar() throws IOException {
+            if (escritor != null) {
+                escritor.flush();
+            }
+            if (gzip != null) {
+                gzip.finish();
+            }
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.sylviavitoria.blogpets.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.sylviavitoria.blogpets.exception.LimiteTaxaExcedidoException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Limite de escritas por cliente e global. O balde global é dividido em faixas, uma por núcleo,
+ * para que threads diferentes não disputem o mesmo contador; quando a faixa da thread está vazia
+ * as demais são consultadas antes de recusar.
+ */
+public class LimitadorEscrita {
+
+    private static final int MAXIMO_CLIENTES = 100_000;
+    private static final Duration INATIVIDADE_CLIENTE = Duration.ofMinutes(10);
+
+    private final BaldeTokens[] faixasGlobais;
+    private final Cache<String, BaldeTokens> clientes;
+    private final double porSegundoCliente;
+    private final int rajadaCliente;
+    private final LongSupplier relogio;
+
+    private final Counter permitidas;
+    private final Counter recusadasCliente;
+    private final Counter recusadasGlobal;
+
+    public LimitadorEscrita(double porSegundoCliente, int rajadaCliente, double porSegundoGlobal,
+            int rajadaGlobal, MeterRegistry meterRegistry, LongSupplier relogio) {
+        if (porSegundoCliente <= 0 || rajadaCliente < 1 || porSegundoGlobal <= 0 || rajadaGlobal < 1) {
+            throw new IllegalArgumentException("Os limites de escrita devem ser positivos");
+        }
+        this.porSegundoCliente = porSegundoCliente;
+        this.rajadaCliente = rajadaCliente;
+        this.relogio = relogio;
+
+        int faixas = Math.max(1, Math.min(Runtime.getRuntime().availableProcessors(), rajadaGlobal));
+        long agora = relogio.getAsLong();
+        this.faixasGlobais = new BaldeTokens[faixas];
+        for (int i = 0; i < faixas; i++) {
+            int rajadaFaixa = rajadaGlobal / faixas + (i < rajadaGlobal % faixas ? 1 : 0);
+            faixasGlobais[i] = new BaldeTokens(porSegundoGlobal / faixas, rajadaFaixa, agora);
+        }
+        this.clientes = Caffeine.newBuilder()
+                .maximumSize(MAXIMO_CLIENTES)
+                .expireAfterAccess(INATIVIDADE_CLIENTE)
+                .build();
+
+        this.permitidas = Counter.builder("blogpets.escritas.limite")
+                .description("Escritas avaliadas pelo limite de taxa")
+                .tag("resultado", "permitida")
+                .register(meterRegistry);
+        this.recusadasCliente = Counter.builder("blogpets.escritas.limite")
+                .description("Escritas avaliadas pelo limite de taxa")
+                .tag("resultado", "recusada-cliente")
+                .register(meterRegistry);
+        this.recusadasGlobal = Counter.builder("blogpets.escritas.limite")
+                .description("Escritas avaliadas pelo limite de taxa")
+                .tag("resultado", "recusada-global")
+                .register(meterRegistry);
+        Gauge.builder("blogpets.escritas.limite.clientes", clientes, Cache::estimatedSize)
+                .description("Clientes com balde de escrita ativo")
+                .register(meterRegistry);
+    }
+
+    public LimitadorEscrita(double porSegundoCliente, int rajadaCliente, double porSegundoGlobal,
+            int rajadaGlobal, MeterRegistry meterRegistry) {
+        this(porSegundoCliente, rajadaCliente, porSegundoGlobal, rajadaGlobal, meterRegistry, System::nanoTime);
+    }
+
+    public void consumir(String cliente) {
+        long agora = relogio.getAsLong();
+
+        BaldeTokens balde = clientes.get(cliente, chave -> new BaldeTokens(porSegundoCliente, rajadaCliente, agora));
+        long espera = balde.consumir(agora);
+        if (espera > 0) {
+            recusadasCliente.increment();
+            throw new LimiteTaxaExcedidoException("Limite de escritas excedido para o cliente " + cliente, segundos(espera));
+        }
+
+        espera = consumirGlobal(agora);
+        if (espera > 0) {
+            recusadasGlobal.increment();
+            throw new LimiteTaxaExcedidoException("Limite global de escritas excedido", segundos(espera));
+        }
+        permitidas.increment();
+    }
+
+    private long consumirGlobal(long agora) {
+        int inicio = (int) (Thread.currentThread().threadId() % faixasGlobais.length);
+        long menorEspera = Long.MAX_VALUE;
+        for (int i = 0; i < faixasGlobais.length; i++) {
+            long espera = faixasGlobais[(inicio + i) % faixasGlobais.length].consumir(agora);
+            if (espera == 0) {
+                return 0;
+            }
+            menorEspera = Math.min(menorEspera, espera);
+        }
+        return menorEspera;
+    }
+
+    private static long segundos(long nanos) {
+        return Math.max(1L, TimeUnit.NANOSECONDS.toSeconds(nanos + TimeUnit.SECONDS.toNanos(1) - 1));
+    }
+}
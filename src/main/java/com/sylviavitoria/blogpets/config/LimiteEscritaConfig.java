@@ -0,0 +1,36 @@
+package com.sylviavitoria.blogpets.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+// O cliente é o endereço remoto da conexão; atrás de um proxy, habilite
+// server.forward-headers-strategy para que ele venha do X-Forwarded-For.
+@Configuration
+@ConditionalOnProperty(name = "blogpets.limite-escrita.habilitado", havingValue = "true")
+public class LimiteEscritaConfig implements WebMvcConfigurer {
+
+    private final LimitadorEscrita limitador;
+
+    public LimiteEscritaConfig(LimitadorEscrita limitador) {
+        this.limitador = limitador;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new LimiteEscritaInterceptor(limitador)).addPathPatterns("/api/**");
+    }
+
+    @Bean
+    public static LimitadorEscrita limitadorEscrita(MeterRegistry meterRegistry,
+            @Value("${blogpets.limite-escrita.cliente.por-segundo}") double porSegundoCliente,
+            @Value("${blogpets.limite-escrita.cliente.rajada}") int rajadaCliente,
+            @Value("${blogpets.limite-escrita.global.por-segundo}") double porSegundoGlobal,
+            @Value("${blogpets.limite-escrita.global.rajada}") int rajadaGlobal) {
+        return new LimitadorEscrita(porSegundoCliente, rajadaCliente, porSegundoGlobal, rajadaGlobal, meterRegistry);
+    }
+}
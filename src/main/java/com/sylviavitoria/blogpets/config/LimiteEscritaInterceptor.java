@@ -0,0 +1,32 @@
+package com.sylviavitoria.blogpets.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.util.Set;
+
+/**
+ * Aplica o {@link LimitadorEscrita} antes do controller, sem abrir transação nem pegar conexão do
+ * pool. Leituras passam direto.
+ */
+public class LimiteEscritaInterceptor implements HandlerInterceptor {
+
+    private static final Set<String> METODOS_LEITURA = Set.of(
+            HttpMethod.GET.name(), HttpMethod.HEAD.name(), HttpMethod.OPTIONS.name());
+
+    private final LimitadorEscrita limitador;
+
+    public LimiteEscritaInterceptor(LimitadorEscrita limitador) {
+        this.limitador = limitador;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!METODOS_LEITURA.contains(request.getMethod())) {
+            limitador.consumir(request.getRemoteAddr());
+        }
+        return true;
+    }
+}
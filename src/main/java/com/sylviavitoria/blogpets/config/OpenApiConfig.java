@@ -5,8 +5,12 @@ import io.swagger.v3.oas.models.OpenAPI;
 import io.swagger.v3.oas.models.info.Info;
 import io.swagger.v3.oas.models.servers.Server;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
 
 import java.util.List;
 
@@ -16,7 +20,29 @@ public class OpenApiConfig {
     @Value("${api.version}")
     private String apiVersion;
 
+    // O springdoc só monta a documentação na primeira chamada a /api-docs, mas os beans dele (e os
+    // model converters do swagger) são criados no startup. Marcados como lazy, saem do caminho até a
+    // primeira requisição ao Swagger; os que a infraestrutura do MVC busca por tipo continuam ansiosos.
     @Bean
+    @ConditionalOnProperty(name = "blogpets.springdoc.inicializacao-tardia", havingValue = "true")
+    public static BeanFactoryPostProcessor inicializacaoTardiaSpringdoc() {
+        return beanFactory -> {
+            for (String nome : beanFactory.getBeanDefinitionNames()) {
+                BeanDefinition definicao = beanFactory.getBeanDefinition(nome);
+                String classe = definicao.getBeanClassName();
+                String fabrica = definicao.getFactoryBeanName();
+                if (classe == null && fabrica != null && beanFactory.containsBeanDefinition(fabrica)) {
+                    classe = beanFactory.getBeanDefinition(fabrica).getBeanClassName();
+                }
+                if (classe != null && classe.startsWith("org.springdoc.")) {
+                    definicao.setLazyInit(true);
+                }
+            }
+        };
+    }
+
+    @Bean
+    @Lazy
     public OpenAPI customOpenAPI() {
         return new OpenAPI()
                 .components(new Components())
@@ -0,0 +1,75 @@
+package com.sylviavitoria.blogpets.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+
+import java.time.Duration;
+import java.util.stream.Collectors;
+
+@Slf4j
+public class PinningMonitor implements SmartLifecycle {
+
+    static final String EVENTO = "jdk.VirtualThreadPinned";
+    private static final String CLASSE_VIRTUAL_THREAD = "java.lang.VirtualThread";
+    private static final int FRAMES_NO_LOG = 12;
+
+    private final Timer pinning;
+    private final Duration limite;
+    private RecordingStream stream;
+
+    public PinningMonitor(MeterRegistry meterRegistry, Duration limite) {
+        this.limite = limite;
+        this.pinning = Timer.builder("blogpets.threads.virtuais.pinning")
+                .description("Tempo em que virtual threads ficaram presas à thread portadora")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public synchronized void start() {
+        stream = new RecordingStream();
+        stream.enable(EVENTO).withThreshold(limite).withStackTrace();
+        stream.onEvent(EVENTO, this::registrar);
+        stream.startAsync();
+        log.info("Monitorando pinning de virtual threads acima de {} ms", limite.toMillis());
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (stream != null) {
+            stream.close();
+            stream = null;
+        }
+    }
+
+    @Override
+    public synchronized boolean isRunning() {
+        return stream != null;
+    }
+
+    private void registrar(RecordedEvent evento) {
+        pinning.record(evento.getDuration());
+        log.warn("Virtual thread presa à portadora por {} ms em:\n{}", evento.getDuration().toMillis(),
+                pilha(evento));
+    }
+
+    private String pilha(RecordedEvent evento) {
+        if (evento.getStackTrace() == null) {
+            return "\t(pilha indisponível)";
+        }
+        return evento.getStackTrace().getFrames().stream()
+                .dropWhile(frame -> frame.getMethod().getType().getName().equals(CLASSE_VIRTUAL_THREAD))
+                .limit(FRAMES_NO_LOG)
+                .map(this::formatar)
+                .collect(Collectors.joining("\n"));
+    }
+
+    private String formatar(RecordedFrame frame) {
+        return "\tat " + frame.getMethod().getType().getName() + "." + frame.getMethod().getName()
+                + ":" + frame.getLineNumber();
+    }
+}
@@ -0,0 +1,52 @@
+package com.sylviavitoria.blogpets.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.flyway.FlywayDataSource;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+// Ativada quando blogpets.datasource.replica.jdbc-url é informado. O proxy lazy adia a obtenção da
+// conexão até o primeiro comando, quando a transação já foi marcada como somente leitura.
+@Configuration
+@ConditionalOnProperty(name = "blogpets.datasource.replica.jdbc-url")
+public class ReplicaDataSourceConfig {
+
+    @Bean
+    @FlywayDataSource
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primarioDataSource(DataSourceProperties dataSourceProperties) {
+        HikariDataSource dataSource = dataSourceProperties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        dataSource.setPoolName("primario");
+        return dataSource;
+    }
+
+    @Bean
+    @ConfigurationProperties("blogpets.datasource.replica")
+    public HikariDataSource replicaDataSource() {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setPoolName("replica");
+        dataSource.setConnectionTimeout(Duration.ofSeconds(2).toMillis());
+        dataSource.setInitializationFailTimeout(-1);
+        return dataSource;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primarioDataSource") DataSource primario,
+            @Qualifier("replicaDataSource") DataSource replica,
+            @Value("${blogpets.datasource.replica.pausa-apos-falha:30s}") Duration pausaAposFalha) {
+        return new LazyConnectionDataSourceProxy(new ReplicaRoutingDataSource(primario, replica, pausaAposFalha));
+    }
+}
@@ -0,0 +1,78 @@
+package com.sylviavitoria.blogpets.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.function.Supplier;
+
+// Envia transações somente leitura para a réplica e todo o resto para o primário. Se a réplica
+// não entregar uma conexão, as leituras vão para o primário durante a pausa configurada. Leituras
+// feitas dentro de noPrimario também vão para o primário.
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    static final String PRIMARIO = "primario";
+    static final String REPLICA = "replica";
+
+    private static final ThreadLocal<Boolean> NO_PRIMARIO = ThreadLocal.withInitial(() -> false);
+
+    private final Duration pausaAposFalha;
+    private volatile long replicaIndisponivelAte;
+
+    public ReplicaRoutingDataSource(DataSource primario, DataSource replica, Duration pausaAposFalha) {
+        this.pausaAposFalha = pausaAposFalha;
+        this.replicaIndisponivelAte = System.nanoTime();
+        setTargetDataSources(Map.of(PRIMARIO, primario, REPLICA, replica));
+        setDefaultTargetDataSource(primario);
+        afterPropertiesSet();
+    }
+
+    // Para leituras cujo resultado vai para um cache ou decide uma escrita: lidas da réplica logo
+    // após uma escrita, trariam a versão anterior. Como a conexão só é obtida no primeiro comando,
+    // vale para a transação aberta dentro da leitura ou já aberta sem ter executado nada.
+    public static <T> T noPrimario(Supplier<T> leitura) {
+        if (NO_PRIMARIO.get()) {
+            return leitura.get();
+        }
+        NO_PRIMARIO.set(true);
+        try {
+            return leitura.get();
+        } finally {
+            NO_PRIMARIO.remove();
+        }
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return usarReplica() ? REPLICA : PRIMARIO;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        try {
+            return super.getConnection();
+        } catch (SQLException e) {
+            if (!usarReplica()) {
+                throw e;
+            }
+            replicaIndisponivelAte = System.nanoTime() + pausaAposFalha.toNanos();
+            log.warn("Réplica indisponível, leituras vão para o primário pelos próximos {} s: {}",
+                    pausaAposFalha.toSeconds(), e.getMessage());
+            return super.getConnection();
+        }
+    }
+
+    boolean replicaDisponivel() {
+        return System.nanoTime() - replicaIndisponivelAte >= 0;
+    }
+
+    private boolean usarReplica() {
+        return !NO_PRIMARIO.get() && TransactionSynchronizationManager.isCurrentTransactionReadOnly() && replicaDisponivel();
+    }
+}
@@ -0,0 +1,27 @@
+package com.sylviavitoria.blogpets.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+import java.time.Duration;
+
+// Com spring.threads.virtual.enabled=true o Spring Boot troca o executor do Tomcat e o
+// applicationTaskExecutor (usado pelo @Async) por virtual threads. Os @Scheduled (arquivamento de
+// posts) rodam no taskScheduler de uma thread configurado pelo Spring Boot.
+@Configuration
+@EnableAsync
+@EnableScheduling
+public class ThreadsConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "blogpets.threads.monitorar-pinning", havingValue = "true")
+    public PinningMonitor pinningMonitor(MeterRegistry meterRegistry,
+            @Value("${blogpets.threads.limite-pinning:20ms}") Duration limite) {
+        return new PinningMonitor(meterRegistry, limite);
+    }
+}
@@ -0,0 +1,62 @@
+package com.sylviavitoria.blogpets.controller;
+
+import com.sylviavitoria.blogpets.dto.IngestaoResponse;
+import com.sylviavitoria.blogpets.dto.PostRequest;
+import com.sylviavitoria.blogpets.interfaces.IIngestaoPost;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import jakarta.validation.Valid;
+
+import java.net.URI;
+import java.util.Map;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/v1/posts/ingestao")
+@CrossOrigin(origins = "*")
+@ConditionalOnProperty(name = "blogpets.ingestao.habilitada", havingValue = "true")
+public class IngestaoController {
+
+    private final IIngestaoPost ingestaoPost;
+
+    public IngestaoController(IIngestaoPost ingestaoPost) {
+        this.ingestaoPost = ingestaoPost;
+    }
+
+    @PostMapping
+    @Operation(summary = "Enfileirar criação de Post", description = "Valida o Post e o coloca na fila de gravação em grupo, retornando um ticket para acompanhar a criação")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "202", description = "Post aceito; consulte o endereço do cabeçalho Location"),
+            @ApiResponse(responseCode = "400", description = "Dados inválidos fornecidos", content = @Content(schema = @Schema(implementation = Map.class))),
+            @ApiResponse(responseCode = "503", description = "Fila cheia ou aplicação encerrando; tente novamente após Retry-After", content = @Content(schema = @Schema(implementation = Map.class)))
+    })
+    public ResponseEntity<IngestaoResponse> enfileirar(@Valid @RequestBody PostRequest postRequest) {
+        IngestaoResponse ingestaoResponse = ingestaoPost.enfileirar(postRequest);
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/v1/posts/ingestao/" + ingestaoResponse.getTicket()))
+                .body(ingestaoResponse);
+    }
+
+    @GetMapping("/{ticket}")
+    @Operation(summary = "Consultar ingestão", description = "Retorna a situação de um Post enfileirado. Quando criado, o cabeçalho Location aponta para o Post")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Situação da ingestão"),
+            @ApiResponse(responseCode = "404", description = "Ticket desconhecido ou expirado", content = @Content(schema = @Schema(implementation = Map.class)))
+    })
+    public ResponseEntity<IngestaoResponse> consultar(@PathVariable String ticket) {
+        IngestaoResponse ingestaoResponse = ingestaoPost.consultar(ticket);
+        if (IngestaoResponse.CRIADO.equals(ingestaoResponse.getStatus())) {
+            return ResponseEntity.ok()
+                    .location(URI.create("/api/v1/posts/" + ingestaoResponse.getPost().getId()))
+                    .body(ingestaoResponse);
+        }
+        return ResponseEntity.ok(ingestaoResponse);
+    }
+}
@@ -1,8 +1,18 @@
 package com.sylviavitoria.blogpets.controller;
 
+import com.sylviavitoria.blogpets.dto.CursorPageResponse;
+import com.sylviavitoria.blogpets.dto.PostLoteResponse;
 import com.sylviavitoria.blogpets.dto.PostRequest;
 import com.sylviavitoria.blogpets.dto.PostResponse;
+import com.sylviavitoria.blogpets.dto.PostResumoResponse;
+import com.sylviavitoria.blogpets.dto.SliceResponse;
+import com.sylviavitoria.blogpets.config.CompressaoGzipFilter;
+import com.sylviavitoria.blogpets.exception.IfMatchObrigatorioException;
+import com.sylviavitoria.blogpets.exception.VersionConflictException;
 import com.sylviavitoria.blogpets.interfaces.IPost;
+import com.sylviavitoria.blogpets.repository.PostVersao;
+import com.sylviavitoria.blogpets.service.CriacaoIdempotente;
+import com.sylviavitoria.blogpets.service.FormatoExportacao;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -10,24 +20,61 @@ import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 
+import org.springframework.boot.autoconfigure.web.ServerProperties;
+import org.springframework.boot.web.server.Compression;
 import org.springframework.data.domain.Page;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.HttpMediaTypeNotAcceptableException;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 @RestController
 @RequestMapping("/api/v1/posts")
 @CrossOrigin(origins = "*")
 public class PostController {
 
+    static final String MERGE_PATCH_JSON = "application/merge-patch+json";
+    static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+    static final String IDEMPOTENT_REPLAYED = "Idempotent-Replayed";
+    static final MediaType SMILE = new MediaType("application", "x-jackson-smile");
+
+    // Sufixo do ETag de cada representação de um post, na ordem de preferência para Accept: */*
+    private static final Map<MediaType, String> REPRESENTACOES = new LinkedHashMap<>();
+
+    static {
+        REPRESENTACOES.put(MediaType.APPLICATION_JSON, "json");
+        REPRESENTACOES.put(MediaType.APPLICATION_CBOR, "cbor");
+        REPRESENTACOES.put(SMILE, "smile");
+    }
+
     private final IPost postService;
+    private final CriacaoIdempotente criacaoIdempotente;
+    private final Compression compressao;
 
-    public PostController(IPost postService) {
+    public PostController(IPost postService, CriacaoIdempotente criacaoIdempotente, ServerProperties serverProperties) {
         this.postService = postService;
+        this.criacaoIdempotente = criacaoIdempotente;
+        this.compressao = serverProperties.getCompression();
     }
 
     @PostMapping
@@ -35,60 +82,386 @@ public class PostController {
     @ApiResponses(value = {
             @ApiResponse(responseCode = "201", description = "Post criado com sucesso"),
             @ApiResponse(responseCode = "400", description = "Dados inválidos fornecidos", content = @Content(schema = @Schema(implementation = Map.class))),
+            @ApiResponse(responseCode = "422", description = "Idempotency-Key já usada com outro conteúdo", content = @Content(schema = @Schema(implementation = Map.class))),
     })
-    public ResponseEntity<PostResponse> criar(@Valid @RequestBody PostRequest postRequest) {
-        PostResponse postResponse = postService.criar(postRequest);
-        return new ResponseEntity<>(postResponse, HttpStatus.CREATED);
+    public ResponseEntity<PostResponse> criar(@Valid @RequestBody PostRequest postRequest,
+            @Parameter(description = "Chave única por criação; repetições com a mesma chave devolvem o post criado na primeira") @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey) {
+        if (idempotencyKey == null) {
+            PostResponse postResponse = postService.criar(postRequest);
+            return new ResponseEntity<>(postResponse, HttpStatus.CREATED);
+        }
+        CriacaoIdempotente.Resultado resultado = criacaoIdempotente.criar(idempotencyKey, postRequest);
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .header(IDEMPOTENT_REPLAYED, String.valueOf(resultado.repetida()))
+                .body(resultado.post());
+    }
+
+    @PostMapping("/batch")
+    @Operation(summary = "Criar Posts em lote", description = "Valida cada item individualmente e cria os válidos com inserts em lote, retornando o resultado de cada item")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "201", description = "Todos os Posts foram criados"),
+            @ApiResponse(responseCode = "207", description = "Parte dos itens foi rejeitada; veja o status de cada item"),
+            @ApiResponse(responseCode = "400", description = "Lote vazio ou acima do tamanho máximo", content = @Content(schema = @Schema(implementation = Map.class)))
+    })
+    public ResponseEntity<PostLoteResponse> criarEmLote(@RequestBody List<PostRequest> postRequests) {
+        PostLoteResponse postLoteResponse = postService.criarEmLote(postRequests);
+        HttpStatus status = postLoteResponse.getInvalidos() == 0 ? HttpStatus.CREATED : HttpStatus.MULTI_STATUS;
+        return new ResponseEntity<>(postLoteResponse, status);
     }
 
     @GetMapping("/{id}")
-    @Operation(summary = "Buscar Post por ID", description = "Retorna um Post com base no ID fornecido")
+    @Operation(summary = "Buscar Post por ID", description = "Retorna um Post com base no ID fornecido. Responde 304 quando o ETag (If-None-Match) ou a data (If-Modified-Since) enviados ainda são válidos, conferidos contra o Post em cache ou, fora dele, só contra a versão gravada")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Post encontrado com sucesso"),
+            @ApiResponse(responseCode = "304", description = "Post não foi alterado desde a última consulta"),
             @ApiResponse(responseCode = "404", description = "Post não encontrado", content = @Content(schema = @Schema(implementation = Map.class)))
     })
-    public ResponseEntity<PostResponse> buscarPorId(@PathVariable Long id) {
+    public ResponseEntity<PostResponse> buscarPorId(@PathVariable Long id, WebRequest request)
+            throws HttpMediaTypeNotAcceptableException {
+        MediaType formato = representacao(request);
+        // Numa requisição condicional os validadores vêm do post em cache ou, numa falta, só da
+        // versão: o post completo só é lido quando a resposta não for 304
+        if (condicional(request) && naoModificado(request, id, formato, postService.buscarVersao(id))) {
+            return null;
+        }
         PostResponse postResponse = postService.bucarPorId(id);
-        return ResponseEntity.ok(postResponse);
+        boolean gzip = comprimir(request, formato, tamanho(postResponse));
+        if (request.checkNotModified(etag(id, postResponse.getVersao(), formato, gzip), epochMilli(postResponse.getDataAtualizacao()))) {
+            return null;
+        }
+
+        return representacao(ResponseEntity.ok(), formato, gzip).body(postResponse);
     }
 
     @GetMapping
     @Operation(summary = "Listar todos os Posts", description = "Retorna uma lista paginada de todos os Posts cadastrados")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Operação bem-sucedida"),
+            @ApiResponse(responseCode = "304", description = "A página não mudou desde a última consulta (If-None-Match ou If-Modified-Since)"),
+            @ApiResponse(responseCode = "400", description = "Ordenação inválida", content = @Content(schema = @Schema(implementation = Map.class))),
             @ApiResponse(responseCode = "500", description = "Erro interno do servidor")
     })
     public ResponseEntity<Page<PostResponse>> listarTodos(
             @Parameter(description = "Número da página (começa em 0)", example = "0") @RequestParam(defaultValue = "0") int page,
             @Parameter(description = "Tamanho da página", example = "10") @RequestParam(defaultValue = "10") int size,
-            @Parameter(description = "Campo para ordenação (ex: titulo, autor, dataCriacao)", example = "titulo") @RequestParam(required = false) String sort) {
+            @Parameter(description = "Campos de ordenação separados por vírgula, com - para ordem decrescente: titulo, autor, dataCriacao, dataAtualizacao, id ou autor,-dataCriacao", example = "-dataCriacao") @RequestParam(required = false) String sort,
+            WebRequest request) throws HttpMediaTypeNotAcceptableException {
+
+        MediaType formato = representacao(request);
+        Page<PostResponse> posts = postService.listarTodos(page, size, sort);
+        boolean gzip = comprimir(request, formato, posts.stream().mapToLong(PostController::tamanho).sum());
+        ResponseEntity.BodyBuilder resposta = representacao(ResponseEntity.ok(), formato, gzip).eTag(etag(posts, formato, gzip));
+        // Uma exclusão que traz para a página um post mais antigo não avança a data; If-None-Match,
+        // que tem precedência, cobre esse caso
+        posts.stream().map(PostResponse::getDataAtualizacao).filter(Objects::nonNull).max(Comparator.naturalOrder())
+                .ifPresent(data -> resposta.lastModified(epochMilli(data)));
+        return resposta.body(posts);
+    }
+
+    @GetMapping("/slice")
+    @Operation(summary = "Listar Posts sem contagem total", description = "Retorna uma página de Posts indicando apenas se existe uma próxima, sem executar COUNT na tabela. Com totalEstimado=true inclui um total aproximado, mantido em cache")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Operação bem-sucedida"),
+            @ApiResponse(responseCode = "400", description = "Tamanho de página ou ordenação inválidos", content = @Content(schema = @Schema(implementation = Map.class)))
+    })
+    public ResponseEntity<SliceResponse<PostResponse>> listarFatia(
+            @Parameter(description = "Número da página (começa em 0)", example = "0") @RequestParam(defaultValue = "0") int page,
+            @Parameter(description = "Tamanho da página", example = "10") @RequestParam(defaultValue = "10") int size,
+            @Parameter(description = "Campos de ordenação separados por vírgula, com - para ordem decrescente: titulo, autor, dataCriacao, dataAtualizacao, id ou autor,-dataCriacao", example = "-dataCriacao") @RequestParam(required = false) String sort,
+            @Parameter(description = "Incluir o total aproximado de Posts", example = "false") @RequestParam(defaultValue = "false") boolean totalEstimado) {
+
+        return ResponseEntity.ok(postService.listarFatia(page, size, sort, totalEstimado));
+    }
+
+    @GetMapping("/resumo")
+    @Operation(summary = "Listar resumos dos Posts", description = "Retorna uma lista paginada com ID, título, autor, data de criação e um trecho da descrição, sem carregar a descrição completa")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Operação bem-sucedida"),
+            @ApiResponse(responseCode = "400", description = "Ordenação inválida", content = @Content(schema = @Schema(implementation = Map.class))),
+            @ApiResponse(responseCode = "500", description = "Erro interno do servidor")
+    })
+    public ResponseEntity<Page<PostResumoResponse>> listarResumos(
+            @Parameter(description = "Número da página (começa em 0)", example = "0") @RequestParam(defaultValue = "0") int page,
+            @Parameter(description = "Tamanho da página", example = "10") @RequestParam(defaultValue = "10") int size,
+            @Parameter(description = "Campos de ordenação separados por vírgula, com - para ordem decrescente: titulo, autor, dataCriacao, dataAtualizacao, id ou autor,-dataCriacao", example = "-dataCriacao") @RequestParam(required = false) String sort) {
+
+        return ResponseEntity.ok(postService.listarResumos(page, size, sort));
+    }
+
+    @GetMapping("/search")
+    @Operation(summary = "Buscar Posts por texto", description = "Busca textual no título e na descrição, com resultados ordenados por relevância e paginados")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Operação bem-sucedida"),
+            @ApiResponse(responseCode = "400", description = "Termo de busca inválido", content = @Content(schema = @Schema(implementation = Map.class)))
+    })
+    public ResponseEntity<Page<PostResumoResponse>> buscar(
+            @Parameter(description = "Termo de busca", example = "gatos idosos") @RequestParam String q,
+            @Parameter(description = "Número da página (começa em 0)", example = "0") @RequestParam(defaultValue = "0") int page,
+            @Parameter(description = "Tamanho da página", example = "10") @RequestParam(defaultValue = "10") int size) {
+
+        return ResponseEntity.ok(postService.buscar(q, page, size));
+    }
+
+    @GetMapping(params = {"cursor", "!autor"})
+    @Operation(summary = "Listar Posts por cursor", description = "Retorna os Posts paginados por cursor (keyset). Envie o parâmetro cursor vazio para a primeira página e o nextCursor retornado para as seguintes")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Operação bem-sucedida"),
+            @ApiResponse(responseCode = "400", description = "Cursor ou ordenação inválidos", content = @Content(schema = @Schema(implementation = Map.class)))
+    })
+    public ResponseEntity<CursorPageResponse<PostResponse>> listarPorCursor(
+            @Parameter(description = "Cursor opaco retornado em nextCursor (vazio na primeira página)") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Tamanho da página", example = "10") @RequestParam(defaultValue = "10") int size,
+            @Parameter(description = "Campo para ordenação na primeira página (titulo, autor, dataCriacao)", example = "titulo") @RequestParam(required = false) String sort) {
+
+        return ResponseEntity.ok(postService.listarPorCursor(cursor, size, sort));
+    }
+
+    @GetMapping(params = "autor")
+    @Operation(summary = "Listar Posts de um autor", description = "Retorna os Posts do autor informado, dos mais recentes para os mais antigos, paginados por cursor. Envie o nextCursor retornado para buscar a página seguinte")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Operação bem-sucedida"),
+            @ApiResponse(responseCode = "400", description = "Autor ou cursor inválidos", content = @Content(schema = @Schema(implementation = Map.class)))
+    })
+    public ResponseEntity<CursorPageResponse<PostResponse>> listarPorAutor(
+            @Parameter(description = "Nome do autor", example = "Maria Silva") @RequestParam String autor,
+            @Parameter(description = "Cursor opaco retornado em nextCursor (vazio na primeira página)") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Tamanho da página", example = "10") @RequestParam(defaultValue = "10") int size) {
 
-        return ResponseEntity.ok(postService.listarTodos(page, size, sort));
+        return ResponseEntity.ok(postService.listarPorAutor(autor, cursor, size));
+    }
+
+    @GetMapping("/export")
+    @Operation(summary = "Exportar todos os Posts", description = "Envia todos os Posts em NDJSON (um JSON por linha) ou CSV, lidos do banco e escritos na resposta aos poucos, sem limite de página")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Exportação enviada"),
+            @ApiResponse(responseCode = "400", description = "Formato inválido", content = @Content(schema = @Schema(implementation = Map.class)))
+    })
+    public void exportar(
+            @Parameter(description = "Formato da exportação (ndjson ou csv)", example = "ndjson") @RequestParam(defaultValue = "ndjson") String formato,
+            HttpServletResponse response) throws IOException {
+
+        FormatoExportacao formatoExportacao = FormatoExportacao.de(formato);
+        response.setContentType(formatoExportacao.getContentType());
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                .filename("posts." + formatoExportacao.getExtensao())
+                .build()
+                .toString());
+
+        postService.exportar(formatoExportacao, response.getWriter());
     }
 
     @PutMapping("/{id}")
-    @Operation(summary = "Atualizar Post", description = "Atualiza os dados de um Post existente")
+    @Operation(summary = "Atualizar Post", description = "Atualiza os dados de um Post existente, só se ele ainda estiver na versão do ETag informado em If-Match (obrigatório; * altera a versão atual, qualquer que seja)")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Post atualizado com sucesso"),
             @ApiResponse(responseCode = "400", description = "Dados inválidos fornecidos", content = @Content(schema = @Schema(implementation = Map.class))),
             @ApiResponse(responseCode = "404", description = "Post não encontrado", content = @Content(schema = @Schema(implementation = Map.class))),
-            @ApiResponse(responseCode = "409", description = "Post já existe com este CPF", content = @Content(schema = @Schema(implementation = Map.class)))
+            @ApiResponse(responseCode = "409", description = "O Post foi alterado depois da versão informada em If-Match", content = @Content(schema = @Schema(implementation = Map.class))),
+            @ApiResponse(responseCode = "428", description = "If-Match não informado", content = @Content(schema = @Schema(implementation = Map.class)))
     })
     public ResponseEntity<PostResponse> atualizar(
             @PathVariable Long id,
-            @Valid @RequestBody PostRequest postRequest) {
-        PostResponse postResponse = postService.atualizar(id, postRequest);
-        return ResponseEntity.ok(postResponse);
+            @Parameter(description = "ETag da versão que está sendo alterada, ou * para qualquer versão") @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @Valid @RequestBody PostRequest postRequest,
+            WebRequest request) throws HttpMediaTypeNotAcceptableException {
+        MediaType formato = representacao(request);
+        PostResponse postResponse = postService.atualizar(id, postRequest, versaoObrigatoria(id, ifMatch));
+        boolean gzip = comprimir(request, formato, tamanho(postResponse));
+        return representacao(ResponseEntity.ok(), formato, gzip)
+                .eTag(etag(id, postResponse.getVersao(), formato, gzip)).body(postResponse);
+    }
+
+    @PatchMapping(value = "/{id}", consumes = {MERGE_PATCH_JSON, MediaType.APPLICATION_JSON_VALUE})
+    @Operation(summary = "Atualizar parte de um Post", description = "Aplica um JSON Merge Patch (RFC 7396): só os campos enviados são validados e gravados. Com If-Match, só altera se o Post ainda estiver na versão do ETag informado")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Post atualizado com sucesso"),
+            @ApiResponse(responseCode = "400", description = "Campo desconhecido, removido ou inválido", content = @Content(schema = @Schema(implementation = Map.class))),
+            @ApiResponse(responseCode = "404", description = "Post não encontrado", content = @Content(schema = @Schema(implementation = Map.class))),
+            @ApiResponse(responseCode = "409", description = "O Post foi alterado depois da versão informada em If-Match", content = @Content(schema = @Schema(implementation = Map.class)))
+    })
+    public ResponseEntity<PostResponse> atualizarParcialmente(
+            @PathVariable Long id,
+            @Parameter(description = "ETag da versão que está sendo alterada") @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @RequestBody Map<String, Object> patch,
+            WebRequest request) throws HttpMediaTypeNotAcceptableException {
+        MediaType formato = representacao(request);
+        PostResponse postResponse = postService.atualizarParcialmente(id, patch, versaoEsperada(id, ifMatch));
+        boolean gzip = comprimir(request, formato, tamanho(postResponse));
+        return representacao(ResponseEntity.ok(), formato, gzip)
+                .eTag(etag(id, postResponse.getVersao(), formato, gzip)).body(postResponse);
     }
 
     @DeleteMapping("/{id}")
-    @Operation(summary = "Excluir Post", description = "Remove um Post com base no ID fornecido")
+    @Operation(summary = "Excluir Post", description = "Remove um Post com base no ID fornecido, só se ele ainda estiver na versão do ETag informado em If-Match (obrigatório; * remove qualquer versão)")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "204", description = "Post removido com sucesso"),
-            @ApiResponse(responseCode = "404", description = "Post não encontrado", content = @Content(schema = @Schema(implementation = Map.class)))
+            @ApiResponse(responseCode = "404", description = "Post não encontrado", content = @Content(schema = @Schema(implementation = Map.class))),
+            @ApiResponse(responseCode = "409", description = "O Post foi alterado depois da versão informada em If-Match", content = @Content(schema = @Schema(implementation = Map.class))),
+            @ApiResponse(responseCode = "428", description = "If-Match não informado", content = @Content(schema = @Schema(implementation = Map.class)))
     })
-    public ResponseEntity<Void> excluir(@PathVariable Long id) {
-        postService.excluir(id);
+    public ResponseEntity<Void> excluir(
+            @PathVariable Long id,
+            @Parameter(description = "ETag da versão que está sendo removida, ou * para qualquer versão") @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        postService.excluir(id, versaoObrigatoria(id, ifMatch));
         return ResponseEntity.noContent().build();
     }
-}
\ No newline at end of file
+
+    // ETag forte de uma representação ("{id}-{versao}-{formato}[-gzip]"): JSON, CBOR e Smile têm
+    // bytes diferentes para a mesma versão, e a versão comprimida também. O Tomcat não comprime
+    // respostas com ETag forte (noCompressionStrongETag); a compressão é decidida aqui e aplicada
+    // pelo CompressaoGzipFilter, para que o ETag identifique os bytes enviados.
+    private static String etag(Long id, Long versao, MediaType formato, boolean gzip) {
+        return "\"" + id + "-" + versao + "-" + REPRESENTACOES.get(formato) + (gzip ? "-" + CompressaoGzipFilter.GZIP : "") + "\"";
+    }
+
+    private static boolean condicional(WebRequest request) {
+        return request.getHeader(HttpHeaders.IF_NONE_MATCH) != null || request.getHeader(HttpHeaders.IF_MODIFIED_SINCE) != null;
+    }
+
+    // Sem o post não dá para saber se a resposta seria comprimida; na mesma versão os bytes não
+    // mudam, então qualquer uma das variantes que o cliente aceita continua válida.
+    private boolean naoModificado(WebRequest request, Long id, MediaType formato, PostVersao versao) {
+        long ultimaAlteracao = epochMilli(versao.getDataAtualizacao());
+        String[] ifNoneMatch = request.getHeaderValues(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch == null) {
+            return request.checkNotModified(ultimaAlteracao);
+        }
+        List<String> variantes = new ArrayList<>(List.of(etag(id, versao.getVersao(), formato, false)));
+        if (compressao.getEnabled() && aceitaGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING))) {
+            variantes.add(etag(id, versao.getVersao(), formato, true));
+        }
+        for (String valor : ifNoneMatch) {
+            for (String etag : valor.split(",")) {
+                String forte = etag.trim().replaceFirst("^W/", "");
+                if (forte.equals("*") || variantes.contains(forte)) {
+                    return request.checkNotModified(forte.equals("*") ? variantes.get(0) : forte, ultimaAlteracao);
+                }
+            }
+        }
+        return false;
+    }
+
+    private static long epochMilli(LocalDateTime data) {
+        return data.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private ResponseEntity.BodyBuilder representacao(ResponseEntity.BodyBuilder resposta, MediaType formato, boolean gzip) {
+        resposta.contentType(formato);
+        if (gzip) {
+            resposta.header(HttpHeaders.CONTENT_ENCODING, CompressaoGzipFilter.GZIP);
+        }
+        return compressao.getEnabled()
+                ? resposta.varyBy(HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING)
+                : resposta.varyBy(HttpHeaders.ACCEPT);
+    }
+
+    // Segue as mesmas regras de server.compression que o Tomcat aplica às demais respostas; o
+    // tamanho é estimado pelos campos de texto, que dominam o corpo.
+    private boolean comprimir(WebRequest request, MediaType formato, long tamanho) {
+        if (!compressao.getEnabled() || !aceitaGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING))
+                || Arrays.stream(compressao.getMimeTypes()).map(MediaType::parseMediaType).noneMatch(formato::isCompatibleWith)) {
+            return false;
+        }
+        return tamanho >= compressao.getMinResponseSize().toBytes();
+    }
+
+    private static long tamanho(PostResponse post) {
+        return tamanho(post.getTitulo()) + tamanho(post.getDescricao()) + tamanho(post.getAutor());
+    }
+
+    private static long tamanho(String texto) {
+        return texto == null ? 0 : texto.length();
+    }
+
+    static boolean aceitaGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String codificacao : acceptEncoding.split(",")) {
+            String[] partes = codificacao.split(";");
+            String nome = partes[0].trim();
+            if (!nome.equalsIgnoreCase(CompressaoGzipFilter.GZIP) && !nome.equals("*")) {
+                continue;
+            }
+            for (int i = 1; i < partes.length; i++) {
+                String parametro = partes[i].trim();
+                if (parametro.startsWith("q=")) {
+                    try {
+                        return Double.parseDouble(parametro.substring(2)) > 0;
+                    } catch (NumberFormatException e) {
+                        return false;
+                    }
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+
+    // O formato é escolhido aqui, e não na negociação do Spring, para que o ETag e o Content-Type
+    // da resposta venham da mesma decisão.
+    static MediaType representacao(WebRequest request) throws HttpMediaTypeNotAcceptableException {
+        String accept = request.getHeader(HttpHeaders.ACCEPT);
+        List<MediaType> aceitos = new ArrayList<>(accept == null || accept.isBlank()
+                ? List.of(MediaType.ALL)
+                : MediaType.parseMediaTypes(accept));
+        aceitos.sort(Comparator.comparingDouble(MediaType::getQualityValue).reversed());
+        for (MediaType aceito : aceitos) {
+            if (aceito.getQualityValue() == 0) {
+                break;
+            }
+            for (MediaType formato : REPRESENTACOES.keySet()) {
+                if (aceito.includes(formato)) {
+                    return formato;
+                }
+            }
+        }
+        throw new HttpMediaTypeNotAcceptableException(List.copyOf(REPRESENTACOES.keySet()));
+    }
+
+    // PUT e DELETE substituem ou removem o post inteiro: sem If-Match, uma alteração concorrente
+    // seria perdida sem aviso. Quem quiser sobrescrever mesmo assim envia If-Match: *.
+    private static Long versaoObrigatoria(Long id, String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank()) {
+            throw new IfMatchObrigatorioException("Envie em If-Match o ETag do post " + id + ", ou * para alterar qualquer versão");
+        }
+        return versaoEsperada(id, ifMatch);
+    }
+
+    private static Long versaoEsperada(Long id, String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || "*".equals(ifMatch.trim())) {
+            return null;
+        }
+        String etag = ifMatch.trim();
+        // If-Match usa comparação forte (RFC 9110): um ETag fraco nunca corresponde
+        if (etag.startsWith("W/")) {
+            throw new VersionConflictException("If-Match exige o ETag forte do post " + id + ", e não " + ifMatch);
+        }
+        String[] partes = etag.replace("\"", "").split("-", 4);
+        try {
+            if (partes.length < 2 || !id.equals(Long.valueOf(partes[0]))) {
+                throw new VersionConflictException("O ETag informado em If-Match não pertence ao post " + id);
+            }
+            if (partes.length >= 3 && !REPRESENTACOES.containsValue(partes[2])
+                    || partes.length == 4 && !partes[3].equals(CompressaoGzipFilter.GZIP)) {
+                throw new IllegalArgumentException("ETag inválido em If-Match: " + ifMatch);
+            }
+            return Long.valueOf(partes[1]);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("ETag inválido em If-Match: " + ifMatch);
+        }
+    }
+
+    // ETag forte da página no formato e na codificação enviados, como o de um post.
+    private static String etag(Page<PostResponse> posts, MediaType formato, boolean gzip) {
+        StringBuilder conteudo = new StringBuilder()
+                .append(posts.getNumber()).append(':')
+                .append(posts.getSize()).append(':')
+                .append(posts.getTotalElements()).append(':')
+                .append(posts.getSort());
+        posts.forEach(post -> conteudo.append('|').append(post.getId()).append('@').append(post.getVersao()));
+        return "\"" + DigestUtils.md5DigestAsHex(conteudo.toString().getBytes(StandardCharsets.UTF_8))
+                + "-" + REPRESENTACOES.get(formato) + (gzip ? "-" + CompressaoGzipFilter.GZIP : "") + "\"";
+    }
+}
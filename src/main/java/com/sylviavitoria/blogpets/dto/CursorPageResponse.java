@@ -0,0 +1,25 @@
+package com.sylviavitoria.blogpets.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Value;
+
+import java.util.List;
+
+@Value
+@Builder
+@Schema(description = "Página de resultados navegada por cursor")
+public class CursorPageResponse<T> {
+
+    @Schema(description = "Itens da página")
+    List<T> content;
+
+    @Schema(description = "Quantidade máxima de itens solicitada")
+    int size;
+
+    @Schema(description = "Indica se existe uma próxima página")
+    boolean hasNext;
+
+    @Schema(description = "Cursor opaco para buscar a próxima página (nulo na última página)")
+    String nextCursor;
+}
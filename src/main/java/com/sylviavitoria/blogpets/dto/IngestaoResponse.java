@@ -0,0 +1,29 @@
+package com.sylviavitoria.blogpets.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Value;
+
+@Value
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Schema(description = "Situação de um Post enviado para ingestão assíncrona")
+public class IngestaoResponse {
+
+    public static final String PENDENTE = "PENDENTE";
+    public static final String CRIADO = "CRIADO";
+    public static final String FALHOU = "FALHOU";
+
+    @Schema(description = "Identificador para consultar a situação da ingestão")
+    String ticket;
+
+    @Schema(description = "Situação da ingestão", allowableValues = {PENDENTE, CRIADO, FALHOU})
+    String status;
+
+    @Schema(description = "Post criado, quando a situação é CRIADO")
+    PostResponse post;
+
+    @Schema(description = "Motivo da falha, quando a situação é FALHOU")
+    String erro;
+}
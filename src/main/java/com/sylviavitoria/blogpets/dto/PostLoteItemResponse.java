@@ -0,0 +1,30 @@
+package com.sylviavitoria.blogpets.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Value;
+
+import java.util.Map;
+
+@Value
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Schema(description = "Resultado da criação de um item do lote")
+public class PostLoteItemResponse {
+
+    public static final String CRIADO = "CRIADO";
+    public static final String INVALIDO = "INVALIDO";
+
+    @Schema(description = "Posição do item na lista enviada (começa em 0)")
+    int indice;
+
+    @Schema(description = "Situação do item", allowableValues = {CRIADO, INVALIDO})
+    String status;
+
+    @Schema(description = "Post criado, quando o item é válido")
+    PostResponse post;
+
+    @Schema(description = "Erros de validação por campo, quando o item é inválido")
+    Map<String, String> erros;
+}
@@ -0,0 +1,25 @@
+package com.sylviavitoria.blogpets.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Value;
+
+import java.util.List;
+
+@Value
+@Builder
+@Schema(description = "Resultado da criação de Posts em lote")
+public class PostLoteResponse {
+
+    @Schema(description = "Quantidade de itens recebidos")
+    int total;
+
+    @Schema(description = "Quantidade de Posts criados")
+    int criados;
+
+    @Schema(description = "Quantidade de itens rejeitados por validação")
+    int invalidos;
+
+    @Schema(description = "Resultado de cada item, na mesma ordem do envio")
+    List<PostLoteItemResponse> itens;
+}
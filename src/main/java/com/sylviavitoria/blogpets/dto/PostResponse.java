@@ -3,9 +3,13 @@ package com.sylviavitoria.blogpets.dto;
 import io.swagger.v3.oas.annotations.media.Schema;
 import lombok.Builder;
 import lombok.Value;
+import lombok.extern.jackson.Jacksonized;
+
+import java.time.LocalDateTime;
 
 @Value
 @Builder
+@Jacksonized
 @Schema(description = "Dados de resposta de um Post")
 public class PostResponse {
 
@@ -21,4 +25,10 @@ public class PostResponse {
     @Schema(description = "Autor de um Post")
     String autor;
 
+    @Schema(description = "Data da última alteração do Post, usada como validador de cache (ETag/Last-Modified)")
+    LocalDateTime dataAtualizacao;
+
+    @Schema(description = "Versão do Post, incrementada a cada alteração. Envie o ETag correspondente em If-Match para evitar sobrescrever alterações concorrentes")
+    Long versao;
+
 }
@@ -0,0 +1,28 @@
+package com.sylviavitoria.blogpets.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.LocalDateTime;
+
+@Value
+@Builder
+@Schema(description = "Dados resumidos de um Post para listagens")
+public class PostResumoResponse {
+
+    @Schema(description = "ID do Post")
+    Long id;
+
+    @Schema(description = "Titulo de um Post")
+    String titulo;
+
+    @Schema(description = "Autor de um Post")
+    String autor;
+
+    @Schema(description = "Data de criação do Post")
+    LocalDateTime dataCriacao;
+
+    @Schema(description = "Trecho inicial da descrição do Post (até 200 caracteres)")
+    String resumo;
+}
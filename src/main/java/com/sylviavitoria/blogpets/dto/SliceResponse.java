@@ -0,0 +1,30 @@
+package com.sylviavitoria.blogpets.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Value;
+
+import java.util.List;
+
+@Value
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Schema(description = "Página de resultados sem contagem total, indicando apenas se existe uma próxima página")
+public class SliceResponse<T> {
+
+    @Schema(description = "Itens da página")
+    List<T> content;
+
+    @Schema(description = "Número da página (começa em 0)")
+    int page;
+
+    @Schema(description = "Quantidade máxima de itens solicitada")
+    int size;
+
+    @Schema(description = "Indica se existe uma próxima página")
+    boolean hasNext;
+
+    @Schema(description = "Total aproximado de Posts, presente apenas quando solicitado; pode estar alguns segundos defasado")
+    Long estimatedTotal;
+}
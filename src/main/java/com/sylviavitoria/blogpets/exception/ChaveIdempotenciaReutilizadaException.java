@@ -0,0 +1,7 @@
+package com.sylviavitoria.blogpets.exception;
+
+public class ChaveIdempotenciaReutilizadaException extends RuntimeException {
+    public ChaveIdempotenciaReutilizadaException(String message) {
+        super(message);
+    }
+}
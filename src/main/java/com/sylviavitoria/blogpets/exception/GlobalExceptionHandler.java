@@ -2,7 +2,9 @@ package com.sylviavitoria.blogpets.exception;
 
 import lombok.extern.slf4j.Slf4j;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -32,6 +34,58 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.CONFLICT).body(errors);
     }
 
+    @ExceptionHandler(VersionConflictException.class)
+    public ResponseEntity<Map<String, String>> handleVersionConflict(VersionConflictException ex) {
+        log.error("Conflito de versão: {}", ex.getMessage());
+        Map<String, String> response = new HashMap<>();
+        response.put("erro", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
+    }
+
+    @ExceptionHandler(IfMatchObrigatorioException.class)
+    public ResponseEntity<Map<String, String>> handleIfMatchObrigatorio(IfMatchObrigatorioException ex) {
+        log.debug("Escrita sem If-Match: {}", ex.getMessage());
+        Map<String, String> response = new HashMap<>();
+        response.put("erro", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.PRECONDITION_REQUIRED).body(response);
+    }
+
+    @ExceptionHandler(ObjectOptimisticLockingFailureException.class)
+    public ResponseEntity<Map<String, String>> handleOptimisticLockingFailure(ObjectOptimisticLockingFailureException ex) {
+        log.error("Conflito de versão: {}", ex.getMessage());
+        Map<String, String> response = new HashMap<>();
+        response.put("erro", "O registro foi alterado por outra requisição. Consulte novamente e repita a operação");
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
+    }
+
+    @ExceptionHandler(ChaveIdempotenciaReutilizadaException.class)
+    public ResponseEntity<Map<String, String>> handleChaveIdempotenciaReutilizada(ChaveIdempotenciaReutilizadaException ex) {
+        log.error("Chave de idempotência reutilizada: {}", ex.getMessage());
+        Map<String, String> response = new HashMap<>();
+        response.put("erro", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY).body(response);
+    }
+
+    @ExceptionHandler(LimiteTaxaExcedidoException.class)
+    public ResponseEntity<Map<String, String>> handleLimiteTaxaExcedido(LimiteTaxaExcedidoException ex) {
+        log.debug("Escrita recusada: {}", ex.getMessage());
+        Map<String, String> response = new HashMap<>();
+        response.put("erro", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getSegundosParaNovaTentativa()))
+                .body(response);
+    }
+
+    @ExceptionHandler(IngestaoIndisponivelException.class)
+    public ResponseEntity<Map<String, String>> handleIngestaoIndisponivel(IngestaoIndisponivelException ex) {
+        log.warn("Ingestão recusada: {}", ex.getMessage());
+        Map<String, String> response = new HashMap<>();
+        response.put("erro", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(response);
+    }
+
     @ExceptionHandler(IllegalArgumentException.class)
     public ResponseEntity<Map<String, String>> handleIllegalArgumentException(IllegalArgumentException ex) {
         log.error("Erro de validação: {}", ex.getMessage());
@@ -0,0 +1,7 @@
+package com.sylviavitoria.blogpets.exception;
+
+public class IfMatchObrigatorioException extends RuntimeException {
+    public IfMatchObrigatorioException(String message) {
+        super(message);
+    }
+}
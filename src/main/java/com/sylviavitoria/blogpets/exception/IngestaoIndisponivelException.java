@@ -0,0 +1,7 @@
+package com.sylviavitoria.blogpets.exception;
+
+public class IngestaoIndisponivelException extends RuntimeException {
+    public IngestaoIndisponivelException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,14 @@
+package com.sylviavitoria.blogpets.exception;
+
+import lombok.Getter;
+
+@Getter
+public class LimiteTaxaExcedidoException extends RuntimeException {
+
+    private final long segundosParaNovaTentativa;
+
+    public LimiteTaxaExcedidoException(String message, long segundosParaNovaTentativa) {
+        super(message);
+        this.segundosParaNovaTentativa = segundosParaNovaTentativa;
+    }
+}
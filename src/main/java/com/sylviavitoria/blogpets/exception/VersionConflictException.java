@@ -0,0 +1,7 @@
+package com.sylviavitoria.blogpets.exception;
+
+public class VersionConflictException extends RuntimeException {
+    public VersionConflictException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,11 @@
+package com.sylviavitoria.blogpets.interfaces;
+
+import com.sylviavitoria.blogpets.dto.IngestaoResponse;
+import com.sylviavitoria.blogpets.dto.PostRequest;
+
+public interface IIngestaoPost {
+
+    IngestaoResponse enfileirar(PostRequest postRequest);
+
+    IngestaoResponse consultar(String ticket);
+}
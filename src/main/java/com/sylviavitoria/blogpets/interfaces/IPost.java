@@ -2,13 +2,33 @@ package com.sylviavitoria.blogpets.interfaces;
 
 import org.springframework.data.domain.Page;
 
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+import java.util.Map;
+
+import com.sylviavitoria.blogpets.dto.CursorPageResponse;
+import com.sylviavitoria.blogpets.dto.PostLoteResponse;
 import com.sylviavitoria.blogpets.dto.PostRequest;
 import com.sylviavitoria.blogpets.dto.PostResponse;
+import com.sylviavitoria.blogpets.dto.PostResumoResponse;
+import com.sylviavitoria.blogpets.dto.SliceResponse;
+import com.sylviavitoria.blogpets.repository.PostVersao;
+import com.sylviavitoria.blogpets.service.FormatoExportacao;
 
 public interface IPost {
     PostResponse criar(PostRequest postRequest);
+    PostLoteResponse criarEmLote(List<PostRequest> postRequests);
     PostResponse bucarPorId(Long id);
+    PostVersao buscarVersao(Long id);
     Page<PostResponse> listarTodos(int page, int size, String sort);
-    PostResponse atualizar(Long id, PostRequest postRequest);
-    void excluir(Long id);
+    SliceResponse<PostResponse> listarFatia(int page, int size, String sort, boolean incluirTotal);
+    Page<PostResumoResponse> listarResumos(int page, int size, String sort);
+    Page<PostResumoResponse> buscar(String termo, int page, int size);
+    CursorPageResponse<PostResponse> listarPorCursor(String cursor, int size, String sort);
+    CursorPageResponse<PostResponse> listarPorAutor(String autor, String cursor, int size);
+    long exportar(FormatoExportacao formato, Writer saida) throws IOException;
+    PostResponse atualizar(Long id, PostRequest postRequest, Long versao);
+    PostResponse atualizarParcialmente(Long id, Map<String, Object> patch, Long versao);
+    void excluir(Long id, Long versao);
 }
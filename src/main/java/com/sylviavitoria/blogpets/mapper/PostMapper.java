@@ -2,10 +2,14 @@ package com.sylviavitoria.blogpets.mapper;
 
 import com.sylviavitoria.blogpets.dto.PostRequest;
 import com.sylviavitoria.blogpets.dto.PostResponse;
+import com.sylviavitoria.blogpets.dto.PostResumoResponse;
 import com.sylviavitoria.blogpets.model.Post;
+import com.sylviavitoria.blogpets.repository.PostResumo;
+import org.mapstruct.BeanMapping;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 import org.mapstruct.MappingTarget;
+import org.mapstruct.NullValuePropertyMappingStrategy;
 import org.mapstruct.factory.Mappers;
 
 @Mapper(componentModel = "spring")
@@ -14,10 +18,21 @@ public interface PostMapper {
     PostMapper INSTANCE = Mappers.getMapper(PostMapper.class);
     
     @Mapping(target = "dataCriacao", ignore = true)
+    @Mapping(target = "dataAtualizacao", ignore = true)
+    @Mapping(target = "versao", ignore = true)
+    @Mapping(target = "conteudo", ignore = true)
     Post toEntity(PostRequest postRequest);
     
     PostResponse toResponse(Post post);
-    
+
+    PostResumoResponse toResumoResponse(PostResumo postResumo);
+
+    // Campos nulos no PostRequest ficam como estão no Post; é assim que o PATCH aplica só o que veio.
+    @BeanMapping(nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE)
+    @Mapping(target = "id", ignore = true)
     @Mapping(target = "dataCriacao", ignore = true)
+    @Mapping(target = "dataAtualizacao", ignore = true)
+    @Mapping(target = "versao", ignore = true)
+    @Mapping(target = "conteudo", ignore = true)
     void updateEntityFromRequest(PostRequest postRequest, @MappingTarget Post post);
 }
\ No newline at end of file
@@ -1,14 +1,23 @@
 package com.sylviavitoria.blogpets.model;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.annotations.PartitionKey;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Objects;
 
+// Com @DynamicUpdate o UPDATE gerado pelo dirty checking só inclui as colunas que mudaram: um PATCH
+// no título não reescreve a descrição (TEXT, possivelmente TOAST no PostgreSQL). Com @PartitionKey
+// o UPDATE e o DELETE da entidade também filtram por data_criacao, e o PostgreSQL só abre a
+// partição do post.
 @Entity
 @Table(name = "posts")
+@DynamicUpdate
 @Getter
 @Setter
 @NoArgsConstructor
@@ -16,24 +25,45 @@ import java.time.LocalDateTime;
 public class Post {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "posts_seq")
+    @SequenceGenerator(name = "posts_seq", sequenceName = "posts_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false, length = 100)
     private String titulo;
 
-    @Column(nullable = false, columnDefinition = "TEXT")
-    private String descricao;
+    @OneToOne(mappedBy = "post", fetch = FetchType.LAZY, optional = false, cascade = CascadeType.ALL)
+    private PostConteudo conteudo;
 
     @Column(nullable = false)
     private String autor;
 
-    @Column(name = "data_criacao")
+    @PartitionKey
+    @Column(name = "data_criacao", updatable = false)
     private LocalDateTime dataCriacao;
 
+    @Column(name = "data_atualizacao", nullable = false)
+    private LocalDateTime dataAtualizacao;
+
+    @Version
+    @Column(nullable = false)
+    private Long versao;
+
     @PrePersist
     public void prePersist() {
-        dataCriacao = LocalDateTime.now();
+        dataCriacao = agora();
+        dataAtualizacao = agora();
+    }
+
+    @PreUpdate
+    public void preUpdate() {
+        dataAtualizacao = agora();
+    }
+
+    // Na precisão das colunas (microssegundos): o valor em memória é o mesmo que o UPDATE compara
+    // em data_criacao pela @PartitionKey.
+    public static LocalDateTime agora() {
+        return LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
     }
 
     private Post(String titulo, String descricao, String autor) {
@@ -42,16 +72,31 @@ public class Post {
         validarAutor(autor);
 
         this.titulo = titulo;
-        this.descricao = descricao;
+        this.conteudo = new PostConteudo(this, descricao);
         this.autor = autor;
-        this.dataCriacao = LocalDateTime.now();
+        this.dataCriacao = agora();
+    }
+
+    public String getDescricao() {
+        return conteudo == null ? null : conteudo.getDescricao();
+    }
+
+    // Trocar a descrição altera só post_conteudo; atualizar dataAtualizacao deixa o Post sujo para
+    // que o UPDATE em posts incremente a versão, como acontece com os outros campos.
+    public void setDescricao(String descricao) {
+        if (conteudo == null) {
+            conteudo = new PostConteudo(this, descricao);
+        } else if (!Objects.equals(descricao, conteudo.getDescricao())) {
+            conteudo.setDescricao(descricao);
+            dataAtualizacao = agora();
+        }
     }
 
     public static Post criarNovo(String titulo, String descricao, String autor) {
         return new Post(titulo, descricao, autor);
     }
 
-    private void validarTitulo(String titulo) {
+    public static void validarTitulo(String titulo) {
         if (titulo == null || titulo.trim().isEmpty()) {
             throw new IllegalArgumentException("O título não pode ser vazio");
         }
@@ -63,7 +108,7 @@ public class Post {
         }
     }
 
-    private void validarDescricao(String descricao) {
+    public static void validarDescricao(String descricao) {
         if (descricao == null || descricao.trim().isEmpty()) {
             throw new IllegalArgumentException("A descrição não pode ser vazia");
         }
@@ -72,7 +117,7 @@ public class Post {
         }
     }
 
-    private void validarAutor(String autor) {
+    public static void validarAutor(String autor) {
         if (autor == null || autor.trim().isEmpty()) {
             throw new IllegalArgumentException("O autor não pode ser vazio");
         }
@@ -0,0 +1,36 @@
+package com.sylviavitoria.blogpets.model;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.BatchSize;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+// Corpo do post fora da tabela posts: listagens, contagens e checagens de versão leem só as linhas
+// estreitas de posts, e a descrição é carregada quando alguém a pede. O @BatchSize carrega as
+// descrições de uma página inteira com um único SELECT ... WHERE post_id IN (...).
+@Entity
+@Table(name = "post_conteudo")
+@BatchSize(size = 100)
+@Getter
+@Setter
+@NoArgsConstructor
+public class PostConteudo {
+
+    @Id
+    @Column(name = "post_id")
+    private Long postId;
+
+    @MapsId
+    @OneToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "post_id")
+    private Post post;
+
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String descricao;
+
+    PostConteudo(Post post, String descricao) {
+        this.post = post;
+        this.descricao = descricao;
+    }
+}
@@ -0,0 +1,27 @@
+package com.sylviavitoria.blogpets.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import org.hibernate.annotations.Immutable;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+
+// Data de criação de cada post, mantida pelo banco (gatilho no PostgreSQL, visão no H2). Só existe
+// para as consultas por id informarem a chave de partição de posts.
+@Entity
+@Immutable
+@Table(name = "post_criacao")
+@Getter
+@NoArgsConstructor
+public class PostCriacao {
+
+    @Id
+    @Column(name = "post_id")
+    private Long postId;
+
+    @Column(name = "data_criacao", nullable = false)
+    private LocalDateTime dataCriacao;
+}
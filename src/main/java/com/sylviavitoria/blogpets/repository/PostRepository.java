@@ -1,9 +1,158 @@
 package com.sylviavitoria.blogpets.repository;
 
 import com.sylviavitoria.blogpets.model.Post;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import jakarta.persistence.QueryHint;
+
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
 public interface PostRepository extends JpaRepository<Post, Long> {
-}
\ No newline at end of file
+
+    // O título é indexado em posts.busca e a descrição em post_conteudo.busca; a união usa o índice
+    // GIN de cada tabela, o que um OR entre as duas no WHERE não conseguiria.
+    String ENCONTRADOS_TEXTO_COMPLETO = "SELECT id FROM posts WHERE busca @@ websearch_to_tsquery('portuguese', :termo) "
+            + "UNION SELECT post_id FROM post_conteudo WHERE busca @@ websearch_to_tsquery('portuguese', :termo)";
+
+    // Com posts particionada uma condição só no id consulta o índice de cada partição; a data de
+    // criação lida de post_criacao deixa o PostgreSQL descartar as outras partições na execução.
+    String NA_PARTICAO_DO_ID = "p.dataCriacao = (SELECT c.dataCriacao FROM PostCriacao c WHERE c.postId = :id)";
+
+    @Override
+    @Query("SELECT p FROM Post p WHERE p.id = :id AND " + NA_PARTICAO_DO_ID)
+    Optional<Post> findById(@Param("id") Long id);
+
+    @Override
+    @Query("SELECT COUNT(p) > 0 FROM Post p WHERE p.id = :id AND " + NA_PARTICAO_DO_ID)
+    boolean existsById(@Param("id") Long id);
+
+    @Query("SELECT p.versao AS versao, p.dataAtualizacao AS dataAtualizacao FROM Post p WHERE p.id = :id AND "
+            + NA_PARTICAO_DO_ID)
+    Optional<PostVersao> buscarVersao(@Param("id") Long id);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Post p SET p.titulo = :titulo, p.autor = :autor, "
+            + "p.dataAtualizacao = :dataAtualizacao, p.versao = p.versao + 1 WHERE p.id = :id AND p.versao = :versao AND "
+            + NA_PARTICAO_DO_ID)
+    int atualizarSeVersao(@Param("id") Long id, @Param("versao") Long versao, @Param("titulo") String titulo,
+            @Param("autor") String autor, @Param("dataAtualizacao") LocalDateTime dataAtualizacao);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Post p SET p.titulo = :titulo, p.autor = :autor, "
+            + "p.dataAtualizacao = :dataAtualizacao, p.versao = p.versao + 1 WHERE p.id = :id AND " + NA_PARTICAO_DO_ID)
+    int atualizarPorId(@Param("id") Long id, @Param("titulo") String titulo, @Param("autor") String autor,
+            @Param("dataAtualizacao") LocalDateTime dataAtualizacao);
+
+    // post_conteudo não tem chave estrangeira para posts (no PostgreSQL a chave de posts inclui
+    // data_criacao), então os comandos em massa sobre posts acompanham o conteúdo explicitamente.
+    // Um único MERGE (H2 e PostgreSQL 15+): não reescreve a linha quando a descrição não mudou e
+    // recria a linha de post_conteudo que estiver faltando, em vez de perder a descrição. Retorna 0
+    // só quando a descrição já era a mesma.
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "MERGE INTO post_conteudo c "
+            + "USING (SELECT CAST(:id AS BIGINT) AS post_id, CAST(:descricao AS TEXT) AS descricao) n "
+            + "ON c.post_id = n.post_id "
+            + "WHEN MATCHED AND c.descricao <> n.descricao THEN UPDATE SET descricao = n.descricao "
+            + "WHEN NOT MATCHED THEN INSERT (post_id, descricao) VALUES (n.post_id, n.descricao)",
+            nativeQuery = true)
+    int gravarDescricao(@Param("id") Long id, @Param("descricao") String descricao);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM PostConteudo c WHERE c.postId = :id")
+    int excluirConteudo(@Param("id") Long id);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM Post p WHERE p.id = :id AND " + NA_PARTICAO_DO_ID)
+    int excluirPorId(@Param("id") Long id);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM Post p WHERE p.id = :id AND p.versao = :versao AND " + NA_PARTICAO_DO_ID)
+    int excluirSeVersao(@Param("id") Long id, @Param("versao") Long versao);
+
+    @Query("SELECT p FROM Post p")
+    Slice<Post> listarFatia(Pageable pageable);
+
+    // Usado pela listagem paginada, que mapeia a página fora de transação: a descrição precisa vir
+    // no mesmo SELECT.
+    @Override
+    @EntityGraph(attributePaths = "conteudo")
+    Page<Post> findAll(Pageable pageable);
+
+    // Com posts particionada as estatísticas ficam nas partições; partições ainda não analisadas
+    // (reltuples = -1) contam como vazias e o resultado só é -1 se nenhuma tiver estatística.
+    @Query(value = "SELECT CASE WHEN MAX(c.reltuples) < 0 THEN -1 ELSE CAST(SUM(GREATEST(c.reltuples, 0)) AS BIGINT) END "
+            + "FROM pg_class c WHERE (c.oid = CAST('posts' AS regclass) AND c.relkind = 'r') OR c.oid IN "
+            + "(SELECT i.inhrelid FROM pg_inherits i WHERE i.inhparent = CAST('posts' AS regclass))",
+            nativeQuery = true)
+    Long estimarTotalPorEstatisticas();
+
+    @Query(value = "SELECT p.id AS id, p.titulo AS titulo, p.autor AS autor, p.dataCriacao AS dataCriacao, "
+            + "SUBSTRING(c.descricao, 1, 200) AS resumo FROM Post p JOIN p.conteudo c",
+            countQuery = "SELECT COUNT(p) FROM Post p")
+    Page<PostResumo> listarResumos(Pageable pageable);
+
+    @Query(value = "SELECT p.id AS id, p.titulo AS titulo, p.autor AS autor, p.data_criacao AS \"dataCriacao\", "
+            + "LEFT(c.descricao, 200) AS resumo "
+            + "FROM posts p JOIN post_conteudo c ON c.post_id = p.id, websearch_to_tsquery('portuguese', :termo) consulta "
+            + "WHERE p.id IN (" + ENCONTRADOS_TEXTO_COMPLETO + ") "
+            + "ORDER BY ts_rank(p.busca || c.busca, consulta) DESC, p.id",
+            countQuery = "SELECT COUNT(*) FROM (" + ENCONTRADOS_TEXTO_COMPLETO + ") encontrados",
+            nativeQuery = true)
+    Page<PostResumo> buscarPorTextoCompleto(@Param("termo") String termo, Pageable pageable);
+
+    @Query(value = "SELECT p.id AS id, p.titulo AS titulo, p.autor AS autor, p.dataCriacao AS dataCriacao, "
+            + "SUBSTRING(c.descricao, 1, 200) AS resumo FROM Post p JOIN p.conteudo c "
+            + "WHERE LOWER(p.titulo) LIKE :padrao ESCAPE '\\' OR LOWER(c.descricao) LIKE :padrao ESCAPE '\\' "
+            + "ORDER BY CASE WHEN LOWER(p.titulo) LIKE :padrao ESCAPE '\\' THEN 0 ELSE 1 END, p.id",
+            countQuery = "SELECT COUNT(p) FROM Post p JOIN p.conteudo c "
+                    + "WHERE LOWER(p.titulo) LIKE :padrao ESCAPE '\\' OR LOWER(c.descricao) LIKE :padrao ESCAPE '\\'")
+    Page<PostResumo> buscarPorPadrao(@Param("padrao") String padrao, Pageable pageable);
+
+    @Query("SELECT p FROM Post p ORDER BY p.titulo, p.id")
+    List<Post> buscarPrimeirosPorTitulo(Pageable pageable);
+
+    @Query("SELECT p FROM Post p WHERE p.titulo >= :titulo AND (p.titulo > :titulo OR p.id > :id) ORDER BY p.titulo, p.id")
+    List<Post> buscarAposTitulo(@Param("titulo") String titulo, @Param("id") Long id, Pageable pageable);
+
+    @Query("SELECT p FROM Post p ORDER BY p.autor, p.id")
+    List<Post> buscarPrimeirosPorAutor(Pageable pageable);
+
+    @Query("SELECT p FROM Post p WHERE p.autor >= :autor AND (p.autor > :autor OR p.id > :id) ORDER BY p.autor, p.id")
+    List<Post> buscarAposAutor(@Param("autor") String autor, @Param("id") Long id, Pageable pageable);
+
+    @Query("SELECT p FROM Post p ORDER BY p.dataCriacao, p.id")
+    List<Post> buscarPrimeirosPorDataCriacao(Pageable pageable);
+
+    @Query("SELECT p FROM Post p WHERE p.dataCriacao >= :dataCriacao AND (p.dataCriacao > :dataCriacao OR p.id > :id) ORDER BY p.dataCriacao, p.id")
+    List<Post> buscarAposDataCriacao(@Param("dataCriacao") LocalDateTime dataCriacao, @Param("id") Long id, Pageable pageable);
+
+    // O autor fixo no ORDER BY deixa a ordenação igual à do índice (autor, data_criacao, id), para
+    // que o planejador leia as linhas já na ordem em vez de ordená-las depois.
+    @Query("SELECT p FROM Post p WHERE p.autor = :autor ORDER BY p.autor, p.dataCriacao DESC, p.id DESC")
+    List<Post> buscarMaisRecentesDoAutor(@Param("autor") String autor, Pageable pageable);
+
+    @Query("SELECT p FROM Post p WHERE p.autor = :autor AND p.dataCriacao <= :dataCriacao AND (p.dataCriacao < :dataCriacao OR p.id < :id) ORDER BY p.autor, p.dataCriacao DESC, p.id DESC")
+    List<Post> buscarDoAutorAntesDe(@Param("autor") String autor, @Param("dataCriacao") LocalDateTime dataCriacao, @Param("id") Long id, Pageable pageable);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT p FROM Post p JOIN FETCH p.conteudo ORDER BY p.id")
+    Stream<Post> exportarTodos();
+}
@@ -0,0 +1,11 @@
+package com.sylviavitoria.blogpets.repository;
+
+import java.time.LocalDateTime;
+
+public interface PostResumo {
+    Long getId();
+    String getTitulo();
+    String getAutor();
+    LocalDateTime getDataCriacao();
+    String getResumo();
+}
@@ -0,0 +1,8 @@
+package com.sylviavitoria.blogpets.repository;
+
+import java.time.LocalDateTime;
+
+public interface PostVersao {
+    Long getVersao();
+    LocalDateTime getDataAtualizacao();
+}
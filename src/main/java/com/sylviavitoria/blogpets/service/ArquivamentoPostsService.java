@@ -0,0 +1,305 @@
+package com.sylviavitoria.blogpets.service;
+
+import com.sylviavitoria.blogpets.config.CacheConfig;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.Period;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Remove os posts com {@code data_criacao} anterior à retenção configurada. No PostgreSQL, onde
+ * {@code posts} é particionada por mês, as partições inteiramente vencidas são desanexadas com
+ * {@code DETACH PARTITION ... CONCURRENTLY}, que não bloqueia leituras nem escritas, e mantidas
+ * como tabelas avulsas (ou excluídas, com {@code excluir-particoes}). O que sobra antes do corte,
+ * na partição do limite ou no H2, é excluído em blocos de {@code tamanho-bloco} linhas, cada um na
+ * sua própria transação, com uma pausa entre eles para não segurar locks nem saturar o banco.
+ */
+@Slf4j
+@Service
+public class ArquivamentoPostsService {
+
+    private static final Pattern LIMITE_SUPERIOR = Pattern.compile("TO \\('([^']+)'\\)");
+    private static final DateTimeFormatter FORMATO_LIMITE = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private static final String BLOCO_VENCIDO = "SELECT id FROM posts WHERE data_criacao < ? ORDER BY data_criacao, id LIMIT ?";
+    private static final String EXCLUIR_CONTEUDO_BLOCO = "DELETE FROM post_conteudo WHERE post_id IN (" + BLOCO_VENCIDO + ")";
+    private static final String EXCLUIR_BLOCO = "DELETE FROM posts WHERE data_criacao < ? AND id IN (" + BLOCO_VENCIDO + ")";
+
+    record Particao(String nome, LocalDateTime limiteSuperior) {
+    }
+
+    record Resultado(int particoes, long posts) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transacao;
+    private final CachePaginasPosts cachePaginasPosts;
+    private final CacheManager cacheManager;
+    private final Period retencao;
+    private final int tamanhoBloco;
+    private final Duration pausa;
+    private final int mesesFuturos;
+    private final boolean excluirParticoes;
+    private final Duration esperaLock;
+    private final boolean postgres;
+    private final AtomicBoolean emExecucao = new AtomicBoolean();
+
+    private final Counter postsRemovidos;
+    private final Counter particoesDesanexadas;
+
+    public ArquivamentoPostsService(DataSource dataSource, PlatformTransactionManager transactionManager,
+            CachePaginasPosts cachePaginasPosts, CacheManager cacheManager, MeterRegistry meterRegistry,
+            @Value("${blogpets.arquivamento.retencao:0d}") Period retencao,
+            @Value("${blogpets.arquivamento.tamanho-bloco:1000}") int tamanhoBloco,
+            @Value("${blogpets.arquivamento.pausa:100ms}") Duration pausa,
+            @Value("${blogpets.arquivamento.meses-futuros:3}") int mesesFuturos,
+            @Value("${blogpets.arquivamento.excluir-particoes:false}") boolean excluirParticoes,
+            @Value("${blogpets.arquivamento.espera-lock:5s}") Duration esperaLock) throws MetaDataAccessException {
+        if (tamanhoBloco < 1 || mesesFuturos < 1 || retencao.isNegative()) {
+            throw new IllegalArgumentException("Configuração de arquivamento inválida");
+        }
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.transacao = new TransactionTemplate(transactionManager);
+        this.cachePaginasPosts = cachePaginasPosts;
+        this.cacheManager = cacheManager;
+        this.retencao = retencao;
+        this.tamanhoBloco = tamanhoBloco;
+        this.pausa = pausa;
+        this.mesesFuturos = mesesFuturos;
+        this.excluirParticoes = excluirParticoes;
+        this.esperaLock = esperaLock;
+        this.postgres = "PostgreSQL".equals(JdbcUtils.extractDatabaseMetaData(dataSource,
+                metadados -> metadados.getDatabaseProductName()));
+
+        this.postsRemovidos = Counter.builder("blogpets.arquivamento.posts")
+                .description("Posts removidos em blocos pelo arquivamento")
+                .register(meterRegistry);
+        this.particoesDesanexadas = Counter.builder("blogpets.arquivamento.particoes")
+                .description("Partições vencidas desanexadas de posts")
+                .register(meterRegistry);
+    }
+
+    // Sem partição DEFAULT (que impediria o DETACH CONCURRENTLY), um INSERT fora das partições
+    // existentes falha; por isso os próximos meses são criados na subida e de novo a cada
+    // cron-particoes, com ou sem retenção.
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${blogpets.arquivamento.cron-particoes:0 0 * * * *}")
+    public void manterParticoes() {
+        manterParticoes(LocalDate.now());
+    }
+
+    boolean manterParticoes(LocalDate hoje) {
+        if (!particionada()) {
+            return false;
+        }
+        criarParticoesFuturas(hoje);
+        return true;
+    }
+
+    @Scheduled(cron = "${blogpets.arquivamento.cron:0 30 3 * * *}")
+    public void executar() {
+        arquivar(LocalDateTime.now());
+    }
+
+    Resultado arquivar(LocalDateTime agora) {
+        if (retencao.isZero()) {
+            return new Resultado(0, 0);
+        }
+        if (!emExecucao.compareAndSet(false, true)) {
+            log.info("Arquivamento de posts já em andamento; execução ignorada");
+            return new Resultado(0, 0);
+        }
+        try {
+            LocalDateTime corte = agora.minus(retencao);
+            int particoes = 0;
+            if (particionada()) {
+                particoes = desanexarParticoesVencidas(corte);
+            }
+            long posts = excluirEmBlocos(corte);
+            if (particoes > 0 || posts > 0) {
+                invalidarCaches();
+            }
+            log.info("Arquivamento de posts anteriores a {}: {} partições desanexadas, {} posts excluídos",
+                    corte, particoes, posts);
+            return new Resultado(particoes, posts);
+        } finally {
+            emExecucao.set(false);
+        }
+    }
+
+    private boolean particionada() {
+        return postgres && Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM pg_partitioned_table WHERE partrelid = to_regclass('posts'))",
+                Boolean.class));
+    }
+
+    private void criarParticoesFuturas(LocalDate hoje) {
+        LocalDate mes = hoje.withDayOfMonth(1);
+        for (int i = 0; i <= mesesFuturos; i++) {
+            LocalDate inicio = mes.plusMonths(i);
+            comEsperaLimitada("SELECT criar_particao_posts(DATE '" + inicio + "')");
+        }
+    }
+
+    private int desanexarParticoesVencidas(LocalDateTime corte) {
+        // Um DETACH CONCURRENTLY interrompido deixa a partição pendente até ser finalizado.
+        List<String> pendentes = jdbcTemplate.queryForList("SELECT c.relname FROM pg_inherits i "
+                + "JOIN pg_class c ON c.oid = i.inhrelid "
+                + "WHERE i.inhparent = CAST('posts' AS regclass) AND i.inhdetachpending", String.class);
+        pendentes.forEach(nome -> comEsperaLimitada("ALTER TABLE posts DETACH PARTITION " + nome + " FINALIZE"));
+
+        List<Particao> vencidas = jdbcTemplate.query("SELECT c.relname, pg_get_expr(c.relpartbound, c.oid) "
+                        + "FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid "
+                        + "WHERE i.inhparent = CAST('posts' AS regclass) AND NOT i.inhdetachpending",
+                        (rs, linha) -> new Particao(rs.getString(1), limiteSuperior(rs.getString(2)).orElse(null)))
+                .stream()
+                .filter(particao -> particao.limiteSuperior() != null && !particao.limiteSuperior().isAfter(corte))
+                .toList();
+
+        int desanexadas = 0;
+        for (Particao particao : vencidas) {
+            try {
+                comEsperaLimitada("ALTER TABLE posts DETACH PARTITION " + particao.nome() + " CONCURRENTLY");
+                desanexadas++;
+                particoesDesanexadas.increment();
+            } catch (RuntimeException e) {
+                log.warn("Falha ao desanexar a partição {}; os posts dela serão excluídos em blocos: {}",
+                        particao.nome(), e.getMessage());
+                continue;
+            }
+            try {
+                separarConteudo(particao.nome());
+                if (excluirParticoes) {
+                    comEsperaLimitada("DROP TABLE " + particao.nome());
+                    log.info("Partição {} desanexada e excluída", particao.nome());
+                } else {
+                    log.info("Partição {} desanexada e mantida como tabela avulsa", particao.nome());
+                }
+            } catch (RuntimeException e) {
+                log.error("Partição {} desanexada, mas os posts dela não foram removidos de post_conteudo e post_criacao: {}",
+                        particao.nome(), e.getMessage());
+            }
+        }
+        return desanexadas;
+    }
+
+    // post_conteudo e post_criacao não são particionadas: as descrições da partição desanexada são
+    // copiadas para <partição>_conteudo (se ela for mantida) e as linhas dos seus posts são removidas
+    // das duas em blocos, seguindo o id da partição.
+    private void separarConteudo(String particao) {
+        if (!excluirParticoes) {
+            jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + particao + "_conteudo AS SELECT c.* FROM post_conteudo c "
+                    + "JOIN " + particao + " p ON p.id = c.post_id");
+        }
+        long ultimoId = Long.MIN_VALUE;
+        while (true) {
+            List<Long> ids = jdbcTemplate.queryForList("SELECT id FROM " + particao + " WHERE id > ? ORDER BY id LIMIT ?",
+                    Long.class, ultimoId, tamanhoBloco);
+            if (ids.isEmpty()) {
+                return;
+            }
+            Long[] bloco = ids.toArray(Long[]::new);
+            jdbcTemplate.update("DELETE FROM post_conteudo WHERE post_id = ANY (?)", (Object) bloco);
+            jdbcTemplate.update("DELETE FROM post_criacao WHERE post_id = ANY (?)", (Object) bloco);
+            ultimoId = ids.get(ids.size() - 1);
+            if (ids.size() < tamanhoBloco || !pausar()) {
+                return;
+            }
+        }
+    }
+
+    // DETACH CONCURRENTLY não pode rodar dentro de transação: usa uma conexão em autocommit e um
+    // lock_timeout para desistir em vez de enfileirar as consultas atrás de um lock que não sai.
+    private void comEsperaLimitada(String sql) {
+        jdbcTemplate.execute((ConnectionCallback<Void>) conexao -> {
+            try (Statement comando = conexao.createStatement()) {
+                comando.execute("SET lock_timeout = " + esperaLock.toMillis());
+                try {
+                    comando.execute(sql);
+                } finally {
+                    comando.execute("RESET lock_timeout");
+                }
+            }
+            return null;
+        });
+    }
+
+    private long excluirEmBlocos(LocalDateTime corte) {
+        long total = 0;
+        while (true) {
+            Integer excluidos = transacao.execute(status -> {
+                jdbcTemplate.update(EXCLUIR_CONTEUDO_BLOCO, corte, tamanhoBloco);
+                int linhas = jdbcTemplate.update(EXCLUIR_BLOCO, corte, corte, tamanhoBloco);
+                if (linhas > 0) {
+                    cachePaginasPosts.registrarEscrita();
+                }
+                return linhas;
+            });
+            int linhas = excluidos == null ? 0 : excluidos;
+            total += linhas;
+            postsRemovidos.increment(linhas);
+            if (linhas < tamanhoBloco || !pausar()) {
+                return total;
+            }
+        }
+    }
+
+    private boolean pausar() {
+        if (pausa.isZero()) {
+            return true;
+        }
+        try {
+            Thread.sleep(pausa);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Arquivamento interrompido; o restante fica para a próxima execução");
+            return false;
+        }
+    }
+
+    private void invalidarCaches() {
+        cacheManager.getCache(CacheConfig.POSTS_POR_ID).clear();
+        cacheManager.getCache(CacheConfig.TOTAL_POSTS).clear();
+        cachePaginasPosts.registrarEscrita();
+    }
+
+    static Optional<LocalDateTime> limiteSuperior(String limites) {
+        Matcher matcher = LIMITE_SUPERIOR.matcher(limites == null ? "" : limites);
+        if (!matcher.find()) {
+            return Optional.empty();
+        }
+        String valor = matcher.group(1);
+        if (valor.length() == 10) {
+            return Optional.of(LocalDate.parse(valor).atStartOfDay());
+        }
+        return Optional.of(LocalDateTime.parse(valor.substring(0, 19), FORMATO_LIMITE));
+    }
+}
@@ -0,0 +1,80 @@
+package com.sylviavitoria.blogpets.service;
+
+import com.sylviavitoria.blogpets.config.CacheConfig;
+import com.sylviavitoria.blogpets.config.ReplicaRoutingDataSource;
+import com.sylviavitoria.blogpets.dto.PostResponse;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Primeiras páginas de {@code listarTodos} prontas para servir. A chave inclui uma geração global
+ * que avança depois do commit de cada escrita, então uma escrita torna todas as páginas anteriores
+ * inalcançáveis sem precisar descobrir quais delas mudaram. Leituras simultâneas de uma página que
+ * ainda não está no cache esperam uma única consulta ao banco. A chave usa a ordenação já
+ * interpretada por {@link OrdenacaoPosts}, então {@code titulo}, {@code +titulo} e {@code titulo,id}
+ * compartilham a mesma entrada.
+ */
+@Component
+public class CachePaginasPosts {
+
+    private static final int TAMANHO_MAXIMO_PAGINA = 100;
+
+    record Chave(long geracao, int page, int size, Sort sort) {
+    }
+
+    private final Cache paginas;
+    private final AtomicLong geracao = new AtomicLong();
+    private final int paginasCacheadas;
+    private final List<Sort> ordenacoes;
+
+    public CachePaginasPosts(CacheManager cacheManager, MeterRegistry meterRegistry,
+            @Value("${blogpets.cache-paginas.paginas:3}") int paginasCacheadas,
+            @Value("${blogpets.cache-paginas.ordenacoes:titulo,dataCriacao,-dataCriacao}") List<String> ordenacoes) {
+        this.paginas = cacheManager.getCache(CacheConfig.PAGINAS_POSTS);
+        this.paginasCacheadas = paginasCacheadas;
+        this.ordenacoes = ordenacoes.stream().map(OrdenacaoPosts::interpretar).toList();
+        Gauge.builder("blogpets.cache.paginas.geracao", geracao, AtomicLong::get)
+                .description("Escritas confirmadas desde o início da aplicação")
+                .register(meterRegistry);
+    }
+
+    public Page<PostResponse> obter(int page, int size, Sort sort, Supplier<Page<PostResponse>> carregar) {
+        if (page >= paginasCacheadas || size < 1 || size > TAMANHO_MAXIMO_PAGINA || !ordenacoes.contains(sort)) {
+            return carregar.get();
+        }
+        // A página fica no cache até o TTL: é lida do primário para não guardar o atraso da réplica
+        return paginas.get(new Chave(geracao.get(), page, size, sort), () -> ReplicaRoutingDataSource.noPrimario(carregar));
+    }
+
+    // Avançar só depois do commit garante que quem ler a nova geração já enxerga a escrita.
+    public void registrarEscrita() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    geracao.incrementAndGet();
+                }
+            });
+        } else {
+            geracao.incrementAndGet();
+        }
+    }
+
+    long geracao() {
+        return geracao.get();
+    }
+}
@@ -0,0 +1,227 @@
+package com.sylviavitoria.blogpets.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.sylviavitoria.blogpets.dto.PostRequest;
+import com.sylviavitoria.blogpets.dto.PostResponse;
+import com.sylviavitoria.blogpets.exception.ChaveIdempotenciaReutilizadaException;
+import com.sylviavitoria.blogpets.interfaces.IPost;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Criação de Posts com {@code Idempotency-Key}: a resposta da primeira requisição com uma chave é
+ * guardada e devolvida às repetições até {@code ttl}, sem criar outro post. A chave é gravada em
+ * {@code chaves_idempotencia} na mesma transação do post, antes dele; uma repetição vinda de outra
+ * instância espera o commit no índice da chave e então lê a resposta gravada. Na mesma instância,
+ * repetições simultâneas esperam a requisição em andamento, e as respostas recentes ficam em um
+ * cache em memória limitado por {@code maximo-memoria}.
+ */
+@Slf4j
+@Component
+public class CriacaoIdempotente {
+
+    public static final int TAMANHO_MAXIMO_CHAVE = 255;
+
+    private static final String RESERVAR = "INSERT INTO chaves_idempotencia (chave, hash_requisicao, data_criacao) VALUES (?, ?, ?)";
+    private static final String CONCLUIR = "UPDATE chaves_idempotencia SET post_id = ?, resposta = ? WHERE chave = ?";
+    private static final String BUSCAR_VIGENTE = "SELECT hash_requisicao, resposta FROM chaves_idempotencia WHERE chave = ? AND data_criacao >= ?";
+    private static final String EXCLUIR_VENCIDA = "DELETE FROM chaves_idempotencia WHERE chave = ? AND data_criacao < ?";
+    private static final String EXCLUIR_VENCIDAS = "DELETE FROM chaves_idempotencia WHERE data_criacao < ?";
+
+    public record Resultado(PostResponse post, boolean repetida) {
+    }
+
+    record Registro(String hash, PostResponse post) {
+    }
+
+    private final IPost postService;
+    private final ObjectMapper objectMapper;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transacao;
+    private final Duration ttl;
+    private final Cache<String, Registro> concluidas;
+    private final Map<String, CompletableFuture<Registro>> emAndamento = new ConcurrentHashMap<>();
+
+    private final Counter repetidasMemoria;
+    private final Counter repetidasBanco;
+    private final Counter esperas;
+
+    public CriacaoIdempotente(IPost postService, ObjectMapper objectMapper, DataSource dataSource,
+            PlatformTransactionManager transactionManager, MeterRegistry meterRegistry,
+            @Value("${blogpets.idempotencia.ttl:24h}") Duration ttl,
+            @Value("${blogpets.idempotencia.maximo-memoria:10000}") long maximoMemoria) {
+        this.postService = postService;
+        this.objectMapper = objectMapper;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.transacao = new TransactionTemplate(transactionManager);
+        this.ttl = ttl;
+        this.concluidas = Caffeine.newBuilder()
+                .maximumSize(maximoMemoria)
+                .expireAfterWrite(ttl)
+                .build();
+
+        this.repetidasMemoria = repetidas(meterRegistry, "memoria");
+        this.repetidasBanco = repetidas(meterRegistry, "banco");
+        this.esperas = Counter.builder("blogpets.idempotencia.esperas")
+                .description("Repetições que esperaram a requisição original em andamento")
+                .register(meterRegistry);
+    }
+
+    public Resultado criar(String chave, PostRequest postRequest) {
+        if (chave == null || chave.isBlank() || chave.length() > TAMANHO_MAXIMO_CHAVE) {
+            throw new IllegalArgumentException("O cabeçalho Idempotency-Key deve ter entre 1 e "
+                    + TAMANHO_MAXIMO_CHAVE + " caracteres");
+        }
+        String hash = hash(postRequest);
+
+        Registro concluida = concluidas.getIfPresent(chave);
+        if (concluida != null) {
+            repetidasMemoria.increment();
+            return repetir(chave, concluida, hash);
+        }
+
+        CompletableFuture<Registro> propria = new CompletableFuture<>();
+        CompletableFuture<Registro> emCurso = emAndamento.putIfAbsent(chave, propria);
+        if (emCurso != null) {
+            esperas.increment();
+            return repetir(chave, aguardar(emCurso), hash);
+        }
+
+        try {
+            Registro gravada = null;
+            Registro registro;
+            try {
+                registro = gravar(chave, hash, postRequest);
+            } catch (DuplicateKeyException e) {
+                gravada = buscar(chave);
+                registro = gravada != null ? gravada : gravar(chave, hash, postRequest);
+            }
+            concluidas.put(chave, registro);
+            propria.complete(registro);
+            if (gravada != null) {
+                repetidasBanco.increment();
+                return repetir(chave, gravada, hash);
+            }
+            return new Resultado(registro.post(), false);
+        } catch (RuntimeException e) {
+            propria.completeExceptionally(e);
+            throw e;
+        } finally {
+            emAndamento.remove(chave, propria);
+        }
+    }
+
+    @Scheduled(cron = "${blogpets.idempotencia.limpeza:0 */15 * * * *}")
+    public void limparVencidas() {
+        int removidas = jdbcTemplate.update(EXCLUIR_VENCIDAS, LocalDateTime.now().minus(ttl));
+        if (removidas > 0) {
+            log.debug("{} chaves de idempotência vencidas removidas", removidas);
+        }
+    }
+
+    // A reserva vem antes do post: se outra instância já inseriu a mesma chave, o INSERT espera o
+    // commit dela e falha com chave duplicada, sem chegar a criar um segundo post.
+    private Registro gravar(String chave, String hash, PostRequest postRequest) {
+        return transacao.execute(status -> {
+            jdbcTemplate.update(RESERVAR, chave, hash, LocalDateTime.now());
+            PostResponse post = postService.criar(postRequest);
+            jdbcTemplate.update(CONCLUIR, post.getId(), json(post), chave);
+            return new Registro(hash, post);
+        });
+    }
+
+    // Sem resposta vigente a chave está vencida (e é excluída para liberar a próxima reserva) ou a
+    // transação que a reservou foi desfeita.
+    private Registro buscar(String chave) {
+        LocalDateTime corte = LocalDateTime.now().minus(ttl);
+        List<Registro> registros = jdbcTemplate.query(BUSCAR_VIGENTE, (rs, linha) -> new Registro(
+                rs.getString("hash_requisicao"), lerJson(rs.getString("resposta"))), chave, corte);
+        if (!registros.isEmpty()) {
+            return registros.get(0);
+        }
+        jdbcTemplate.update(EXCLUIR_VENCIDA, chave, corte);
+        return null;
+    }
+
+    private static Resultado repetir(String chave, Registro registro, String hash) {
+        if (!registro.hash().equals(hash)) {
+            throw new ChaveIdempotenciaReutilizadaException("A chave de idempotência " + chave
+                    + " já foi usada com outro conteúdo");
+        }
+        return new Resultado(registro.post(), true);
+    }
+
+    private static Registro aguardar(CompletableFuture<Registro> emCurso) {
+        try {
+            return emCurso.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            throw e;
+        }
+    }
+
+    static String hash(PostRequest postRequest) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (String campo : new String[]{postRequest.getTitulo(), postRequest.getDescricao(), postRequest.getAutor()}) {
+                digest.update(String.valueOf(campo).getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) 0);
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private String json(PostResponse post) {
+        try {
+            return objectMapper.writeValueAsString(post);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Falha ao serializar a resposta do post " + post.getId(), e);
+        }
+    }
+
+    private PostResponse lerJson(String resposta) {
+        try {
+            return objectMapper.readValue(resposta, PostResponse.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Resposta gravada inválida para a chave de idempotência", e);
+        }
+    }
+
+    private static Counter repetidas(MeterRegistry meterRegistry, String origem) {
+        return Counter.builder("blogpets.idempotencia.repeticoes")
+                .description("Criações repetidas respondidas com a resposta original")
+                .tag("origem", origem)
+                .register(meterRegistry);
+    }
+}
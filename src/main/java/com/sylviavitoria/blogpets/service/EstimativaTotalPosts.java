@@ -0,0 +1,38 @@
+package com.sylviavitoria.blogpets.service;
+
+import com.sylviavitoria.blogpets.config.CacheConfig;
+import com.sylviavitoria.blogpets.repository.PostRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+@Slf4j
+@Component
+public class EstimativaTotalPosts {
+
+    private final PostRepository postRepository;
+
+    @Value("${blogpets.contagem.estatisticas:false}")
+    private boolean usarEstatisticas;
+
+    public EstimativaTotalPosts(PostRepository postRepository) {
+        this.postRepository = postRepository;
+    }
+
+    @Cacheable(cacheNames = CacheConfig.TOTAL_POSTS, key = "'posts'")
+    @Transactional(readOnly = true)
+    public long estimar() {
+        if (usarEstatisticas) {
+            Long estimativa = postRepository.estimarTotalPorEstatisticas();
+            if (estimativa != null && estimativa >= 0) {
+                return estimativa;
+            }
+            log.debug("Tabela posts ainda sem estatísticas do planner; usando contagem exata");
+        }
+        return postRepository.count();
+    }
+}
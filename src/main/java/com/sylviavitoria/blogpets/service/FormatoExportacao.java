@@ -0,0 +1,31 @@
+package com.sylviavitoria.blogpets.service;
+
+import lombok.Getter;
+
+import java.util.Locale;
+
+@Getter
+public enum FormatoExportacao {
+
+    NDJSON("application/x-ndjson", "ndjson"),
+    CSV("text/csv", "csv");
+
+    private final String contentType;
+    private final String extensao;
+
+    FormatoExportacao(String contentType, String extensao) {
+        this.contentType = contentType;
+        this.extensao = extensao;
+    }
+
+    public static FormatoExportacao de(String formato) {
+        if (formato == null || formato.isBlank()) {
+            return NDJSON;
+        }
+        try {
+            return valueOf(formato.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Formato de exportação inválido: " + formato);
+        }
+    }
+}
@@ -0,0 +1,286 @@
+package com.sylviavitoria.blogpets.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.sylviavitoria.blogpets.dto.IngestaoResponse;
+import com.sylviavitoria.blogpets.dto.PostRequest;
+import com.sylviavitoria.blogpets.exception.EntityNotFoundException;
+import com.sylviavitoria.blogpets.exception.IngestaoIndisponivelException;
+import com.sylviavitoria.blogpets.interfaces.IIngestaoPost;
+import com.sylviavitoria.blogpets.mapper.PostMapper;
+import com.sylviavitoria.blogpets.model.Post;
+import com.sylviavitoria.blogpets.repository.PostRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Ingestão assíncrona de Posts: as requisições entram em uma fila limitada e uma única thread grava
+ * em grupos, com um commit por grupo. O grupo fecha ao atingir {@code tamanho-grupo} ou quando a
+ * janela aberta pelo primeiro item expira. Se o commit do grupo falhar, cada item é regravado na
+ * sua própria transação para que só os itens com problema fiquem como {@code FALHOU}.
+ * Os tickets ficam só na memória desta instância: com várias instâncias atrás de um balanceador, ou
+ * depois de reiniciar a aplicação, a consulta de um ticket pode responder 404.
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "blogpets.ingestao.habilitada", havingValue = "true")
+public class IngestaoPostService implements IIngestaoPost, SmartLifecycle {
+
+    private static final long ESPERA_OCIOSA_MS = 100;
+    private static final int MAXIMO_TICKETS = 100_000;
+    private static final String ENCERRADA = "A ingestão foi encerrada antes de gravar o post";
+
+    private final PostRepository postRepository;
+    private final PostMapper postMapper;
+    private final CachePaginasPosts cachePaginasPosts;
+    private final TransactionTemplate transacao;
+    private final BlockingQueue<Pedido> fila;
+    private final Cache<String, IngestaoResponse> tickets;
+    private final int tamanhoGrupo;
+    private final long janelaNanos;
+    private final Duration tempoDrenagem;
+
+    private final DistributionSummary tamanhoGrupos;
+    private final Timer commits;
+    private final Counter recusados;
+
+    private volatile boolean aceitando;
+    private volatile boolean abandonada;
+    private Thread escritor;
+
+    record Pedido(String ticket, PostRequest postRequest) {
+    }
+
+    public IngestaoPostService(PostRepository postRepository, PostMapper postMapper,
+            CachePaginasPosts cachePaginasPosts, PlatformTransactionManager transactionManager, MeterRegistry meterRegistry,
+            @Value("${blogpets.ingestao.capacidade-fila:10000}") int capacidadeFila,
+            @Value("${blogpets.ingestao.tamanho-grupo:50}") int tamanhoGrupo,
+            @Value("${blogpets.ingestao.janela:5ms}") Duration janela,
+            @Value("${blogpets.ingestao.retencao-tickets:10m}") Duration retencaoTickets,
+            @Value("${blogpets.ingestao.tempo-drenagem:30s}") Duration tempoDrenagem) {
+        if (capacidadeFila < 1 || tamanhoGrupo < 1) {
+            throw new IllegalArgumentException("A fila e o grupo de ingestão devem ter tamanho positivo");
+        }
+        this.postRepository = postRepository;
+        this.postMapper = postMapper;
+        this.cachePaginasPosts = cachePaginasPosts;
+        this.transacao = new TransactionTemplate(transactionManager);
+        this.fila = new ArrayBlockingQueue<>(capacidadeFila);
+        this.tickets = Caffeine.newBuilder()
+                .maximumSize(MAXIMO_TICKETS)
+                .expireAfterWrite(retencaoTickets)
+                .build();
+        this.tamanhoGrupo = tamanhoGrupo;
+        this.janelaNanos = janela.toNanos();
+        this.tempoDrenagem = tempoDrenagem;
+
+        Gauge.builder("blogpets.ingestao.fila", fila, BlockingQueue::size)
+                .description("Posts aguardando gravação")
+                .register(meterRegistry);
+        this.tamanhoGrupos = DistributionSummary.builder("blogpets.ingestao.grupo")
+                .description("Posts gravados por commit")
+                .register(meterRegistry);
+        this.commits = Timer.builder("blogpets.ingestao.commit")
+                .description("Tempo para gravar e confirmar um grupo")
+                .register(meterRegistry);
+        this.recusados = Counter.builder("blogpets.ingestao.recusados")
+                .description("Posts recusados com a fila cheia")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public IngestaoResponse enfileirar(PostRequest postRequest) {
+        if (!aceitando) {
+            throw new IngestaoIndisponivelException("A ingestão de posts está sendo encerrada");
+        }
+
+        String ticket = UUID.randomUUID().toString();
+        IngestaoResponse pendente = IngestaoResponse.builder()
+                .ticket(ticket)
+                .status(IngestaoResponse.PENDENTE)
+                .build();
+        tickets.put(ticket, pendente);
+
+        if (!fila.offer(new Pedido(ticket, postRequest))) {
+            tickets.invalidate(ticket);
+            recusados.increment();
+            throw new IngestaoIndisponivelException("Fila de ingestão cheia; tente novamente em instantes");
+        }
+        return pendente;
+    }
+
+    @Override
+    public IngestaoResponse consultar(String ticket) {
+        IngestaoResponse situacao = tickets.getIfPresent(ticket);
+        if (situacao == null) {
+            throw new EntityNotFoundException("Ticket de ingestão não encontrado: " + ticket);
+        }
+        return situacao;
+    }
+
+    @Override
+    public synchronized void start() {
+        aceitando = true;
+        abandonada = false;
+        escritor = Thread.ofPlatform().name("ingestao-posts").start(this::escrever);
+        log.info("Ingestão assíncrona iniciada: grupos de até {} posts, janela de {} ms", tamanhoGrupo,
+                TimeUnit.NANOSECONDS.toMillis(janelaNanos));
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (escritor == null) {
+            return;
+        }
+        aceitando = false;
+        log.info("Encerrando ingestão assíncrona com {} posts na fila", fila.size());
+        try {
+            escritor.join(tempoDrenagem);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (escritor.isAlive()) {
+            // O contexto vai fechar o EntityManagerFactory: o escritor é interrompido e o que ficou
+            // na fila é marcado como FALHOU para quem consulta o ticket não esperar para sempre.
+            abandonada = true;
+            escritor.interrupt();
+            List<Pedido> restantes = new ArrayList<>();
+            fila.drainTo(restantes);
+            restantes.forEach(pedido -> falhar(pedido, ENCERRADA));
+            log.warn("A ingestão não terminou em {} s; {} posts da fila foram marcados como falha",
+                    tempoDrenagem.toSeconds(), restantes.size());
+        } else {
+            List<Pedido> restantes = new ArrayList<>();
+            fila.drainTo(restantes);
+            gravar(restantes);
+        }
+        escritor = null;
+    }
+
+    @Override
+    public synchronized boolean isRunning() {
+        return escritor != null;
+    }
+
+    // O servidor web para em DEFAULT_PHASE - 2048; com uma fase menor a fila só é drenada depois
+    // que nenhuma requisição nova pode chegar.
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+
+    private void escrever() {
+        List<Pedido> grupo = new ArrayList<>(tamanhoGrupo);
+        try {
+            while (!abandonada && (aceitando || !fila.isEmpty())) {
+                Pedido primeiro = fila.poll(ESPERA_OCIOSA_MS, TimeUnit.MILLISECONDS);
+                if (primeiro == null) {
+                    continue;
+                }
+                grupo.add(primeiro);
+                completarGrupo(grupo);
+                gravar(grupo);
+                grupo.clear();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void completarGrupo(List<Pedido> grupo) throws InterruptedException {
+        long limite = System.nanoTime() + janelaNanos;
+        while (grupo.size() < tamanhoGrupo) {
+            fila.drainTo(grupo, tamanhoGrupo - grupo.size());
+            long restante = limite - System.nanoTime();
+            if (grupo.size() >= tamanhoGrupo || restante <= 0 || !aceitando) {
+                return;
+            }
+            Pedido proximo = fila.poll(Math.min(restante, TimeUnit.MILLISECONDS.toNanos(ESPERA_OCIOSA_MS)),
+                    TimeUnit.NANOSECONDS);
+            if (proximo != null) {
+                grupo.add(proximo);
+            }
+        }
+    }
+
+    private void gravar(List<Pedido> grupo) {
+        if (grupo.isEmpty()) {
+            return;
+        }
+        try {
+            List<Post> posts = commits.recordCallable(() -> transacao.execute(status -> {
+                List<Post> novos = grupo.stream().map(pedido -> novoPost(pedido.postRequest())).toList();
+                postRepository.saveAll(novos);
+                postRepository.flush();
+                cachePaginasPosts.registrarEscrita();
+                return novos;
+            }));
+            tamanhoGrupos.record(grupo.size());
+            for (int i = 0; i < grupo.size(); i++) {
+                concluir(grupo.get(i), posts.get(i));
+            }
+        } catch (Exception e) {
+            if (abandonada) {
+                grupo.forEach(pedido -> falhar(pedido, ENCERRADA));
+                return;
+            }
+            log.warn("Falha ao gravar grupo de {} posts; gravando um a um: {}", grupo.size(), e.getMessage());
+            grupo.forEach(this::gravarIndividualmente);
+        }
+    }
+
+    private void gravarIndividualmente(Pedido pedido) {
+        try {
+            Post post = transacao.execute(status -> {
+                Post salvo = postRepository.save(novoPost(pedido.postRequest()));
+                cachePaginasPosts.registrarEscrita();
+                return salvo;
+            });
+            tamanhoGrupos.record(1);
+            concluir(pedido, post);
+        } catch (Exception e) {
+            log.error("Falha ao gravar post do ticket {}: {}", pedido.ticket(), e.getMessage());
+            falhar(pedido, e.getMessage());
+        }
+    }
+
+    private void falhar(Pedido pedido, String erro) {
+        tickets.put(pedido.ticket(), IngestaoResponse.builder()
+                .ticket(pedido.ticket())
+                .status(IngestaoResponse.FALHOU)
+                .erro(erro)
+                .build());
+    }
+
+    private void concluir(Pedido pedido, Post post) {
+        tickets.put(pedido.ticket(), IngestaoResponse.builder()
+                .ticket(pedido.ticket())
+                .status(IngestaoResponse.CRIADO)
+                .post(postMapper.toResponse(post))
+                .build());
+    }
+
+    private static Post novoPost(PostRequest postRequest) {
+        return Post.criarNovo(postRequest.getTitulo(), postRequest.getDescricao(), postRequest.getAutor());
+    }
+}
@@ -0,0 +1,83 @@
+package com.sylviavitoria.blogpets.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.springframework.data.domain.Sort;
+
+/**
+ * Interpreta o parâmetro {@code sort} das listagens. A especificação é uma lista de campos separados
+ * por vírgula, com {@code -} para ordem decrescente (ex.: {@code -dataCriacao} ou
+ * {@code autor,-dataCriacao}), e recebe sempre {@code id} no fim, na direção do último campo, para
+ * que a ordem seja total. Só são aceitas as combinações que coincidem com um índice, lido do início
+ * ou de trás para frente, então o banco nunca precisa ordenar a tabela.
+ */
+public final class OrdenacaoPosts {
+
+    public static final String PADRAO = "titulo";
+
+    // Colunas dos índices de ordenação (V2, V7 e V8), com a direção de cada uma.
+    private static final List<List<Sort.Order>> INDICES = List.of(
+            indice("id"),
+            indice("titulo", "id"),
+            indice("autor", "id"),
+            indice("dataCriacao", "id"),
+            indice("dataAtualizacao", "id"),
+            indice("autor", "-dataCriacao", "-id"));
+
+    private OrdenacaoPosts() {
+    }
+
+    public static Sort interpretar(String especificacao) {
+        String texto = especificacao == null || especificacao.isBlank() ? PADRAO : especificacao;
+
+        List<Sort.Order> ordens = new ArrayList<>();
+        Set<String> campos = new HashSet<>();
+        for (String parte : texto.split(",", -1)) {
+            String campo = parte.trim();
+            if (campo.replaceFirst("^[-+]", "").isEmpty()) {
+                throw invalida(texto);
+            }
+            Sort.Order ordem = ordem(campo);
+            if (!campos.add(ordem.getProperty())) {
+                throw invalida(texto);
+            }
+            ordens.add(ordem);
+        }
+        Sort.Order ultima = ordens.get(ordens.size() - 1);
+        if (!"id".equals(ultima.getProperty())) {
+            ordens.add(new Sort.Order(ultima.getDirection(), "id"));
+        }
+
+        if (INDICES.stream().noneMatch(indice -> ordens.equals(indice) || ordens.equals(invertido(indice)))) {
+            throw invalida(texto);
+        }
+        return Sort.by(ordens);
+    }
+
+    private static Sort.Order ordem(String parte) {
+        if (parte.startsWith("-")) {
+            return Sort.Order.desc(parte.substring(1));
+        }
+        return Sort.Order.asc(parte.startsWith("+") ? parte.substring(1) : parte);
+    }
+
+    private static List<Sort.Order> indice(String... colunas) {
+        return Arrays.stream(colunas).map(OrdenacaoPosts::ordem).toList();
+    }
+
+    private static List<Sort.Order> invertido(List<Sort.Order> indice) {
+        return indice.stream()
+                .map(ordem -> new Sort.Order(ordem.getDirection().isAscending() ? Sort.Direction.DESC : Sort.Direction.ASC,
+                        ordem.getProperty()))
+                .toList();
+    }
+
+    private static IllegalArgumentException invalida(String especificacao) {
+        return new IllegalArgumentException("Ordenação inválida: " + especificacao
+                + ". Use titulo, autor, dataCriacao, dataAtualizacao, id ou autor,-dataCriacao, com - para ordem decrescente");
+    }
+}
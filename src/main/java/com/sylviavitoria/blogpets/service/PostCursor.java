@@ -0,0 +1,62 @@
+package com.sylviavitoria.blogpets.service;
+
+import com.sylviavitoria.blogpets.model.Post;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.List;
+
+public record PostCursor(String campo, String valor, Long id) {
+
+    public static final String CAMPO_PADRAO = "titulo";
+    public static final List<String> CAMPOS = List.of("titulo", "autor", "dataCriacao");
+
+    private static final String SEPARADOR = ":";
+
+    public static PostCursor aPartirDe(String campo, Post post) {
+        String valor = switch (campo) {
+            case "titulo" -> post.getTitulo();
+            case "autor" -> post.getAutor();
+            default -> post.getDataCriacao().toString();
+        };
+        return new PostCursor(campo, valor, post.getId());
+    }
+
+    public static String validarCampo(String campo) {
+        if (campo == null || campo.isEmpty()) {
+            return CAMPO_PADRAO;
+        }
+        if (!CAMPOS.contains(campo)) {
+            throw new IllegalArgumentException("Campo de ordenação inválido para cursor: " + campo);
+        }
+        return campo;
+    }
+
+    public static PostCursor decodificar(String cursor) {
+        try {
+            String conteudo = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] partes = conteudo.split(SEPARADOR, 3);
+            if (partes.length != 3 || !CAMPOS.contains(partes[0])) {
+                throw new IllegalArgumentException("Cursor inválido");
+            }
+            PostCursor posicao = new PostCursor(partes[0], partes[2], Long.valueOf(partes[1]));
+            if ("dataCriacao".equals(posicao.campo())) {
+                posicao.valorComoData();
+            }
+            return posicao;
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Cursor inválido");
+        }
+    }
+
+    public String codificar() {
+        String conteudo = campo + SEPARADOR + id + SEPARADOR + valor;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(conteudo.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public LocalDateTime valorComoData() {
+        return LocalDateTime.parse(valor);
+    }
+}
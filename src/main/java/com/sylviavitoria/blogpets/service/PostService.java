@@ -1,32 +1,97 @@
 package com.sylviavitoria.blogpets.service;
 
+import com.sylviavitoria.blogpets.config.CacheConfig;
+import com.sylviavitoria.blogpets.config.ReplicaRoutingDataSource;
+import com.sylviavitoria.blogpets.dto.CursorPageResponse;
+import com.sylviavitoria.blogpets.dto.PostLoteItemResponse;
+import com.sylviavitoria.blogpets.dto.PostLoteResponse;
 import com.sylviavitoria.blogpets.dto.PostRequest;
 import com.sylviavitoria.blogpets.dto.PostResponse;
+import com.sylviavitoria.blogpets.dto.PostResumoResponse;
+import com.sylviavitoria.blogpets.dto.SliceResponse;
 import com.sylviavitoria.blogpets.exception.EntityNotFoundException;
+import com.sylviavitoria.blogpets.exception.VersionConflictException;
 import com.sylviavitoria.blogpets.interfaces.IPost;
 import com.sylviavitoria.blogpets.mapper.PostMapper;
 import com.sylviavitoria.blogpets.model.Post;
 import com.sylviavitoria.blogpets.repository.PostRepository;
+import com.sylviavitoria.blogpets.repository.PostResumo;
+import com.sylviavitoria.blogpets.repository.PostVersao;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import lombok.extern.slf4j.Slf4j;
 
+import java.io.IOException;
+import java.io.Writer;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 @Slf4j
 @Service
+@Timed(value = "blogpets.posts.servico", description = "Tempo das operações do PostService",
+        histogram = true, percentiles = {0.5, 0.95, 0.99})
 public class PostService implements IPost {
 
+    private static final int TAMANHO_MAXIMO_PAGINA = 100;
+    private static final int TAMANHO_MAXIMO_LOTE = 1000;
+    private static final int TAMANHO_BLOCO_LOTE = 50;
+    private static final int TAMANHO_MAXIMO_TERMO = 200;
+    private static final int TAMANHO_BLOCO_EXPORTACAO = 500;
+    private static final String CABECALHO_CSV = "id,titulo,descricao,autor,dataAtualizacao";
+    private static final Set<String> CAMPOS_PATCH = Set.of("titulo", "descricao", "autor");
+
     private final PostRepository postRepository;
     private final PostMapper postMapper;
+    private final EntityManager entityManager;
+    private final Validator validator;
+    private final EstimativaTotalPosts estimativaTotalPosts;
+    private final CachePaginasPosts cachePaginasPosts;
+    private final CacheManager cacheManager;
+    private final ObjectWriter linhaJson;
+
+    @Value("${blogpets.busca.texto-completo:false}")
+    private boolean buscaTextoCompleto;
 
-    public PostService(PostRepository postRepository, PostMapper postMapper) {
+    public PostService(PostRepository postRepository, PostMapper postMapper, EntityManager entityManager,
+            Validator validator, EstimativaTotalPosts estimativaTotalPosts, CachePaginasPosts cachePaginasPosts,
+            CacheManager cacheManager, ObjectMapper objectMapper) {
         this.postRepository = postRepository;
         this.postMapper = postMapper;
+        this.entityManager = entityManager;
+        this.validator = validator;
+        this.estimativaTotalPosts = estimativaTotalPosts;
+        this.cachePaginasPosts = cachePaginasPosts;
+        this.cacheManager = cacheManager;
+        this.linhaJson = objectMapper.writer()
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .without(JsonGenerator.Feature.FLUSH_PASSED_TO_STREAM);
     }
 
     @Override
@@ -41,61 +106,469 @@ public class PostService implements IPost {
                 postRequest.getAutor());
 
         Post savedPost = postRepository.save(post);
+        cachePaginasPosts.registrarEscrita();
 
         return postMapper.toResponse(savedPost);
     }
 
     @Override
+    @Transactional
+    public PostLoteResponse criarEmLote(List<PostRequest> postRequests) {
+        if (postRequests == null || postRequests.isEmpty()) {
+            throw new IllegalArgumentException("O lote deve conter pelo menos um post");
+        }
+        if (postRequests.size() > TAMANHO_MAXIMO_LOTE) {
+            throw new IllegalArgumentException("O lote não pode ter mais de " + TAMANHO_MAXIMO_LOTE + " posts");
+        }
+        log.info("Iniciando criação de {} posts em lote", postRequests.size());
+
+        PostLoteItemResponse[] itens = new PostLoteItemResponse[postRequests.size()];
+        List<Post> bloco = new ArrayList<>(TAMANHO_BLOCO_LOTE);
+        List<Integer> indicesBloco = new ArrayList<>(TAMANHO_BLOCO_LOTE);
+        int criados = 0;
+
+        for (int indice = 0; indice < postRequests.size(); indice++) {
+            PostRequest postRequest = postRequests.get(indice);
+            Map<String, String> erros = validar(postRequest);
+            if (!erros.isEmpty()) {
+                itens[indice] = PostLoteItemResponse.builder()
+                        .indice(indice)
+                        .status(PostLoteItemResponse.INVALIDO)
+                        .erros(erros)
+                        .build();
+                continue;
+            }
+
+            bloco.add(Post.criarNovo(postRequest.getTitulo(), postRequest.getDescricao(), postRequest.getAutor()));
+            indicesBloco.add(indice);
+            if (bloco.size() == TAMANHO_BLOCO_LOTE) {
+                criados += persistirBloco(bloco, indicesBloco, itens);
+            }
+        }
+        criados += persistirBloco(bloco, indicesBloco, itens);
+        if (criados > 0) {
+            cachePaginasPosts.registrarEscrita();
+        }
+
+        log.info("Lote concluído: {} criados, {} inválidos", criados, postRequests.size() - criados);
+        return PostLoteResponse.builder()
+                .total(postRequests.size())
+                .criados(criados)
+                .invalidos(postRequests.size() - criados)
+                .itens(List.of(itens))
+                .build();
+    }
+
+    @Override
+    @Cacheable(cacheNames = CacheConfig.POSTS_POR_ID, key = "#id", sync = true)
+    @Transactional(readOnly = true)
     public PostResponse bucarPorId(Long id) {
     log.info("Buscando Post por ID: {}", id);
-        Post post = postRepository.findById(id)
+        // Vai para o cache: lido da réplica, poderia guardar a versão anterior a uma escrita recente
+        Post post = ReplicaRoutingDataSource.noPrimario(() -> postRepository.findById(id))
                 .orElseThrow(() -> new EntityNotFoundException(
                         "Post não encontrado com ID: " + id));
 
         return postMapper.toResponse(post);
     }
 
+    // Validadores para requisições condicionais: os do post em cache ou, numa falta, só as colunas
+    // de versão, sem ler a descrição nem guardar nada no cache. Sem @Transactional, como em
+    // listarTodos: um acerto no cache não pega conexão.
+    @Override
+    public PostVersao buscarVersao(Long id) {
+        Cache postsPorId = cacheManager.getCache(CacheConfig.POSTS_POR_ID);
+        PostResponse emCache = postsPorId != null ? postsPorId.get(id, PostResponse.class) : null;
+        if (emCache != null) {
+            return new VersaoEmCache(emCache.getVersao(), emCache.getDataAtualizacao());
+        }
+        return ReplicaRoutingDataSource.noPrimario(() -> postRepository.buscarVersao(id))
+                .orElseThrow(() -> new EntityNotFoundException(
+                        "Post não encontrado com ID: " + id));
+    }
+
+    // Sem @Transactional: uma página servida do cache não abre transação nem pega conexão; na
+    // consulta, o findAll do repositório já roda em uma transação somente leitura.
     @Override
     public Page<PostResponse> listarTodos(int page, int size, String sort) {
         log.info("Listando posts com paginação: página {}, tamanho {}, ordenação {}", page, size, sort);
 
-        Pageable pageable;
-        if (sort != null && !sort.isEmpty()) {
-            pageable = PageRequest.of(page, size, Sort.by(sort));
-        } else {
-            pageable = PageRequest.of(page, size, Sort.by("titulo")); 
+        Sort ordenacao = OrdenacaoPosts.interpretar(sort);
+        return cachePaginasPosts.obter(page, size, ordenacao,
+                () -> postRepository.findAll(PageRequest.of(page, size, ordenacao)).map(postMapper::toResponse));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public SliceResponse<PostResponse> listarFatia(int page, int size, String sort, boolean incluirTotal) {
+        log.info("Listando posts sem contagem: página {}, tamanho {}, ordenação {}", page, size, sort);
+
+        if (size < 1) {
+            throw new IllegalArgumentException("O tamanho da página deve ser maior que zero");
+        }
+        Slice<Post> fatia = postRepository.listarFatia(paginacao(page, Math.min(size, TAMANHO_MAXIMO_PAGINA), sort));
+
+        return SliceResponse.<PostResponse>builder()
+                .content(fatia.map(postMapper::toResponse).getContent())
+                .page(fatia.getNumber())
+                .size(fatia.getSize())
+                .hasNext(fatia.hasNext())
+                .estimatedTotal(incluirTotal ? estimativaTotalPosts.estimar() : null)
+                .build();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<PostResumoResponse> listarResumos(int page, int size, String sort) {
+        log.info("Listando resumos de posts: página {}, tamanho {}, ordenação {}", page, size, sort);
+
+        return postRepository.listarResumos(paginacao(page, size, sort))
+                .map(postMapper::toResumoResponse);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<PostResumoResponse> buscar(String termo, int page, int size) {
+        log.info("Buscando posts pelo termo '{}': página {}, tamanho {}", termo, page, size);
+
+        if (termo == null || termo.isBlank()) {
+            throw new IllegalArgumentException("O termo de busca não pode ser vazio");
+        }
+        if (termo.length() > TAMANHO_MAXIMO_TERMO) {
+            throw new IllegalArgumentException("O termo de busca não pode ter mais de " + TAMANHO_MAXIMO_TERMO + " caracteres");
+        }
+
+        Pageable pageable = PageRequest.of(page, Math.min(size, TAMANHO_MAXIMO_PAGINA));
+        Page<PostResumo> resultados = buscaTextoCompleto
+                ? postRepository.buscarPorTextoCompleto(termo.trim(), pageable)
+                : postRepository.buscarPorPadrao(padraoLike(termo), pageable);
+
+        return resultados.map(postMapper::toResumoResponse);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageResponse<PostResponse> listarPorCursor(String cursor, int size, String sort) {
+        log.info("Listando posts por cursor: tamanho {}, ordenação {}", size, sort);
+
+        if (size < 1) {
+            throw new IllegalArgumentException("O tamanho da página deve ser maior que zero");
+        }
+        int tamanho = Math.min(size, TAMANHO_MAXIMO_PAGINA);
+
+        PostCursor posicao = cursor == null || cursor.isBlank() ? null : PostCursor.decodificar(cursor);
+        String campo = posicao != null ? posicao.campo() : PostCursor.validarCampo(sort);
+        Pageable limite = PageRequest.of(0, tamanho + 1);
+
+        List<Post> posts = switch (campo) {
+            case "autor" -> posicao == null
+                    ? postRepository.buscarPrimeirosPorAutor(limite)
+                    : postRepository.buscarAposAutor(posicao.valor(), posicao.id(), limite);
+            case "dataCriacao" -> posicao == null
+                    ? postRepository.buscarPrimeirosPorDataCriacao(limite)
+                    : postRepository.buscarAposDataCriacao(posicao.valorComoData(), posicao.id(), limite);
+            default -> posicao == null
+                    ? postRepository.buscarPrimeirosPorTitulo(limite)
+                    : postRepository.buscarAposTitulo(posicao.valor(), posicao.id(), limite);
+        };
+
+        boolean hasNext = posts.size() > tamanho;
+        List<Post> pagina = hasNext ? posts.subList(0, tamanho) : posts;
+        String nextCursor = hasNext
+                ? PostCursor.aPartirDe(campo, pagina.get(pagina.size() - 1)).codificar()
+                : null;
+
+        return CursorPageResponse.<PostResponse>builder()
+                .content(pagina.stream().map(postMapper::toResponse).toList())
+                .size(tamanho)
+                .hasNext(hasNext)
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageResponse<PostResponse> listarPorAutor(String autor, String cursor, int size) {
+        log.info("Listando posts do autor {}: tamanho {}", autor, size);
+
+        if (autor == null || autor.isBlank()) {
+            throw new IllegalArgumentException("O autor deve ser informado");
+        }
+        if (size < 1) {
+            throw new IllegalArgumentException("O tamanho da página deve ser maior que zero");
         }
+        int tamanho = Math.min(size, TAMANHO_MAXIMO_PAGINA);
 
-        return postRepository.findAll(pageable)
-                .map(postMapper::toResponse);
+        PostCursor posicao = cursor == null || cursor.isBlank() ? null : PostCursor.decodificar(cursor);
+        if (posicao != null && !"dataCriacao".equals(posicao.campo())) {
+            throw new IllegalArgumentException("Cursor inválido");
+        }
+        Pageable limite = PageRequest.of(0, tamanho + 1);
+
+        List<Post> posts = posicao == null
+                ? postRepository.buscarMaisRecentesDoAutor(autor, limite)
+                : postRepository.buscarDoAutorAntesDe(autor, posicao.valorComoData(), posicao.id(), limite);
+
+        boolean hasNext = posts.size() > tamanho;
+        List<Post> pagina = hasNext ? posts.subList(0, tamanho) : posts;
+        String nextCursor = hasNext
+                ? PostCursor.aPartirDe("dataCriacao", pagina.get(pagina.size() - 1)).codificar()
+                : null;
+
+        return CursorPageResponse.<PostResponse>builder()
+                .content(pagina.stream().map(postMapper::toResponse).toList())
+                .size(tamanho)
+                .hasNext(hasNext)
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long exportar(FormatoExportacao formato, Writer saida) throws IOException {
+        log.info("Iniciando exportação de posts em {}", formato);
+
+        long total = 0;
+        if (formato == FormatoExportacao.CSV) {
+            saida.write(CABECALHO_CSV);
+            saida.write('\n');
+        }
+        try (Stream<Post> posts = postRepository.exportarTodos()) {
+            Iterator<Post> iterator = posts.iterator();
+            while (iterator.hasNext()) {
+                escrever(formato, postMapper.toResponse(iterator.next()), saida);
+                if (++total % TAMANHO_BLOCO_EXPORTACAO == 0) {
+                    entityManager.clear();
+                }
+            }
+        }
+        saida.flush();
+
+        log.info("Exportação concluída: {} posts", total);
+        return total;
     }
 
     @Override
     @Transactional
-    public PostResponse atualizar(Long id, PostRequest postRequest) {
+    @CacheEvict(cacheNames = CacheConfig.POSTS_POR_ID, key = "#id")
+    public PostResponse atualizar(Long id, PostRequest postRequest, Long versao) {
         log.info("Atualido os dados de {}, {}, {}", postRequest.getTitulo(), postRequest.getDescricao(),
                 postRequest.getAutor());
-        Post post = postRepository.findById(id)
-                .orElseThrow(() -> new EntityNotFoundException(
-                        "Post não encontrado com ID: " + id));
 
+        // Sem versão (If-Match: *) o UPDATE não tem condição de versão: sobrescreve o que estiver gravado,
+        // mesmo que outra escrita tenha acabado de chegar.
+        LocalDateTime dataAtualizacao = Post.agora();
+        int alterados = versao != null
+                ? postRepository.atualizarSeVersao(id, versao, postRequest.getTitulo(), postRequest.getAutor(), dataAtualizacao)
+                : postRepository.atualizarPorId(id, postRequest.getTitulo(), postRequest.getAutor(), dataAtualizacao);
+        if (alterados == 0) {
+            throw naoAlterado(id, versao);
+        }
+        postRepository.gravarDescricao(id, postRequest.getDescricao());
+        cachePaginasPosts.registrarEscrita();
+        // Com versão, a nova é a seguinte à condição. Sem ela, só a releitura a revela; a linha segue
+        // bloqueada pelo UPDATE até o commit, então a leitura vê exatamente a versão gravada aqui.
+        Long versaoNova = versao != null ? versao + 1 : postRepository.buscarVersao(id)
+                .orElseThrow(() -> new EntityNotFoundException("Post não encontrado com ID: " + id))
+                .getVersao();
+
+        Post post = new Post();
+        post.setId(id);
         post.setTitulo(postRequest.getTitulo());
         post.setDescricao(postRequest.getDescricao());
         post.setAutor(postRequest.getAutor());
+        post.setDataAtualizacao(dataAtualizacao);
+        post.setVersao(versaoNova);
 
-        Post updatedPost = postRepository.save(post);
+        return postMapper.toResponse(post);
+    }
+
+    @Override
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.POSTS_POR_ID, key = "#id")
+    public PostResponse atualizarParcialmente(Long id, Map<String, Object> patch, Long versao) {
+        log.info("Atualizando parcialmente o post {}: campos {}", id, patch == null ? null : patch.keySet());
 
-        return postMapper.toResponse(updatedPost);
+        PostRequest alteracoes = alteracoes(patch);
+        Post post = postRepository.findById(id)
+                .orElseThrow(() -> new EntityNotFoundException("Post não encontrado com ID: " + id));
+        if (versao != null && !versao.equals(post.getVersao())) {
+            throw naoAlterado(id, versao);
+        }
 
+        // Sem nenhuma mudança efetiva não há UPDATE, nova versão nem invalidação das páginas em cache.
+        if (altera(alteracoes, post)) {
+            postMapper.updateEntityFromRequest(alteracoes, post);
+            postRepository.flush();
+            cachePaginasPosts.registrarEscrita();
+        }
+        return postMapper.toResponse(post);
     }
 
     @Override
-    public void excluir(Long id) {
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.POSTS_POR_ID, key = "#id")
+    public void excluir(Long id, Long versao) {
         log.info("Excluindo post com ID: {}", id);
-        Post post = postRepository.findById(id)
-                .orElseThrow(() -> new EntityNotFoundException(
-                        "Post não encontrado com ID: " + id));
-        postRepository.delete(post);
+
+        int removidos = versao == null
+                ? postRepository.excluirPorId(id)
+                : postRepository.excluirSeVersao(id, versao);
+        if (removidos == 0) {
+            throw naoAlterado(id, versao);
+        }
+        postRepository.excluirConteudo(id);
+        cachePaginasPosts.registrarEscrita();
+    }
+
+    // JSON Merge Patch (RFC 7396): campo ausente fica como está, campo com valor substitui e null
+    // removeria o campo, o que nenhum campo do Post permite.
+    private static PostRequest alteracoes(Map<String, Object> patch) {
+        if (patch == null) {
+            throw new IllegalArgumentException("O patch deve ser um objeto JSON");
+        }
+        PostRequest alteracoes = new PostRequest();
+        patch.forEach((campo, valor) -> {
+            if (!CAMPOS_PATCH.contains(campo)) {
+                throw new IllegalArgumentException("O campo " + campo + " não pode ser alterado");
+            }
+            if (valor == null) {
+                throw new IllegalArgumentException("O campo " + campo + " é obrigatório e não pode ser removido");
+            }
+            if (!(valor instanceof String texto)) {
+                throw new IllegalArgumentException("O campo " + campo + " deve ser um texto");
+            }
+            switch (campo) {
+                case "titulo" -> {
+                    Post.validarTitulo(texto);
+                    alteracoes.setTitulo(texto);
+                }
+                case "descricao" -> {
+                    Post.validarDescricao(texto);
+                    alteracoes.setDescricao(texto);
+                }
+                default -> {
+                    Post.validarAutor(texto);
+                    alteracoes.setAutor(texto);
+                }
+            }
+        });
+        return alteracoes;
+    }
+
+    private static boolean altera(PostRequest alteracoes, Post post) {
+        return alteracoes.getTitulo() != null && !alteracoes.getTitulo().equals(post.getTitulo())
+                || alteracoes.getDescricao() != null && !alteracoes.getDescricao().equals(post.getDescricao())
+                || alteracoes.getAutor() != null && !alteracoes.getAutor().equals(post.getAutor());
     }
 
-}
\ No newline at end of file
+    private RuntimeException naoAlterado(Long id, Long versao) {
+        if (versao == null || !postRepository.existsById(id)) {
+            return new EntityNotFoundException("Post não encontrado com ID: " + id);
+        }
+        return new VersionConflictException(
+                "O post " + id + " foi alterado por outra requisição; a versão " + versao + " não é mais a atual");
+    }
+
+    private void escrever(FormatoExportacao formato, PostResponse post, Writer saida) throws IOException {
+        if (formato == FormatoExportacao.CSV) {
+            saida.write(String.valueOf(post.getId()));
+            saida.write(',');
+            saida.write(campoCsv(post.getTitulo()));
+            saida.write(',');
+            saida.write(campoCsv(post.getDescricao()));
+            saida.write(',');
+            saida.write(campoCsv(post.getAutor()));
+            saida.write(',');
+            saida.write(post.getDataAtualizacao() == null ? "" : post.getDataAtualizacao().toString());
+        } else {
+            linhaJson.writeValue(saida, post);
+        }
+        saida.write('\n');
+    }
+
+    private String campoCsv(String valor) {
+        if (valor == null) {
+            return "";
+        }
+        if (valor.indexOf(',') < 0 && valor.indexOf('"') < 0 && valor.indexOf('\n') < 0 && valor.indexOf('\r') < 0) {
+            return valor;
+        }
+        return '"' + valor.replace("\"", "\"\"") + '"';
+    }
+
+    private String padraoLike(String termo) {
+        String escapado = termo.trim().toLowerCase(Locale.ROOT)
+                .replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+        return "%" + escapado + "%";
+    }
+
+    private Pageable paginacao(int page, int size, String sort) {
+        return PageRequest.of(page, size, OrdenacaoPosts.interpretar(sort));
+    }
+
+    private Map<String, String> validar(PostRequest postRequest) {
+        Map<String, String> erros = new LinkedHashMap<>();
+        if (postRequest == null) {
+            erros.put("erro", "O post não pode ser nulo");
+            return erros;
+        }
+
+        Set<ConstraintViolation<PostRequest>> violacoes = validator.validate(postRequest);
+        violacoes.forEach(violacao -> erros.putIfAbsent(violacao.getPropertyPath().toString(), violacao.getMessage()));
+        if (erros.isEmpty()) {
+            validarCampo(erros, "titulo", () -> Post.validarTitulo(postRequest.getTitulo()));
+            validarCampo(erros, "descricao", () -> Post.validarDescricao(postRequest.getDescricao()));
+            validarCampo(erros, "autor", () -> Post.validarAutor(postRequest.getAutor()));
+        }
+        return erros;
+    }
+
+    // As regras do domínio rodam sem montar um Post; o item válido é criado uma única vez no lote.
+    private static void validarCampo(Map<String, String> erros, String campo, Runnable validacao) {
+        try {
+            validacao.run();
+        } catch (IllegalArgumentException e) {
+            erros.put(campo, e.getMessage());
+        }
+    }
+
+    private int persistirBloco(List<Post> bloco, List<Integer> indicesBloco, PostLoteItemResponse[] itens) {
+        if (bloco.isEmpty()) {
+            return 0;
+        }
+
+        postRepository.saveAll(bloco);
+        entityManager.flush();
+        entityManager.clear();
+
+        for (int i = 0; i < bloco.size(); i++) {
+            int indice = indicesBloco.get(i);
+            itens[indice] = PostLoteItemResponse.builder()
+                    .indice(indice)
+                    .status(PostLoteItemResponse.CRIADO)
+                    .post(postMapper.toResponse(bloco.get(i)))
+                    .build();
+        }
+
+        int persistidos = bloco.size();
+        bloco.clear();
+        indicesBloco.clear();
+        return persistidos;
+    }
+
+    private record VersaoEmCache(Long versao, LocalDateTime dataAtualizacao) implements PostVersao {
+
+        @Override
+        public Long getVersao() {
+            return versao;
+        }
+
+        @Override
+        public LocalDateTime getDataAtualizacao() {
+            return dataAtualizacao;
+        }
+    }
+}
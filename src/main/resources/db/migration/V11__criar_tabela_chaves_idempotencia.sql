@@ -0,0 +1,9 @@
+CREATE TABLE chaves_idempotencia (
+    chave VARCHAR(255) PRIMARY KEY,
+    hash_requisicao VARCHAR(64) NOT NULL,
+    post_id BIGINT,
+    resposta TEXT,
+    data_criacao TIMESTAMP NOT NULL
+);
+
+CREATE INDEX idx_chaves_idempotencia_data_criacao ON chaves_idempotencia (data_criacao);
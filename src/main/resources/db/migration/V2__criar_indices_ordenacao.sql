@@ -0,0 +1,3 @@
+CREATE INDEX idx_posts_titulo_id ON posts (titulo, id);
+CREATE INDEX idx_posts_autor_id ON posts (autor, id);
+CREATE INDEX idx_posts_data_criacao_id ON posts (data_criacao, id);
@@ -0,0 +1,3 @@
+ALTER TABLE posts ADD COLUMN data_atualizacao TIMESTAMP DEFAULT CURRENT_TIMESTAMP NOT NULL;
+
+UPDATE posts SET data_atualizacao = data_criacao WHERE data_criacao IS NOT NULL;
@@ -0,0 +1 @@
+ALTER TABLE posts ADD COLUMN versao BIGINT DEFAULT 0 NOT NULL;
@@ -0,0 +1 @@
+CREATE INDEX idx_posts_autor_data_criacao_id ON posts (autor, data_criacao DESC, id DESC);
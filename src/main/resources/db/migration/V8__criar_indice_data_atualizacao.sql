@@ -0,0 +1 @@
+CREATE INDEX idx_posts_data_atualizacao_id ON posts (data_atualizacao, id);
@@ -0,0 +1,91 @@
+package com.sylviavitoria.blogpets;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Aplica as migrações do PostgreSQL sobre uma base com posts criados antes do particionamento (V9) e
+// da separação do conteúdo (V10).
+class MigracoesPostgresTest {
+
+    private static PostgresTeste banco;
+    private static JdbcTemplate jdbcTemplate;
+
+    @BeforeAll
+    static void iniciarBanco() {
+        banco = PostgresTeste.iniciar("migracoes_teste");
+        jdbcTemplate = banco.jdbcTemplate();
+    }
+
+    @AfterAll
+    static void pararBanco() {
+        if (banco != null) {
+            banco.close();
+        }
+    }
+
+    @Test
+    @DisplayName("Deve particionar posts e separar o conteúdo sem perder os posts existentes")
+    void deveMigrarPostsExistentes() {
+
+        banco.flyway("8").migrate();
+        LocalDateTime antigo = LocalDateTime.of(2023, 1, 15, 10, 0);
+        LocalDateTime recente = LocalDateTime.now().withNano(0);
+        Long gato = inserirLegado("Cuidados com gatos", "Escovação semanal e ração adequada", antigo);
+        Long cachorro = inserirLegado("Passeios", "Cachorros idosos precisam de passeios curtos", recente);
+        Long semData = inserirLegado("Sem data", "Post antigo sem data de criação", null);
+
+        assertTrue(banco.flyway(null).migrate().success);
+
+        assertEquals("p", jdbcTemplate.queryForObject("SELECT relkind FROM pg_class WHERE oid = CAST('posts' AS regclass)", String.class));
+        List<String> particoes = jdbcTemplate.queryForList("SELECT c.relname FROM pg_inherits i "
+                + "JOIN pg_class c ON c.oid = i.inhrelid WHERE i.inhparent = CAST('posts' AS regclass)", String.class);
+        assertTrue(particoes.contains("posts_p2023_01"));
+        assertTrue(particoes.contains(particao(LocalDate.now())));
+        assertTrue(particoes.contains(particao(LocalDate.now().plusMonths(3))));
+
+        assertEquals(3, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM posts", Integer.class));
+        assertEquals(antigo, jdbcTemplate.queryForObject("SELECT data_criacao FROM post_criacao WHERE post_id = " + gato,
+                LocalDateTime.class));
+        assertEquals(antigo, jdbcTemplate.queryForObject("SELECT data_criacao FROM posts WHERE id = " + gato, LocalDateTime.class));
+        assertNotNull(jdbcTemplate.queryForObject("SELECT data_criacao FROM posts WHERE id = " + semData, LocalDateTime.class));
+        assertEquals("Cachorros idosos precisam de passeios curtos",
+                jdbcTemplate.queryForObject("SELECT descricao FROM post_conteudo WHERE post_id = " + cachorro, String.class));
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM information_schema.columns "
+                + "WHERE table_schema = current_schema() AND table_name = 'posts' AND column_name = 'descricao'", Integer.class));
+
+        assertEquals(gato, jdbcTemplate.queryForObject("SELECT id FROM posts "
+                + "WHERE busca @@ websearch_to_tsquery('portuguese', 'gatos')", Long.class));
+        assertEquals(cachorro, jdbcTemplate.queryForObject("SELECT post_id FROM post_conteudo "
+                + "WHERE busca @@ websearch_to_tsquery('portuguese', 'cachorro idoso')", Long.class));
+
+        Long novo = jdbcTemplate.queryForObject("SELECT nextval('posts_seq')", Long.class);
+        assertTrue(novo > semData);
+        jdbcTemplate.update("INSERT INTO posts (id, titulo, autor, data_criacao, data_atualizacao, versao) "
+                + "VALUES (?, 'Novo', 'Autor', ?, ?, 0)", novo, recente, recente);
+        assertEquals(4, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM posts", Integer.class));
+        assertEquals(4, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM post_criacao", Integer.class));
+        jdbcTemplate.update("DELETE FROM posts WHERE id = ?", novo);
+        assertEquals(3, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM post_criacao", Integer.class));
+    }
+
+    private static Long inserirLegado(String titulo, String descricao, LocalDateTime dataCriacao) {
+        Long id = jdbcTemplate.queryForObject("SELECT nextval('posts_seq')", Long.class);
+        jdbcTemplate.update("INSERT INTO posts (id, titulo, descricao, autor, data_criacao) "
+                + "VALUES (?, ?, ?, 'Autor legado', ?)", id, titulo, descricao, dataCriacao);
+        return id;
+    }
+
+    private static String particao(LocalDate mes) {
+        return "posts_p" + mes.format(DateTimeFormatter.ofPattern("yyyy_MM"));
+    }
+}
@@ -0,0 +1,96 @@
+package com.sylviavitoria.blogpets;
+
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.configuration.FluentConfiguration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.testcontainers.DockerClientFactory;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+// PostgreSQL para os testes que dependem dele: um postgres:15 do Testcontainers ou, com
+// -Dpostgres.url, um servidor já existente. Cada teste usa um schema próprio, removido no close();
+// sem Docker e sem URL o teste é ignorado.
+public final class PostgresTeste implements AutoCloseable {
+
+    private final PostgreSQLContainer<?> container;
+    private final String schema;
+    private final String url;
+    private final String usuario;
+    private final String senha;
+    private final DriverManagerDataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+
+    private PostgresTeste(PostgreSQLContainer<?> container, String url, String usuario, String senha, String schema) {
+        this.container = container;
+        this.schema = schema;
+        this.url = url + (url.contains("?") ? "&" : "?") + "currentSchema=" + schema;
+        this.usuario = usuario;
+        this.senha = senha;
+        this.dataSource = new DriverManagerDataSource(this.url, usuario, senha);
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("DROP SCHEMA IF EXISTS " + schema + " CASCADE");
+    }
+
+    public static PostgresTeste iniciar(String schema) {
+        String url = System.getProperty("postgres.url");
+        if (url != null) {
+            return new PostgresTeste(null, url, System.getProperty("postgres.username", "postgres"),
+                    System.getProperty("postgres.password", "postgres"), schema);
+        }
+        assumeTrue(DockerClientFactory.instance().isDockerAvailable(),
+                "Sem Docker e sem -Dpostgres.url para rodar o teste no PostgreSQL");
+        PostgreSQLContainer<?> container = new PostgreSQLContainer<>("postgres:15");
+        container.start();
+        return new PostgresTeste(container, container.getJdbcUrl(), container.getUsername(), container.getPassword(), schema);
+    }
+
+    // URL com o schema do teste, para apontar a aplicação (spring.datasource.url) para ele.
+    public String url() {
+        return url;
+    }
+
+    public String usuario() {
+        return usuario;
+    }
+
+    public String senha() {
+        return senha;
+    }
+
+    public String schema() {
+        return schema;
+    }
+
+    public DataSource dataSource() {
+        return dataSource;
+    }
+
+    public JdbcTemplate jdbcTemplate() {
+        return jdbcTemplate;
+    }
+
+    // As mesmas migrações que a aplicação aplica com o perfil postgres, até a versão informada.
+    public Flyway flyway(String versao) {
+        FluentConfiguration configuracao = Flyway.configure()
+                .dataSource(dataSource)
+                .schemas(schema)
+                .locations("classpath:db/migration", "classpath:db/vendor/postgresql")
+                .outOfOrder(true);
+        if (versao != null) {
+            configuracao.target(versao);
+        }
+        return configuracao.load();
+    }
+
+    @Override
+    public void close() {
+        jdbcTemplate.execute("DROP SCHEMA IF EXISTS " + schema + " CASCADE");
+        if (container != null) {
+            container.stop();
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.sylviavitoria.blogpets.benchmark;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Compara posts + post_conteudo com uma cópia de posts no formato anterior, com a descrição na
+// mesma linha (posts_inline). Os mesmos posts (-Dconteudo.total=N) vão para os dois formatos, com
+// descrições entre ~400 bytes e ~5 KB, e o teste confere que a tabela lida pelas listagens ocupa
+// menos espaço. O tempo das consultas fica no ConteudoSeparadoBenchmark (JMH). O H2 roda em arquivo
+// para que DISK_SPACE_USED meça algo; para o PostgreSQL, passe -Dconteudo.url=jdbc:postgresql://...
+@Tag("benchmark")
+@SpringBootTest(properties = {
+        "spring.datasource.url=${conteudo.url:jdbc:h2:file:./target/conteudo-benchmark/blogpets}",
+        "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=WARN",
+        "logging.level.com.sylviavitoria.blogpets=WARN"
+})
+class ConteudoSeparadoBenchmarkTest {
+
+    private static final int TOTAL_POSTS = Integer.getInteger("conteudo.total", 100_000);
+    private static final long PRIMEIRO_ID = 20_000_000L;
+
+    @Autowired
+    private DataSource dataSource;
+
+    private JdbcTemplate jdbcTemplate;
+    private boolean postgres;
+
+    @BeforeEach
+    void popularBanco() throws Exception {
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        postgres = PostsEmMassa.postgres(dataSource);
+        PostsEmMassa.carregarConteudo(jdbcTemplate, postgres, TOTAL_POSTS, PRIMEIRO_ID);
+    }
+
+    @AfterEach
+    void limparBanco() {
+        PostsEmMassa.limpar(jdbcTemplate, postgres);
+    }
+
+    @Test
+    @DisplayName("Deve ocupar menos espaço em posts com a descrição separada do que com a descrição na linha")
+    void compararEspacoEntreConteudoSeparadoEInline() {
+
+        long posts = tamanho("posts");
+        long conteudo = tamanho("post_conteudo");
+        long inline = tamanho("posts_inline");
+
+        assertTrue(posts < inline, String.format("posts: %,d bytes, post_conteudo: %,d bytes, posts_inline: %,d bytes",
+                posts, conteudo, inline));
+    }
+
+    // No PostgreSQL inclui TOAST e índices; no H2, o espaço ocupado pela tabela e seus índices.
+    private long tamanho(String tabela) {
+        String sql = postgres
+                ? "SELECT " + (tabela.equals("posts")
+                        ? "SUM(pg_total_relation_size(inhrelid)) FROM pg_inherits WHERE inhparent = CAST('posts' AS regclass)"
+                        : "pg_total_relation_size('" + tabela + "')")
+                : "SELECT DISK_SPACE_USED('" + tabela.toUpperCase() + "')";
+        return jdbcTemplate.queryForObject(sql, Long.class);
+    }
+}
@@ -0,0 +1,125 @@
+package com.sylviavitoria.blogpets.benchmark;
+
+import com.sylviavitoria.blogpets.dto.CursorPageResponse;
+import com.sylviavitoria.blogpets.dto.PostResponse;
+import com.sylviavitoria.blogpets.interfaces.IPost;
+import com.sylviavitoria.blogpets.repository.PostRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Carrega milhões de posts (-Dfeed.total=N para mudar) e confere pelo EXPLAIN dos comandos gerados
+// pelo Hibernate que o feed do autor usa o índice (autor, data_criacao, id) em vez de varrer a
+// tabela, na primeira página e após um cursor. A latência das páginas fica no FeedAutorBenchmark (JMH).
+@Tag("benchmark")
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "com.sylviavitoria.blogpets.benchmark.FeedAutorBenchmarkTest$Comandos",
+        "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=WARN",
+        "logging.level.com.sylviavitoria.blogpets=WARN"
+})
+class FeedAutorBenchmarkTest {
+
+    public static class Comandos implements StatementInspector {
+
+        static final List<String> EXECUTADOS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            EXECUTADOS.add(sql);
+            return sql;
+        }
+
+        static String ultimoEmPosts() {
+            return EXECUTADOS.stream()
+                    .filter(sql -> sql.toLowerCase(Locale.ROOT).matches("(?s)select .* from posts .*"))
+                    .reduce((primeiro, segundo) -> segundo)
+                    .orElseThrow();
+        }
+    }
+
+    private static final int TOTAL_POSTS = Integer.getInteger("feed.total", 1_000_000);
+    private static final int AUTORES = 1_000;
+    private static final long PRIMEIRO_ID = 10_000_000L;
+    // No PostgreSQL cada partição recebe uma cópia do índice com nome gerado
+    // (posts_p2020_01_autor_data_criacao_id_idx), então o plano é conferido pelo sufixo comum.
+    private static final String INDICE = "autor_data_criacao_id";
+    private static final String AUTOR = "Autor 7";
+    private static final LocalDateTime CORTE = LocalDateTime.of(2020, 1, 3, 0, 0);
+    private static final int TAMANHO_PAGINA = 20;
+
+    @Autowired
+    private IPost postService;
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private DataSource dataSource;
+
+    private JdbcTemplate jdbcTemplate;
+    private boolean postgres;
+
+    @BeforeEach
+    void popularBanco() throws Exception {
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        postgres = PostsEmMassa.postgres(dataSource);
+        PostsEmMassa.carregarFeed(jdbcTemplate, postgres, TOTAL_POSTS, AUTORES, PRIMEIRO_ID);
+    }
+
+    @AfterEach
+    void limparBanco() {
+        PostsEmMassa.limpar(jdbcTemplate, postgres);
+    }
+
+    @Test
+    @DisplayName("Usa o índice do autor no feed na primeira página e após o cursor")
+    void deveUsarIndiceDoAutorNoFeed() {
+
+        Comandos.EXECUTADOS.clear();
+        CursorPageResponse<PostResponse> primeira = postService.listarPorAutor(AUTOR, null, TAMANHO_PAGINA);
+        String primeiraPagina = plano(Comandos.ultimoEmPosts(), AUTOR, TAMANHO_PAGINA + 1);
+        Comandos.EXECUTADOS.clear();
+        postRepository.buscarDoAutorAntesDe(AUTOR, CORTE, PRIMEIRO_ID + 172_800, PageRequest.of(0, TAMANHO_PAGINA + 1));
+        String aposCursor = plano(Comandos.ultimoEmPosts(), AUTOR, CORTE, CORTE, PRIMEIRO_ID + 172_800, TAMANHO_PAGINA + 1);
+
+        assertTrue(primeiraPagina.toLowerCase(Locale.ROOT).contains(INDICE), primeiraPagina);
+        assertTrue(aposCursor.toLowerCase(Locale.ROOT).contains(INDICE), aposCursor);
+        assertFalse(primeiraPagina.toLowerCase(Locale.ROOT).contains("seq scan"), primeiraPagina);
+        assertTrue(semOrdenacao(primeiraPagina), primeiraPagina);
+        assertTrue(semOrdenacao(aposCursor), aposCursor);
+        assertEquals(TAMANHO_PAGINA, primeira.getContent().size());
+        assertTrue(primeira.getContent().stream().allMatch(post -> AUTOR.equals(post.getAutor())));
+    }
+
+    private String plano(String sql, Object... parametros) {
+        assertEquals(parametros.length, sql.chars().filter(c -> c == '?').count(), sql);
+        return String.join("\n", jdbcTemplate.queryForList("EXPLAIN " + sql, String.class, parametros));
+    }
+
+    // As linhas saem na ordem do índice: o H2 marca "index sorted" e o PostgreSQL não tem nó Sort
+    // (o Merge Append das partições só intercala fluxos já ordenados).
+    private boolean semOrdenacao(String plano) {
+        return postgres
+                ? !plano.matches("(?s)(.*\\n)?\\s*(->\\s+)?(Incremental )?Sort\\s+\\(.*")
+                : plano.contains("index sorted");
+    }
+}
@@ -0,0 +1,72 @@
+package com.sylviavitoria.blogpets.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sylviavitoria.blogpets.interfaces.IPost;
+import com.sylviavitoria.blogpets.model.Post;
+import com.sylviavitoria.blogpets.repository.PostRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Confere que a página de resumos serializada é menor que a da listagem completa; a latência das
+// duas listagens fica no ListagemResumoBenchmark (JMH).
+@Tag("benchmark")
+@SpringBootTest(properties = {
+        "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=WARN",
+        "logging.level.com.sylviavitoria.blogpets=WARN"
+})
+class ListagemResumoBenchmarkTest {
+
+    private static final int TOTAL_POSTS = 2_000;
+    private static final int TAMANHO_DESCRICAO = 8_000;
+    private static final int TAMANHO_PAGINA = 100;
+
+    @Autowired
+    private IPost postService;
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @BeforeEach
+    void popularBanco() {
+        String descricao = "Cuidados diários com o seu pet. ".repeat(TAMANHO_DESCRICAO / 32);
+        List<Post> posts = new ArrayList<>(TOTAL_POSTS);
+        for (int i = 0; i < TOTAL_POSTS; i++) {
+            posts.add(Post.criarNovo("Post de benchmark " + i, descricao, "Autor " + (i % 50)));
+        }
+        postRepository.saveAll(posts);
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void limparBanco() {
+        postRepository.deleteAllInBatch();
+        jdbcTemplate.update("DELETE FROM post_conteudo");
+    }
+
+    @Test
+    @DisplayName("Deve serializar a página de resumos com menos bytes que a listagem completa")
+    void compararBytesDaListagemCompletaComResumos() throws Exception {
+
+        int completa = objectMapper.writeValueAsBytes(postService.listarTodos(3, TAMANHO_PAGINA, "titulo")).length;
+        int resumo = objectMapper.writeValueAsBytes(postService.listarResumos(3, TAMANHO_PAGINA, "titulo")).length;
+
+        assertTrue(resumo < completa, "resumo: " + resumo + " bytes, completa: " + completa + " bytes");
+    }
+}
@@ -0,0 +1,86 @@
+package com.sylviavitoria.blogpets.benchmark;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+
+import javax.sql.DataSource;
+
+// Carga de posts direto em SQL, no H2 ou no PostgreSQL, usada pelos testes de benchmark e pelos
+// benchmarks JMH correspondentes em src/jmh.
+final class PostsEmMassa {
+
+    private PostsEmMassa() {
+    }
+
+    static boolean postgres(DataSource dataSource) throws MetaDataAccessException {
+        return "PostgreSQL".equals(JdbcUtils.extractDatabaseMetaData(dataSource,
+                metadados -> metadados.getDatabaseProductName()));
+    }
+
+    // Um post por segundo a partir de 2020-01-01, distribuídos entre os autores "Autor 0" a "Autor N-1".
+    static void carregarFeed(JdbcTemplate jdbcTemplate, boolean postgres, int total, int autores, long primeiroId) {
+        if (postgres) {
+            jdbcTemplate.queryForList("SELECT criar_particao_posts(CAST(mes AS DATE)) FROM generate_series("
+                    + "TIMESTAMP '2020-01-01', TIMESTAMP '2020-01-01' + ? * INTERVAL '1 second', INTERVAL '1 month') AS mes",
+                    total);
+            jdbcTemplate.update("INSERT INTO posts (id, titulo, autor, data_criacao, data_atualizacao, versao) "
+                    + "SELECT x + ?, 'Post do feed ' || x, 'Autor ' || (x % ?), "
+                    + "TIMESTAMP '2020-01-01 00:00:00' + x * INTERVAL '1 second', TIMESTAMP '2020-01-01 00:00:00', 0 "
+                    + "FROM generate_series(1, ?) AS x", primeiroId, autores, total);
+            jdbcTemplate.update("INSERT INTO post_conteudo (post_id, descricao) "
+                    + "SELECT x + ?, 'Descrição do post do feed' FROM generate_series(1, ?) AS x", primeiroId, total);
+            jdbcTemplate.execute("ANALYZE posts");
+        } else {
+            jdbcTemplate.update("INSERT INTO posts (id, titulo, autor, data_criacao, data_atualizacao, versao) "
+                    + "SELECT X + ?, CONCAT('Post do feed ', X), CONCAT('Autor ', MOD(X, ?)), "
+                    + "DATEADD(SECOND, X, TIMESTAMP '2020-01-01 00:00:00'), TIMESTAMP '2020-01-01 00:00:00', 0 "
+                    + "FROM SYSTEM_RANGE(1, ?)", primeiroId, autores, total);
+            jdbcTemplate.update("INSERT INTO post_conteudo (post_id, descricao) "
+                    + "SELECT X + ?, 'Descrição do post do feed' FROM SYSTEM_RANGE(1, ?)", primeiroId, total);
+            jdbcTemplate.execute("ANALYZE TABLE posts");
+        }
+    }
+
+    // Os mesmos posts em posts + post_conteudo e em posts_inline, cópia do formato anterior com a
+    // descrição na mesma linha. As descrições ficam entre ~400 bytes e ~5 KB.
+    static void carregarConteudo(JdbcTemplate jdbcTemplate, boolean postgres, int total, long primeiroId) {
+        if (postgres) {
+            jdbcTemplate.queryForList("SELECT criar_particao_posts(CURRENT_DATE)");
+            jdbcTemplate.update("INSERT INTO posts (id, titulo, autor, data_criacao, data_atualizacao, versao) "
+                    + "SELECT x + ?, 'Post ' || x, 'Autor ' || (x % 50), CURRENT_TIMESTAMP, CURRENT_TIMESTAMP, 0 "
+                    + "FROM generate_series(1, ?) AS x", primeiroId, total);
+            jdbcTemplate.update("INSERT INTO post_conteudo (post_id, descricao) "
+                    + "SELECT x + ?, repeat('Cuidados diários com o seu pet número ' || x || '. ', 8 + x % 100) "
+                    + "FROM generate_series(1, ?) AS x", primeiroId, total);
+        } else {
+            jdbcTemplate.update("INSERT INTO posts (id, titulo, autor, data_criacao, data_atualizacao, versao) "
+                    + "SELECT X + ?, CONCAT('Post ', X), CONCAT('Autor ', MOD(X, 50)), CURRENT_TIMESTAMP, CURRENT_TIMESTAMP, 0 "
+                    + "FROM SYSTEM_RANGE(1, ?)", primeiroId, total);
+            jdbcTemplate.update("INSERT INTO post_conteudo (post_id, descricao) "
+                    + "SELECT X + ?, REPEAT(CONCAT('Cuidados diários com o seu pet número ', X, '. '), 8 + MOD(X, 100)) "
+                    + "FROM SYSTEM_RANGE(1, ?)", primeiroId, total);
+        }
+        jdbcTemplate.execute("CREATE TABLE posts_inline (id BIGINT PRIMARY KEY, titulo VARCHAR(100) NOT NULL, "
+                + "descricao TEXT NOT NULL, autor VARCHAR(100) NOT NULL)");
+        jdbcTemplate.execute("INSERT INTO posts_inline SELECT p.id, p.titulo, c.descricao, p.autor "
+                + "FROM posts p JOIN post_conteudo c ON c.post_id = p.id");
+        jdbcTemplate.execute("CREATE INDEX idx_posts_inline_titulo_id ON posts_inline (titulo, id)");
+        if (postgres) {
+            jdbcTemplate.execute("VACUUM ANALYZE posts");
+            jdbcTemplate.execute("VACUUM ANALYZE post_conteudo");
+            jdbcTemplate.execute("VACUUM ANALYZE posts_inline");
+        } else {
+            jdbcTemplate.execute("ANALYZE");
+        }
+    }
+
+    static void limpar(JdbcTemplate jdbcTemplate, boolean postgres) {
+        jdbcTemplate.execute("DROP TABLE IF EXISTS posts_inline");
+        jdbcTemplate.execute("TRUNCATE TABLE posts");
+        jdbcTemplate.execute("TRUNCATE TABLE post_conteudo");
+        if (postgres) {
+            jdbcTemplate.execute("TRUNCATE TABLE post_criacao");
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.sylviavitoria.blogpets.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CacheEscritasRecentesTest {
+
+    private CacheEscritasRecentes cache;
+    private ExecutorService executor;
+    private final AtomicInteger carregamentos = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        cache = new CacheEscritasRecentes("teste", Caffeine.newBuilder().build(), false, Duration.ofMinutes(1));
+        executor = Executors.newFixedThreadPool(4);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("Deve repassar o erro do carregamento a quem esperava por ele")
+    void deveRepassarErroAQuemEsperava() throws Exception {
+
+        CountDownLatch carregando = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+        Future<String> primeira = executor.submit(() -> cache.get(1L, () -> {
+            carregando.countDown();
+            assertTrue(liberar.await(5, TimeUnit.SECONDS));
+            throw new IllegalStateException("banco indisponível");
+        }));
+        assertTrue(carregando.await(5, TimeUnit.SECONDS));
+        Future<String> segunda = executor.submit(() -> cache.get(1L, () -> "não deveria carregar"));
+        Thread.sleep(100);
+        liberar.countDown();
+
+        Exception erro = assertThrows(Exception.class, () -> segunda.get(5, TimeUnit.SECONDS));
+        assertEquals("banco indisponível", erro.getCause().getCause().getMessage());
+        assertThrows(Exception.class, () -> primeira.get(5, TimeUnit.SECONDS));
+        assertNull(cache.get(1L));
+    }
+
+    @Test
+    @DisplayName("Deve iniciar um carregamento novo para quem chega depois de uma escrita na chave")
+    void deveCarregarDeNovoDepoisDeEscrita() throws Exception {
+
+        CountDownLatch carregando = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+        Future<String> anterior = executor.submit(() -> cache.get(1L, () -> {
+            carregamentos.incrementAndGet();
+            carregando.countDown();
+            assertTrue(liberar.await(5, TimeUnit.SECONDS));
+            return "versão anterior";
+        }));
+        assertTrue(carregando.await(5, TimeUnit.SECONDS));
+
+        cache.evict(1L);
+        String depois = cache.get(1L, () -> {
+            carregamentos.incrementAndGet();
+            return "versão nova";
+        });
+        liberar.countDown();
+
+        assertEquals("versão nova", depois);
+        assertEquals("versão anterior", anterior.get(5, TimeUnit.SECONDS));
+        assertEquals(2, carregamentos.get());
+        assertEquals("versão nova", cache.get(1L).get());
+    }
+}
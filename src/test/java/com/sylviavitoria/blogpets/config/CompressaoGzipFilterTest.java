@@ -0,0 +1,114 @@
+package com.sylviavitoria.blogpets.config;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sylviavitoria.blogpets.dto.PostRequest;
+import com.sylviavitoria.blogpets.dto.PostResponse;
+import com.sylviavitoria.blogpets.interfaces.IPost;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpHeaders;
+
+import java.io.ByteArrayInputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class CompressaoGzipFilterTest {
+
+    @LocalServerPort
+    private int porta;
+
+    @Autowired
+    private IPost postService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final HttpClient cliente = HttpClient.newHttpClient();
+
+    @Test
+    @DisplayName("Deve comprimir um post grande com gzip e um ETag forte da versão comprimida")
+    void deveComprimirPostGrande() throws Exception {
+
+        PostResponse post = criar("Cuidados com cães idosos ".repeat(200));
+
+        HttpResponse<byte[]> resposta = cliente.send(get(post.getId()).header(HttpHeaders.ACCEPT_ENCODING, "gzip").build(),
+                HttpResponse.BodyHandlers.ofByteArray());
+
+        assertEquals(200, resposta.statusCode());
+        assertEquals("gzip", resposta.headers().firstValue(HttpHeaders.CONTENT_ENCODING).orElse(null));
+        String etag = resposta.headers().firstValue(HttpHeaders.ETAG).orElseThrow();
+        assertEquals("\"" + post.getId() + "-0-json-gzip\"", etag);
+        assertTrue(resposta.headers().allValues(HttpHeaders.VARY).toString().contains(HttpHeaders.ACCEPT_ENCODING));
+        JsonNode lido;
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(resposta.body()))) {
+            lido = objectMapper.readTree(gzip);
+        }
+        assertEquals(post.getDescricao(), lido.get("descricao").asText());
+        assertTrue(resposta.body().length < post.getDescricao().length());
+
+        HttpResponse<byte[]> naoModificado = cliente.send(get(post.getId())
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+                        .header(HttpHeaders.IF_NONE_MATCH, etag).build(),
+                HttpResponse.BodyHandlers.ofByteArray());
+        assertEquals(304, naoModificado.statusCode());
+
+        HttpResponse<byte[]> atualizado = cliente.send(HttpRequest.newBuilder(uri(post.getId()))
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+                        .header(HttpHeaders.CONTENT_TYPE, "application/json")
+                        .header(HttpHeaders.IF_MATCH, etag)
+                        .PUT(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(request(post.getDescricao() + "!"))))
+                        .build(),
+                HttpResponse.BodyHandlers.ofByteArray());
+        assertEquals(200, atualizado.statusCode());
+        assertEquals("gzip", atualizado.headers().firstValue(HttpHeaders.CONTENT_ENCODING).orElse(null));
+        assertEquals("\"" + post.getId() + "-1-json-gzip\"", atualizado.headers().firstValue(HttpHeaders.ETAG).orElse(null));
+    }
+
+    @Test
+    @DisplayName("Não deve comprimir quando o cliente não aceita gzip ou o post é pequeno")
+    void naoDeveComprimirSemGzipOuPostPequeno() throws Exception {
+
+        PostResponse grande = criar("Cuidados com cães idosos ".repeat(200));
+        HttpResponse<String> semGzip = cliente.send(get(grande.getId()).build(), HttpResponse.BodyHandlers.ofString());
+        assertEquals(200, semGzip.statusCode());
+        assertTrue(semGzip.headers().firstValue(HttpHeaders.CONTENT_ENCODING).isEmpty());
+        assertEquals("\"" + grande.getId() + "-0-json\"", semGzip.headers().firstValue(HttpHeaders.ETAG).orElse(null));
+        assertEquals(grande.getDescricao(), objectMapper.readTree(semGzip.body()).get("descricao").asText());
+
+        PostResponse pequeno = criar("Descrição curta do post");
+        HttpResponse<String> resposta = cliente.send(get(pequeno.getId()).header(HttpHeaders.ACCEPT_ENCODING, "gzip").build(),
+                HttpResponse.BodyHandlers.ofString());
+        assertTrue(resposta.headers().firstValue(HttpHeaders.CONTENT_ENCODING).isEmpty());
+        assertEquals("\"" + pequeno.getId() + "-0-json\"", resposta.headers().firstValue(HttpHeaders.ETAG).orElse(null));
+    }
+
+    private PostResponse criar(String descricao) {
+        return postService.criar(request(descricao));
+    }
+
+    private static PostRequest request(String descricao) {
+        PostRequest postRequest = new PostRequest();
+        postRequest.setTitulo("Post comprimido");
+        postRequest.setDescricao(descricao);
+        postRequest.setAutor("Autor Teste");
+        return postRequest;
+    }
+
+    private HttpRequest.Builder get(Long id) {
+        return HttpRequest.newBuilder(uri(id)).GET();
+    }
+
+    private URI uri(Long id) {
+        return URI.create("http://localhost:" + porta + "/api/v1/posts/" + id);
+    }
+}
@@ -0,0 +1,89 @@
+package com.sylviavitoria.blogpets.config;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import com.sylviavitoria.blogpets.dto.PostRequest;
+import com.sylviavitoria.blogpets.dto.PostResponse;
+import com.sylviavitoria.blogpets.interfaces.IPost;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class JacksonConfigTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private IPost postService;
+
+    private PostResponse post;
+
+    @BeforeEach
+    void setUp() {
+        PostRequest postRequest = new PostRequest();
+        postRequest.setTitulo("Post em formato binário");
+        postRequest.setDescricao("Descrição serializada em CBOR e Smile");
+        postRequest.setAutor("Autor Teste");
+        post = postService.criar(postRequest);
+    }
+
+    @Test
+    @DisplayName("Deve responder em CBOR quando solicitado pelo Accept")
+    void deveResponderEmCbor() throws Exception {
+
+        byte[] corpo = mockMvc.perform(get("/api/v1/posts/{id}", post.getId()).accept("application/cbor"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/cbor"))
+                .andExpect(header().string(HttpHeaders.ETAG, "\"" + post.getId() + "-0-cbor\""))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        JsonNode lido = new CBORMapper().readTree(corpo);
+        assertEquals(post.getId(), lido.get("id").asLong());
+        assertEquals("Post em formato binário", lido.get("titulo").asText());
+    }
+
+    @Test
+    @DisplayName("Deve responder em Smile quando solicitado pelo Accept")
+    void deveResponderEmSmile() throws Exception {
+
+        byte[] corpo = mockMvc.perform(get("/api/v1/posts").param("size", "5").accept("application/x-jackson-smile"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-jackson-smile"))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        JsonNode lido = new SmileMapper().readTree(corpo);
+        assertTrue(lido.get("content").isArray());
+        assertTrue(lido.get("totalElements").asLong() >= 1);
+    }
+
+    @Test
+    @DisplayName("Deve manter JSON como formato padrão com o módulo Blackbird registrado")
+    void deveManterJsonComoPadrao() throws Exception {
+
+        mockMvc.perform(get("/api/v1/posts/{id}", post.getId()))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("application/json"));
+
+        assertTrue(objectMapper.getRegisteredModuleIds().contains(new BlackbirdModule().getTypeId()));
+    }
+}
@@ -0,0 +1,144 @@
+package com.sylviavitoria.blogpets.config;
+
+import com.sylviavitoria.blogpets.exception.LimiteTaxaExcedidoException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LimitadorEscritaTest {
+
+    private AtomicLong relogio;
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        relogio = new AtomicLong(TimeUnit.SECONDS.toNanos(100));
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    private LimitadorEscrita limitador(double porSegundoCliente, int rajadaCliente, double porSegundoGlobal, int rajadaGlobal) {
+        return new LimitadorEscrita(porSegundoCliente, rajadaCliente, porSegundoGlobal, rajadaGlobal,
+                meterRegistry, relogio::get);
+    }
+
+    private double contador(String resultado) {
+        return meterRegistry.get("blogpets.escritas.limite").tag("resultado", resultado).counter().count();
+    }
+
+    @Test
+    @DisplayName("Deve permitir a rajada do cliente e recusar a seguinte com o tempo de espera")
+    void deveRecusarAcimaDaRajadaDoCliente() {
+
+        LimitadorEscrita limitador = limitador(1, 3, 1_000, 1_000);
+
+        for (int i = 0; i < 3; i++) {
+            limitador.consumir("10.0.0.1");
+        }
+        LimiteTaxaExcedidoException exception = assertThrows(LimiteTaxaExcedidoException.class,
+                () -> limitador.consumir("10.0.0.1"));
+
+        assertEquals(1, exception.getSegundosParaNovaTentativa());
+        assertEquals(3, contador("permitida"));
+        assertEquals(1, contador("recusada-cliente"));
+    }
+
+    @Test
+    @DisplayName("Deve repor as fichas do cliente com o passar do tempo")
+    void deveReporFichasComOTempo() {
+
+        LimitadorEscrita limitador = limitador(2, 1, 1_000, 1_000);
+
+        limitador.consumir("10.0.0.1");
+        assertThrows(LimiteTaxaExcedidoException.class, () -> limitador.consumir("10.0.0.1"));
+
+        relogio.addAndGet(TimeUnit.MILLISECONDS.toNanos(500));
+
+        assertDoesNotThrow(() -> limitador.consumir("10.0.0.1"));
+    }
+
+    @Test
+    @DisplayName("Deve manter baldes separados por cliente")
+    void deveManterBaldesSeparadosPorCliente() {
+
+        LimitadorEscrita limitador = limitador(1, 1, 1_000, 1_000);
+
+        limitador.consumir("10.0.0.1");
+        assertThrows(LimiteTaxaExcedidoException.class, () -> limitador.consumir("10.0.0.1"));
+
+        assertDoesNotThrow(() -> limitador.consumir("10.0.0.2"));
+        assertEquals(2.0, meterRegistry.get("blogpets.escritas.limite.clientes").gauge().value());
+    }
+
+    @Test
+    @DisplayName("Deve aplicar o limite global somado entre todos os clientes")
+    void deveAplicarLimiteGlobal() {
+
+        LimitadorEscrita limitador = limitador(100, 100, 1, 1);
+
+        limitador.consumir("10.0.0.1");
+        LimiteTaxaExcedidoException exception = assertThrows(LimiteTaxaExcedidoException.class,
+                () -> limitador.consumir("10.0.0.2"));
+
+        assertEquals("Limite global de escritas excedido", exception.getMessage());
+        assertEquals(1, contador("recusada-global"));
+    }
+
+    @Test
+    @DisplayName("Deve conceder exatamente as fichas disponíveis sob concorrência")
+    void deveConcederFichasExatasSobConcorrencia() throws Exception {
+
+        LimitadorEscrita limitador = limitador(1, 500, 1, 400);
+        AtomicInteger concedidas = new AtomicInteger();
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        for (int i = 0; i < 1_000; i++) {
+            executor.submit(() -> {
+                try {
+                    limitador.consumir("10.0.0.1");
+                    concedidas.incrementAndGet();
+                } catch (LimiteTaxaExcedidoException e) {
+                    // esperado depois que as fichas acabam
+                }
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertEquals(400, concedidas.get());
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar limites que não sejam positivos")
+    void deveRejeitarLimitesInvalidos() {
+
+        assertThrows(IllegalArgumentException.class, () -> limitador(0, 1, 1, 1));
+        assertThrows(IllegalArgumentException.class, () -> limitador(1, 1, 1, 0));
+    }
+
+    @Test
+    @DisplayName("Deve limitar apenas escritas no interceptor, deixando leituras passarem")
+    void deveLimitarApenasEscritasNoInterceptor() {
+
+        LimiteEscritaInterceptor interceptor = new LimiteEscritaInterceptor(limitador(1, 1, 1_000, 1_000));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        assertTrue(interceptor.preHandle(new MockHttpServletRequest("POST", "/api/v1/posts"), response, null));
+        assertThrows(LimiteTaxaExcedidoException.class,
+                () -> interceptor.preHandle(new MockHttpServletRequest("PUT", "/api/v1/posts/1"), response, null));
+
+        assertTrue(interceptor.preHandle(new MockHttpServletRequest("GET", "/api/v1/posts/1"), response, null));
+        assertTrue(interceptor.preHandle(new MockHttpServletRequest("HEAD", "/api/v1/posts"), response, null));
+    }
+}
@@ -0,0 +1,41 @@
+package com.sylviavitoria.blogpets.config;
+
+import com.sylviavitoria.blogpets.interfaces.IPost;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+class MetricsConfigTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private IPost postService;
+
+    @Test
+    @DisplayName("Deve expor timers do PostService, estatísticas do Hibernate e do pool no formato Prometheus")
+    void deveExporMetricasNoFormatoPrometheus() throws Exception {
+
+        postService.listarTodos(0, 10, null);
+
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("blogpets_posts_servico_seconds_bucket")))
+                .andExpect(content().string(containsString("method=\"listarTodos\"")))
+                .andExpect(content().string(containsString("hibernate_query_executions_total")))
+                .andExpect(content().string(containsString("hikaricp_connections_pending")));
+    }
+}
@@ -0,0 +1,39 @@
+package com.sylviavitoria.blogpets.config;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class OpenApiConfigTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ConfigurableListableBeanFactory beanFactory;
+
+    @Test
+    @DisplayName("Deve criar os beans do springdoc só na primeira chamada à documentação")
+    void deveCriarSpringdocSoNaPrimeiraChamada() throws Exception {
+
+        assertFalse(beanFactory.containsSingleton("openApiResource"));
+        assertFalse(beanFactory.containsSingleton("customOpenAPI"));
+
+        mockMvc.perform(get("/api-docs"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.info.title").value("API de BlogPets"));
+
+        assertTrue(beanFactory.containsSingleton("openApiResource"));
+    }
+}
@@ -0,0 +1,64 @@
+package com.sylviavitoria.blogpets.config;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PinningMonitorTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private PinningMonitor pinningMonitor;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        pinningMonitor = new PinningMonitor(meterRegistry, Duration.ofMillis(10));
+        pinningMonitor.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        pinningMonitor.stop();
+    }
+
+    @Test
+    @DisplayName("Deve registrar virtual thread bloqueada dentro de synchronized")
+    void deveRegistrarPinningDeVirtualThread() throws Exception {
+
+        Object trava = new Object();
+        Thread.ofVirtual().start(() -> {
+            synchronized (trava) {
+                try {
+                    Thread.sleep(50);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }).join();
+
+        Timer pinning = meterRegistry.get("blogpets.threads.virtuais.pinning").timer();
+        long limite = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (pinning.count() == 0 && System.nanoTime() < limite) {
+            Thread.sleep(100);
+        }
+
+        assertTrue(pinning.count() >= 1);
+        assertTrue(pinningMonitor.isRunning());
+    }
+
+    @Test
+    @DisplayName("Deve parar o monitoramento ao encerrar")
+    void devePararMonitoramento() {
+
+        pinningMonitor.stop();
+
+        assertFalse(pinningMonitor.isRunning());
+    }
+}
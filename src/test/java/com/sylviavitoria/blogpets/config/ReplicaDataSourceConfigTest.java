@@ -0,0 +1,101 @@
+package com.sylviavitoria.blogpets.config;
+
+import com.sylviavitoria.blogpets.dto.PostRequest;
+import com.sylviavitoria.blogpets.dto.PostResponse;
+import com.sylviavitoria.blogpets.exception.EntityNotFoundException;
+import com.sylviavitoria.blogpets.interfaces.IPost;
+import com.zaxxer.hikari.HikariDataSource;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:primario-teste;DB_CLOSE_DELAY=-1",
+        "blogpets.datasource.replica.jdbc-url=" + ReplicaDataSourceConfigTest.URL_REPLICA,
+        "blogpets.datasource.replica.username=sa"
+})
+class ReplicaDataSourceConfigTest {
+
+    static final String URL_REPLICA = "jdbc:h2:mem:replica-teste;DB_CLOSE_DELAY=-1";
+
+    @Autowired
+    private IPost postService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    @Qualifier("primarioDataSource")
+    private HikariDataSource primario;
+
+    @Autowired
+    @Qualifier("replicaDataSource")
+    private HikariDataSource replica;
+
+    @BeforeAll
+    static void criarReplica() {
+        Flyway.configure()
+                .dataSource(URL_REPLICA, "sa", "")
+                .locations("classpath:db/migration", "classpath:db/vendor/h2")
+                .load()
+                .migrate();
+    }
+
+    @BeforeEach
+    void setUp() {
+        cacheManager.getCache(CacheConfig.POSTS_POR_ID).clear();
+        cacheManager.getCache(CacheConfig.PAGINAS_POSTS).clear();
+        new JdbcTemplate(replica).update("DELETE FROM posts");
+        new JdbcTemplate(replica).update("DELETE FROM post_conteudo");
+        new JdbcTemplate(replica).update("INSERT INTO posts (id, titulo, autor) "
+                + "VALUES (1000, 'Post só na réplica', 'Réplica')");
+        new JdbcTemplate(replica).update("INSERT INTO post_conteudo (post_id, descricao) "
+                + "VALUES (1000, 'Inserido diretamente na réplica')");
+    }
+
+    @Test
+    @DisplayName("Deve ler da réplica nas operações somente leitura")
+    void deveLerDaReplica() {
+
+        assertEquals("Post só na réplica", postService.listarResumos(0, 10, null).getContent().get(0).getTitulo());
+        assertEquals(1, postService.listarTodos(5, 10, null).getTotalElements());
+    }
+
+    @Test
+    @DisplayName("Deve carregar os caches e conferir versões a partir do primário")
+    void deveCarregarCachesDoPrimario() {
+
+        assertThrows(EntityNotFoundException.class, () -> postService.bucarPorId(1000L));
+        assertThrows(EntityNotFoundException.class, () -> postService.buscarVersao(1000L));
+        assertTrue(postService.listarTodos(0, 10, null).getContent().stream()
+                .noneMatch(post -> post.getId().equals(1000L)));
+    }
+
+    @Test
+    @DisplayName("Deve gravar no primário")
+    void deveGravarNoPrimario() {
+
+        PostRequest postRequest = new PostRequest();
+        postRequest.setTitulo("Post gravado no primário");
+        postRequest.setDescricao("Este post deve existir apenas no primário");
+        postRequest.setAutor("Primário");
+
+        PostResponse criado = postService.criar(postRequest);
+
+        Integer noPrimario = new JdbcTemplate(primario)
+                .queryForObject("SELECT COUNT(*) FROM posts WHERE id = ?", Integer.class, criado.getId());
+        Integer naReplica = new JdbcTemplate(replica)
+                .queryForObject("SELECT COUNT(*) FROM posts WHERE id = ?", Integer.class, criado.getId());
+        assertEquals(1, noPrimario);
+        assertEquals(0, naReplica);
+    }
+}
@@ -0,0 +1,119 @@
+package com.sylviavitoria.blogpets.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReplicaRoutingDataSourceTest {
+
+    @Mock
+    private DataSource primario;
+
+    @Mock
+    private DataSource replica;
+
+    @Mock
+    private Connection conexaoPrimario;
+
+    @Mock
+    private Connection conexaoReplica;
+
+    private ReplicaRoutingDataSource dataSource;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new ReplicaRoutingDataSource(primario, replica, Duration.ofMinutes(1));
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+    }
+
+    @Test
+    @DisplayName("Deve usar o primário fora de transações somente leitura")
+    void deveUsarPrimarioParaEscritas() throws Exception {
+
+        when(primario.getConnection()).thenReturn(conexaoPrimario);
+
+        assertSame(conexaoPrimario, dataSource.getConnection());
+        verifyNoInteractions(replica);
+    }
+
+    @Test
+    @DisplayName("Deve usar a réplica em transações somente leitura")
+    void deveUsarReplicaParaLeituras() throws Exception {
+
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        when(replica.getConnection()).thenReturn(conexaoReplica);
+
+        assertSame(conexaoReplica, dataSource.getConnection());
+        verifyNoInteractions(primario);
+    }
+
+    @Test
+    @DisplayName("Deve usar o primário nas leituras que alimentam caches")
+    void deveUsarPrimarioNasLeiturasNoPrimario() throws Exception {
+
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        when(primario.getConnection()).thenReturn(conexaoPrimario);
+        when(replica.getConnection()).thenReturn(conexaoReplica);
+
+        assertSame(conexaoPrimario, ReplicaRoutingDataSource.noPrimario(() -> conexao(dataSource)));
+        assertSame(conexaoReplica, dataSource.getConnection());
+    }
+
+    @Test
+    @DisplayName("Deve recorrer ao primário e pausar a réplica quando ela falhar")
+    void deveRecorrerAoPrimarioQuandoReplicaFalhar() throws Exception {
+
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        when(replica.getConnection()).thenThrow(new SQLException("Connection refused"));
+        when(primario.getConnection()).thenReturn(conexaoPrimario);
+
+        assertSame(conexaoPrimario, dataSource.getConnection());
+        assertSame(conexaoPrimario, dataSource.getConnection());
+
+        assertFalse(dataSource.replicaDisponivel());
+        verify(replica, times(1)).getConnection();
+    }
+
+    @Test
+    @DisplayName("Deve considerar a réplica disponível logo após a criação")
+    void deveConsiderarReplicaDisponivelAoCriar() {
+
+        assertTrue(dataSource.replicaDisponivel());
+    }
+
+    @Test
+    @DisplayName("Deve propagar a falha do primário")
+    void devePropagarFalhaDoPrimario() throws Exception {
+
+        when(primario.getConnection()).thenThrow(new SQLException("Connection refused"));
+
+        assertThrows(SQLException.class, () -> dataSource.getConnection());
+        assertTrue(dataSource.replicaDisponivel());
+    }
+
+    private static Connection conexao(DataSource dataSource) {
+        try {
+            return dataSource.getConnection();
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.sylviavitoria.blogpets.controller;
+
+import com.sylviavitoria.blogpets.dto.IngestaoResponse;
+import com.sylviavitoria.blogpets.dto.PostRequest;
+import com.sylviavitoria.blogpets.dto.PostResponse;
+import com.sylviavitoria.blogpets.interfaces.IIngestaoPost;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.net.URI;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class IngestaoControllerTest {
+
+    @Mock
+    private IIngestaoPost ingestaoPost;
+
+    @InjectMocks
+    private IngestaoController ingestaoController;
+
+    private PostRequest postRequest;
+
+    @BeforeEach
+    void setUp() {
+        postRequest = new PostRequest();
+        postRequest.setTitulo("Como cuidar de gatos");
+        postRequest.setDescricao("Dicas para cuidar adequadamente do seu felino");
+        postRequest.setAutor("Maria Silva");
+    }
+
+    @Test
+    @DisplayName("Deve aceitar o post com 202 e endereço do ticket")
+    void deveAceitarPostComEnderecoDoTicket() {
+
+        IngestaoResponse pendente = IngestaoResponse.builder().ticket("abc").status(IngestaoResponse.PENDENTE).build();
+        when(ingestaoPost.enfileirar(postRequest)).thenReturn(pendente);
+
+        ResponseEntity<IngestaoResponse> response = ingestaoController.enfileirar(postRequest);
+
+        assertEquals(HttpStatus.ACCEPTED, response.getStatusCode());
+        assertEquals(URI.create("/api/v1/posts/ingestao/abc"), response.getHeaders().getLocation());
+        assertEquals(pendente, response.getBody());
+    }
+
+    @Test
+    @DisplayName("Deve apontar para o post quando a ingestão estiver concluída")
+    void deveApontarParaPostQuandoConcluida() {
+
+        IngestaoResponse criado = IngestaoResponse.builder()
+                .ticket("abc")
+                .status(IngestaoResponse.CRIADO)
+                .post(PostResponse.builder().id(42L).build())
+                .build();
+        when(ingestaoPost.consultar("abc")).thenReturn(criado);
+
+        ResponseEntity<IngestaoResponse> response = ingestaoController.consultar("abc");
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(URI.create("/api/v1/posts/42"), response.getHeaders().getLocation());
+    }
+
+    @Test
+    @DisplayName("Deve retornar a situação pendente sem Location")
+    void deveRetornarSituacaoPendente() {
+
+        when(ingestaoPost.consultar("abc"))
+                .thenReturn(IngestaoResponse.builder().ticket("abc").status(IngestaoResponse.PENDENTE).build());
+
+        ResponseEntity<IngestaoResponse> response = ingestaoController.consultar("abc");
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertNull(response.getHeaders().getLocation());
+        assertEquals(IngestaoResponse.PENDENTE, response.getBody().getStatus());
+    }
+}
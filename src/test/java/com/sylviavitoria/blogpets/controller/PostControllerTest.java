@@ -1,23 +1,41 @@
 package com.sylviavitoria.blogpets.controller;
 
+import com.sylviavitoria.blogpets.dto.CursorPageResponse;
+import com.sylviavitoria.blogpets.dto.PostLoteItemResponse;
+import com.sylviavitoria.blogpets.dto.PostLoteResponse;
 import com.sylviavitoria.blogpets.dto.PostRequest;
 import com.sylviavitoria.blogpets.dto.PostResponse;
+import com.sylviavitoria.blogpets.dto.PostResumoResponse;
+import com.sylviavitoria.blogpets.dto.SliceResponse;
 import com.sylviavitoria.blogpets.exception.EntityNotFoundException;
+import com.sylviavitoria.blogpets.exception.IfMatchObrigatorioException;
+import com.sylviavitoria.blogpets.exception.VersionConflictException;
 import com.sylviavitoria.blogpets.interfaces.IPost;
+import com.sylviavitoria.blogpets.repository.PostVersao;
+import com.sylviavitoria.blogpets.service.CriacaoIdempotente;
+import com.sylviavitoria.blogpets.service.FormatoExportacao;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.boot.autoconfigure.web.ServerProperties;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.HttpMediaTypeNotAcceptableException;
+import org.springframework.web.context.request.ServletWebRequest;
 
+import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -28,17 +46,29 @@ class PostControllerTest {
     @Mock
     private IPost postService;
 
-    @InjectMocks
+    @Mock
+    private CriacaoIdempotente criacaoIdempotente;
+
     private PostController postController;
 
     private PostRequest postRequest;
     private PostResponse postResponse;
     private Long postId;
+    private LocalDateTime dataAtualizacao;
+    private MockHttpServletRequest servletRequest;
+    private MockHttpServletResponse servletResponse;
 
     @BeforeEach
     void setUp() {
+        ServerProperties serverProperties = new ServerProperties();
+        serverProperties.getCompression().setEnabled(true);
+        postController = new PostController(postService, criacaoIdempotente, serverProperties);
+
         postId = 1L;
-        
+        dataAtualizacao = LocalDateTime.of(2024, 5, 10, 14, 30, 15, 123456000);
+        servletRequest = new MockHttpServletRequest("GET", "/api/v1/posts/" + postId);
+        servletResponse = new MockHttpServletResponse();
+
         postRequest = new PostRequest();
         postRequest.setTitulo("Como cuidar de gatos");
         postRequest.setDescricao("Dicas para cuidar adequadamente do seu felino");
@@ -48,6 +78,8 @@ class PostControllerTest {
                 .titulo("Como cuidar de gatos")
                 .descricao("Dicas para cuidar adequadamente do seu felino")
                 .autor("Maria Silva")
+                .dataAtualizacao(dataAtualizacao)
+                .versao(1L)
                 .build();
     }
 
@@ -57,7 +89,7 @@ class PostControllerTest {
 
         when(postService.criar(postRequest)).thenReturn(postResponse);
 
-        ResponseEntity<PostResponse> response = postController.criar(postRequest);
+        ResponseEntity<PostResponse> response = postController.criar(postRequest, null);
 
         assertNotNull(response);
         assertEquals(HttpStatus.CREATED, response.getStatusCode());
@@ -65,24 +97,230 @@ class PostControllerTest {
         
         verify(postService, times(1)).criar(postRequest);
         verifyNoMoreInteractions(postService);
+        verifyNoInteractions(criacaoIdempotente);
+    }
+
+    @Test
+    @DisplayName("Deve devolver a resposta original e marcar a repetição quando a Idempotency-Key já foi usada")
+    void deveCriarPostComIdempotencyKey() {
+
+        when(criacaoIdempotente.criar("pedido-123", postRequest))
+                .thenReturn(new CriacaoIdempotente.Resultado(postResponse, true));
+
+        ResponseEntity<PostResponse> response = postController.criar(postRequest, "pedido-123");
+
+        assertEquals(HttpStatus.CREATED, response.getStatusCode());
+        assertEquals(postResponse, response.getBody());
+        assertEquals("true", response.getHeaders().getFirst(PostController.IDEMPOTENT_REPLAYED));
+        verifyNoInteractions(postService);
+    }
+
+    @Test
+    @DisplayName("Deve criar posts em lote e retornar 201 quando todos forem válidos")
+    void deveCriarPostsEmLoteComSucesso() {
+
+        PostLoteResponse lote = PostLoteResponse.builder()
+                .total(1)
+                .criados(1)
+                .invalidos(0)
+                .itens(List.of(PostLoteItemResponse.builder().indice(0).status(PostLoteItemResponse.CRIADO).post(postResponse).build()))
+                .build();
+
+        when(postService.criarEmLote(List.of(postRequest))).thenReturn(lote);
+
+        ResponseEntity<PostLoteResponse> response = postController.criarEmLote(List.of(postRequest));
+
+        assertEquals(HttpStatus.CREATED, response.getStatusCode());
+        assertEquals(lote, response.getBody());
+
+        verify(postService, times(1)).criarEmLote(List.of(postRequest));
+        verifyNoMoreInteractions(postService);
+    }
+
+    @Test
+    @DisplayName("Deve retornar 207 quando parte do lote for inválida")
+    void deveRetornarMultiStatusQuandoParteDoLoteForInvalida() throws Exception {
+
+        PostLoteResponse lote = PostLoteResponse.builder()
+                .total(1)
+                .criados(0)
+                .invalidos(1)
+                .itens(List.of(PostLoteItemResponse.builder()
+                        .indice(0)
+                        .status(PostLoteItemResponse.INVALIDO)
+                        .erros(Map.of("titulo", "O título é obrigatório"))
+                        .build()))
+                .build();
+
+        when(postService.criarEmLote(List.of(postRequest))).thenReturn(lote);
+
+        ResponseEntity<PostLoteResponse> response = postController.criarEmLote(List.of(postRequest));
+
+        assertEquals(HttpStatus.MULTI_STATUS, response.getStatusCode());
+        assertEquals(lote, response.getBody());
     }
 
     @Test
     @DisplayName("Deve buscar post por ID com sucesso")
-    void deveBuscarPostPorIdComSucesso() {
+    void deveBuscarPostPorIdComSucesso() throws Exception {
 
         when(postService.bucarPorId(postId)).thenReturn(postResponse);
 
-        ResponseEntity<PostResponse> response = postController.buscarPorId(postId);
+        ResponseEntity<PostResponse> response = postController.buscarPorId(postId, requisicao());
  
         assertNotNull(response);
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertEquals(postResponse, response.getBody());
+        assertNotNull(servletResponse.getHeader(HttpHeaders.ETAG));
+        assertNotNull(servletResponse.getHeader(HttpHeaders.LAST_MODIFIED));
     
         verify(postService, times(1)).bucarPorId(postId);
         verifyNoMoreInteractions(postService);
     }
 
+    @Test
+    @DisplayName("Deve responder 304 conferindo o ETag só contra a versão, sem carregar o post")
+    void deveResponderNaoModificadoQuandoEtagForValido() throws Exception {
+
+        when(postService.bucarPorId(postId)).thenReturn(postResponse);
+        postController.buscarPorId(postId, requisicao());
+        String etag = servletResponse.getHeader(HttpHeaders.ETAG);
+
+        when(postService.buscarVersao(postId)).thenReturn(versao(1L, dataAtualizacao));
+        servletRequest = new MockHttpServletRequest("GET", "/api/v1/posts/" + postId);
+        servletRequest.addHeader(HttpHeaders.IF_NONE_MATCH, etag);
+        servletResponse = new MockHttpServletResponse();
+
+        ResponseEntity<PostResponse> response = postController.buscarPorId(postId, requisicao());
+
+        assertNull(response);
+        assertEquals(HttpStatus.NOT_MODIFIED.value(), servletResponse.getStatus());
+        assertEquals(etag, servletResponse.getHeader(HttpHeaders.ETAG));
+
+        verify(postService, times(1)).bucarPorId(postId);
+        verify(postService, times(1)).buscarVersao(postId);
+        verifyNoMoreInteractions(postService);
+    }
+
+    @Test
+    @DisplayName("Deve aceitar em If-None-Match o ETag da variante comprimida")
+    void deveResponderNaoModificadoParaVarianteComprimida() throws Exception {
+
+        when(postService.buscarVersao(postId)).thenReturn(versao(1L, dataAtualizacao));
+        servletRequest.addHeader(HttpHeaders.ACCEPT_ENCODING, "gzip");
+        servletRequest.addHeader(HttpHeaders.IF_NONE_MATCH, "\"1-0-json\", \"1-1-json-gzip\"");
+
+        ResponseEntity<PostResponse> response = postController.buscarPorId(postId, requisicao());
+
+        assertNull(response);
+        assertEquals(HttpStatus.NOT_MODIFIED.value(), servletResponse.getStatus());
+        assertEquals("\"1-1-json-gzip\"", servletResponse.getHeader(HttpHeaders.ETAG));
+        verify(postService, never()).bucarPorId(postId);
+    }
+
+    @Test
+    @DisplayName("Deve enviar um ETag forte para cada formato negociado")
+    void deveEnviarEtagFortePorFormato() throws Exception {
+
+        when(postService.bucarPorId(postId)).thenReturn(postResponse);
+
+        ResponseEntity<PostResponse> json = postController.buscarPorId(postId, requisicao());
+        assertEquals(MediaType.APPLICATION_JSON, json.getHeaders().getContentType());
+        assertEquals("\"1-1-json\"", servletResponse.getHeader(HttpHeaders.ETAG));
+
+        servletResponse = new MockHttpServletResponse();
+        servletRequest.addHeader(HttpHeaders.ACCEPT, "application/json;q=0.5, application/cbor");
+        ResponseEntity<PostResponse> cbor = postController.buscarPorId(postId, requisicao());
+        assertEquals(MediaType.APPLICATION_CBOR, cbor.getHeaders().getContentType());
+        assertEquals("\"1-1-cbor\"", servletResponse.getHeader(HttpHeaders.ETAG));
+    }
+
+    @Test
+    @DisplayName("Deve comprimir um post grande com um ETag próprio da versão comprimida")
+    void deveComprimirPostGrandeComEtagProprio() throws Exception {
+
+        PostResponse postGrande = PostResponse.builder()
+                .titulo("Como cuidar de gatos")
+                .descricao("a".repeat(4096))
+                .autor("Maria Silva")
+                .dataAtualizacao(dataAtualizacao)
+                .versao(1L)
+                .build();
+        when(postService.bucarPorId(postId)).thenReturn(postGrande);
+        servletRequest.addHeader(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate");
+
+        ResponseEntity<PostResponse> response = postController.buscarPorId(postId, requisicao());
+
+        assertEquals("gzip", response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        assertEquals("\"1-1-json-gzip\"", servletResponse.getHeader(HttpHeaders.ETAG));
+        assertTrue(response.getHeaders().getVary().contains(HttpHeaders.ACCEPT_ENCODING));
+    }
+
+    @Test
+    @DisplayName("Não deve comprimir posts pequenos nem quando o cliente recusa gzip")
+    void naoDeveComprimirPostPequenoNemSemGzip() throws Exception {
+
+        when(postService.bucarPorId(postId)).thenReturn(postResponse);
+        servletRequest.addHeader(HttpHeaders.ACCEPT_ENCODING, "gzip");
+
+        ResponseEntity<PostResponse> pequeno = postController.buscarPorId(postId, requisicao());
+
+        assertNull(pequeno.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        assertEquals("\"1-1-json\"", servletResponse.getHeader(HttpHeaders.ETAG));
+        assertFalse(PostController.aceitaGzip("gzip;q=0, br"));
+        assertFalse(PostController.aceitaGzip(null));
+        assertTrue(PostController.aceitaGzip("br, *;q=0.5"));
+    }
+
+    @Test
+    @DisplayName("Deve recusar um Accept sem nenhum formato suportado")
+    void deveRecusarAcceptSemFormatoSuportado() throws Exception {
+
+        servletRequest.addHeader(HttpHeaders.ACCEPT, "text/html, application/json;q=0");
+
+        assertThrows(HttpMediaTypeNotAcceptableException.class, () -> postController.buscarPorId(postId, requisicao()));
+        verifyNoInteractions(postService);
+    }
+
+    @Test
+    @DisplayName("Deve retornar o post quando ele foi alterado depois do ETag enviado")
+    void deveRetornarPostQuandoEtagEstiverDesatualizado() throws Exception {
+
+        when(postService.bucarPorId(postId)).thenReturn(postResponse);
+        postController.buscarPorId(postId, requisicao());
+        String etagAntigo = servletResponse.getHeader(HttpHeaders.ETAG);
+
+        when(postService.bucarPorId(postId)).thenReturn(PostResponse.builder()
+                .titulo("Como cuidar de cães")
+                .dataAtualizacao(dataAtualizacao.plusMinutes(1))
+                .versao(2L)
+                .build());
+        when(postService.buscarVersao(postId)).thenReturn(versao(2L, dataAtualizacao.plusMinutes(1)));
+        servletRequest = new MockHttpServletRequest("GET", "/api/v1/posts/" + postId);
+        servletRequest.addHeader(HttpHeaders.IF_NONE_MATCH, etagAntigo);
+        servletResponse = new MockHttpServletResponse();
+
+        ResponseEntity<PostResponse> response = postController.buscarPorId(postId, requisicao());
+
+        assertNotNull(response);
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertNotEquals(etagAntigo, servletResponse.getHeader(HttpHeaders.ETAG));
+    }
+
+    @Test
+    @DisplayName("Deve responder 304 quando If-Modified-Since não for anterior à última alteração")
+    void deveResponderNaoModificadoQuandoDataForValida() throws Exception {
+
+        when(postService.buscarVersao(postId)).thenReturn(versao(1L, dataAtualizacao));
+        servletRequest.addHeader(HttpHeaders.IF_MODIFIED_SINCE, "Sat, 01 Jan 2050 00:00:00 GMT");
+
+        ResponseEntity<PostResponse> response = postController.buscarPorId(postId, requisicao());
+
+        assertNull(response);
+        assertEquals(HttpStatus.NOT_MODIFIED.value(), servletResponse.getStatus());
+        verify(postService, never()).bucarPorId(postId);
+    }
+
     @Test
     @DisplayName("Deve lançar exceção ao buscar post com ID inexistente")
     void deveLancarExcecaoAoBuscarPostInexistente() {
@@ -90,7 +328,7 @@ class PostControllerTest {
         when(postService.bucarPorId(postId)).thenThrow(new EntityNotFoundException("Post não encontrado com ID: " + postId));
 
         assertThrows(EntityNotFoundException.class, () -> {
-            postController.buscarPorId(postId);
+            postController.buscarPorId(postId, requisicao());
         });
         
         verify(postService, times(1)).bucarPorId(postId);
@@ -99,7 +337,7 @@ class PostControllerTest {
 
     @Test
     @DisplayName("Deve listar todos os posts com paginação padrão")
-    void deveListarTodosPostsComPaginacaoPadrao() {
+    void deveListarTodosPostsComPaginacaoPadrao() throws Exception {
 
         int page = 0;
         int size = 10;
@@ -110,7 +348,7 @@ class PostControllerTest {
         
         when(postService.listarTodos(page, size, sort)).thenReturn(pageResponse);
 
-        ResponseEntity<Page<PostResponse>> response = postController.listarTodos(page, size, sort);
+        ResponseEntity<Page<PostResponse>> response = postController.listarTodos(page, size, sort, requisicao());
 
         assertNotNull(response);
         assertEquals(HttpStatus.OK, response.getStatusCode());
@@ -121,9 +359,76 @@ class PostControllerTest {
         verifyNoMoreInteractions(postService);
     }
 
+    @Test
+    @DisplayName("Deve gerar ETag forte e Last-Modified da página que mudam quando um post é alterado")
+    void deveGerarEtagDaPaginaQueMudaQuandoPostForAlterado() throws Exception {
+
+        PostResponse postAlterado = PostResponse.builder()
+                .titulo(postResponse.getTitulo())
+                .descricao("Descrição revisada do post sobre gatos")
+                .autor(postResponse.getAutor())
+                .dataAtualizacao(dataAtualizacao.plusSeconds(1))
+                .versao(2L)
+                .build();
+
+        when(postService.listarTodos(0, 10, null))
+                .thenReturn(new PageImpl<>(List.of(postResponse)))
+                .thenReturn(new PageImpl<>(List.of(postResponse)))
+                .thenReturn(new PageImpl<>(List.of(postAlterado)));
+
+        HttpHeaders primeiro = postController.listarTodos(0, 10, null, requisicao()).getHeaders();
+        HttpHeaders repetido = postController.listarTodos(0, 10, null, requisicao()).getHeaders();
+        HttpHeaders alterado = postController.listarTodos(0, 10, null, requisicao()).getHeaders();
+
+        assertTrue(primeiro.getETag().startsWith("\""));
+        assertTrue(primeiro.getETag().endsWith("-json\""));
+        assertEquals(primeiro.getETag(), repetido.getETag());
+        assertNotEquals(primeiro.getETag(), alterado.getETag());
+        assertEquals(primeiro.getLastModified() + 1000, alterado.getLastModified());
+    }
+
+    @Test
+    @DisplayName("Deve listar os posts de um autor por cursor")
+    void deveListarPostsDoAutor() {
+
+        CursorPageResponse<PostResponse> feed = CursorPageResponse.<PostResponse>builder()
+                .content(List.of(postResponse))
+                .size(10)
+                .hasNext(false)
+                .build();
+        when(postService.listarPorAutor("Maria Silva", null, 10)).thenReturn(feed);
+
+        ResponseEntity<CursorPageResponse<PostResponse>> response = postController.listarPorAutor("Maria Silva", null, 10);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(feed, response.getBody());
+        verify(postService, times(1)).listarPorAutor("Maria Silva", null, 10);
+    }
+
+    @Test
+    @DisplayName("Deve listar posts em fatia repassando o pedido de total estimado")
+    void deveListarPostsEmFatia() {
+
+        SliceResponse<PostResponse> fatia = SliceResponse.<PostResponse>builder()
+                .content(List.of(postResponse))
+                .page(0)
+                .size(10)
+                .hasNext(false)
+                .estimatedTotal(1L)
+                .build();
+        when(postService.listarFatia(0, 10, "titulo", true)).thenReturn(fatia);
+
+        ResponseEntity<SliceResponse<PostResponse>> response = postController.listarFatia(0, 10, "titulo", true);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(fatia, response.getBody());
+        verify(postService, times(1)).listarFatia(0, 10, "titulo", true);
+        verifyNoMoreInteractions(postService);
+    }
+
     @Test
     @DisplayName("Deve listar todos os posts com ordenação personalizada")
-    void deveListarTodosPostsComOrdenacaoPersonalizada() {
+    void deveListarTodosPostsComOrdenacaoPersonalizada() throws Exception {
 
         int page = 0;
         int size = 10;
@@ -134,7 +439,7 @@ class PostControllerTest {
         
         when(postService.listarTodos(page, size, sort)).thenReturn(pageResponse);
 
-        ResponseEntity<Page<PostResponse>> response = postController.listarTodos(page, size, sort);
+        ResponseEntity<Page<PostResponse>> response = postController.listarTodos(page, size, sort, requisicao());
 
         assertNotNull(response);
         assertEquals(HttpStatus.OK, response.getStatusCode());
@@ -144,33 +449,169 @@ class PostControllerTest {
         verifyNoMoreInteractions(postService);
     }
 
+    @Test
+    @DisplayName("Deve listar resumos dos posts")
+    void deveListarResumosDosPosts() {
+
+        PostResumoResponse resumo = PostResumoResponse.builder()
+                .titulo("Como cuidar de gatos")
+                .autor("Maria Silva")
+                .resumo("Dicas para cuidar")
+                .build();
+        Page<PostResumoResponse> pageResponse = new PageImpl<>(List.of(resumo));
+
+        when(postService.listarResumos(0, 10, null)).thenReturn(pageResponse);
+
+        ResponseEntity<Page<PostResumoResponse>> response = postController.listarResumos(0, 10, null);
+
+        assertNotNull(response);
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(pageResponse, response.getBody());
+
+        verify(postService, times(1)).listarResumos(0, 10, null);
+        verifyNoMoreInteractions(postService);
+    }
+
+    @Test
+    @DisplayName("Deve buscar posts por texto")
+    void deveBuscarPostsPorTexto() throws Exception {
+
+        Page<PostResumoResponse> pageResponse = new PageImpl<>(List.of(PostResumoResponse.builder().id(1L).build()));
+
+        when(postService.buscar("gatos", 0, 10)).thenReturn(pageResponse);
+
+        ResponseEntity<Page<PostResumoResponse>> response = postController.buscar("gatos", 0, 10);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(pageResponse, response.getBody());
+
+        verify(postService, times(1)).buscar("gatos", 0, 10);
+        verifyNoMoreInteractions(postService);
+    }
+
+    @Test
+    @DisplayName("Deve listar posts por cursor")
+    void deveListarPostsPorCursor() throws Exception {
+
+        CursorPageResponse<PostResponse> pagina = CursorPageResponse.<PostResponse>builder()
+                .content(List.of(postResponse))
+                .size(10)
+                .hasNext(true)
+                .nextCursor("cursor")
+                .build();
+
+        when(postService.listarPorCursor("", 10, "dataCriacao")).thenReturn(pagina);
+
+        ResponseEntity<CursorPageResponse<PostResponse>> response = postController.listarPorCursor("", 10, "dataCriacao");
+
+        assertNotNull(response);
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(pagina, response.getBody());
+
+        verify(postService, times(1)).listarPorCursor("", 10, "dataCriacao");
+        verifyNoMoreInteractions(postService);
+    }
+
     @Test
     @DisplayName("Deve atualizar post com sucesso")
-    void deveAtualizarPostComSucesso() {
+    void deveAtualizarPostComSucesso() throws Exception {
 
-        when(postService.atualizar(postId, postRequest)).thenReturn(postResponse);
+        when(postService.atualizar(postId, postRequest, 0L)).thenReturn(postResponse);
 
-        ResponseEntity<PostResponse> response = postController.atualizar(postId, postRequest);
+        ResponseEntity<PostResponse> response = postController.atualizar(postId, "\"1-0\"", postRequest, requisicao());
 
         assertNotNull(response);
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertEquals(postResponse, response.getBody());
+        assertEquals("\"1-1-json\"", response.getHeaders().getETag());
+        assertEquals(MediaType.APPLICATION_JSON, response.getHeaders().getContentType());
         
-        verify(postService, times(1)).atualizar(postId, postRequest);
+        verify(postService, times(1)).atualizar(postId, postRequest, 0L);
         verifyNoMoreInteractions(postService);
     }
 
+    @Test
+    @DisplayName("Deve repassar a versão do If-Match ao atualizar")
+    void deveAtualizarPostNaVersaoDoIfMatch() throws Exception {
+
+        when(postService.atualizar(postId, postRequest, 3L)).thenReturn(postResponse);
+
+        postController.atualizar(postId, "\"1-3-json\"", postRequest, requisicao());
+        postController.atualizar(postId, "\"1-3-cbor\"", postRequest, requisicao());
+        postController.atualizar(postId, "\"1-3\"", postRequest, requisicao());
+        postController.atualizar(postId, "\"1-3-json-gzip\"", postRequest, requisicao());
+
+        verify(postService, times(4)).atualizar(postId, postRequest, 3L);
+    }
+
+    @Test
+    @DisplayName("Deve recusar ETag fraco em If-Match, que exige comparação forte")
+    void deveRecusarEtagFracoNoIfMatch() {
+
+        assertThrows(VersionConflictException.class,
+                () -> postController.atualizar(postId, "W/\"1-3-json\"", postRequest, requisicao()));
+        assertThrows(VersionConflictException.class, () -> postController.excluir(postId, "W/\"1-3\""));
+
+        verifyNoInteractions(postService);
+    }
+
+    @Test
+    @DisplayName("Deve aplicar o patch na versão do If-Match e devolver o novo ETag")
+    void deveAtualizarParcialmenteNaVersaoDoIfMatch() throws Exception {
+
+        Map<String, Object> patch = Map.of("titulo", "Novo título do post");
+        when(postService.atualizarParcialmente(postId, patch, 3L)).thenReturn(postResponse);
+
+        ResponseEntity<PostResponse> response = postController.atualizarParcialmente(postId, "\"1-3-json\"", patch, requisicao());
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(postResponse, response.getBody());
+        assertEquals("\"1-1-json\"", response.getHeaders().getETag());
+        verify(postService, times(1)).atualizarParcialmente(postId, patch, 3L);
+    }
+
+    @Test
+    @DisplayName("Deve atualizar sem condição quando If-Match for *")
+    void deveAtualizarSemCondicaoQuandoIfMatchForCuringa() throws Exception {
+
+        when(postService.atualizar(postId, postRequest, null)).thenReturn(postResponse);
+
+        postController.atualizar(postId, "*", postRequest, requisicao());
+
+        verify(postService, times(1)).atualizar(postId, postRequest, null);
+    }
+
+    @Test
+    @DisplayName("Deve exigir If-Match ao atualizar e ao excluir")
+    void deveExigirIfMatchAoAtualizarEExcluir() {
+
+        assertThrows(IfMatchObrigatorioException.class, () -> postController.atualizar(postId, null, postRequest, requisicao()));
+        assertThrows(IfMatchObrigatorioException.class, () -> postController.excluir(postId, " "));
+
+        verifyNoInteractions(postService);
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar If-Match de outro post ou malformado")
+    void deveRejeitarIfMatchInvalido() {
+
+        assertThrows(VersionConflictException.class, () -> postController.atualizar(postId, "\"2-3\"", postRequest, requisicao()));
+        assertThrows(IllegalArgumentException.class, () -> postController.atualizar(postId, "\"1-abc\"", postRequest, requisicao()));
+
+        verifyNoInteractions(postService);
+    }
+
     @Test
     @DisplayName("Deve lançar exceção ao atualizar post inexistente")
     void deveLancarExcecaoAoAtualizarPostInexistente() {
 
-        when(postService.atualizar(postId, postRequest)).thenThrow(new EntityNotFoundException("Post não encontrado com ID: " + postId));
+        when(postService.atualizar(postId, postRequest, null)).thenThrow(new EntityNotFoundException("Post não encontrado com ID: " + postId));
 
         assertThrows(EntityNotFoundException.class, () -> {
-            postController.atualizar(postId, postRequest);
+            postController.atualizar(postId, "*", postRequest, requisicao());
         });
         
-        verify(postService, times(1)).atualizar(postId, postRequest);
+        verify(postService, times(1)).atualizar(postId, postRequest, null);
         verifyNoMoreInteractions(postService);
     }
 
@@ -178,30 +619,78 @@ class PostControllerTest {
     @DisplayName("Deve excluir post com sucesso")
     void deveExcluirPostComSucesso() {
 
-        doNothing().when(postService).excluir(postId);
+        doNothing().when(postService).excluir(postId, null);
 
-        ResponseEntity<Void> response = postController.excluir(postId);
+        ResponseEntity<Void> response = postController.excluir(postId, "*");
 
         assertNotNull(response);
         assertEquals(HttpStatus.NO_CONTENT, response.getStatusCode());
         assertNull(response.getBody());
         
-        verify(postService, times(1)).excluir(postId);
+        verify(postService, times(1)).excluir(postId, null);
         verifyNoMoreInteractions(postService);
     }
 
+    @Test
+    @DisplayName("Deve propagar conflito ao excluir versão desatualizada")
+    void devePropagarConflitoAoExcluirVersaoDesatualizada() {
+
+        doThrow(new VersionConflictException("O post 1 foi alterado por outra requisição; a versão 3 não é mais a atual"))
+            .when(postService).excluir(postId, 3L);
+
+        assertThrows(VersionConflictException.class, () -> postController.excluir(postId, "\"1-3\""));
+    }
+
     @Test
     @DisplayName("Deve lançar exceção ao excluir post inexistente")
     void deveLancarExcecaoAoExcluirPostInexistente() {
 
         doThrow(new EntityNotFoundException("Post não encontrado com ID: " + postId))
-            .when(postService).excluir(postId);
+            .when(postService).excluir(postId, null);
 
         assertThrows(EntityNotFoundException.class, () -> {
-            postController.excluir(postId);
+            postController.excluir(postId, "*");
         });
         
-        verify(postService, times(1)).excluir(postId);
+        verify(postService, times(1)).excluir(postId, null);
         verifyNoMoreInteractions(postService);
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Deve exportar posts em CSV como anexo")
+    void deveExportarPostsEmCsv() throws Exception {
+
+        postController.exportar("csv", servletResponse);
+
+        assertEquals("text/csv;charset=UTF-8", servletResponse.getContentType());
+        assertEquals("attachment; filename=\"posts.csv\"", servletResponse.getHeader(HttpHeaders.CONTENT_DISPOSITION));
+        verify(postService, times(1)).exportar(eq(FormatoExportacao.CSV), any());
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar formato de exportação inválido sem consultar o serviço")
+    void deveRejeitarFormatoDeExportacaoInvalido() {
+
+        assertThrows(IllegalArgumentException.class, () -> postController.exportar("xml", servletResponse));
+
+        verifyNoInteractions(postService);
+    }
+
+    private static PostVersao versao(Long numero, LocalDateTime dataAtualizacao) {
+        return new PostVersao() {
+            @Override
+            public Long getVersao() {
+                return numero;
+            }
+
+            @Override
+            public LocalDateTime getDataAtualizacao() {
+                return dataAtualizacao;
+            }
+        };
+    }
+
+    private ServletWebRequest requisicao() {
+        return new ServletWebRequest(servletRequest, servletResponse);
+    }
+}
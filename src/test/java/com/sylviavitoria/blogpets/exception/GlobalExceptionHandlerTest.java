@@ -6,6 +6,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.BindingResult;
@@ -45,6 +46,78 @@ class GlobalExceptionHandlerTest {
         assertEquals(mensagemErro, response.getBody().get("erro"));
     }
 
+    @Test
+    @DisplayName("Deve tratar ChaveIdempotenciaReutilizadaException e retornar status 422")
+    void deveTratar_ChaveIdempotenciaReutilizadaException_E_Retornar_Status422() {
+
+        String mensagemErro = "A chave de idempotência pedido-123 já foi usada com outro conteúdo";
+        ChaveIdempotenciaReutilizadaException exception = new ChaveIdempotenciaReutilizadaException(mensagemErro);
+
+        ResponseEntity<Map<String, String>> response = exceptionHandler.handleChaveIdempotenciaReutilizada(exception);
+
+        assertNotNull(response);
+        assertEquals(HttpStatus.UNPROCESSABLE_ENTITY, response.getStatusCode());
+        assertEquals(mensagemErro, response.getBody().get("erro"));
+    }
+
+    @Test
+    @DisplayName("Deve tratar VersionConflictException e retornar status 409")
+    void deveTratar_VersionConflictException_E_Retornar_Status409() {
+
+        String mensagemErro = "O post 1 foi alterado por outra requisição; a versão 2 não é mais a atual";
+        VersionConflictException exception = new VersionConflictException(mensagemErro);
+
+        ResponseEntity<Map<String, String>> response = exceptionHandler.handleVersionConflict(exception);
+
+        assertNotNull(response);
+        assertEquals(HttpStatus.CONFLICT, response.getStatusCode());
+        assertEquals(mensagemErro, response.getBody().get("erro"));
+    }
+
+    @Test
+    @DisplayName("Deve tratar IfMatchObrigatorioException e retornar status 428")
+    void deveTratar_IfMatchObrigatorioException_E_Retornar_Status428() {
+
+        String mensagemErro = "Envie em If-Match o ETag do post 1, ou * para alterar qualquer versão";
+        IfMatchObrigatorioException exception = new IfMatchObrigatorioException(mensagemErro);
+
+        ResponseEntity<Map<String, String>> response = exceptionHandler.handleIfMatchObrigatorio(exception);
+
+        assertNotNull(response);
+        assertEquals(HttpStatus.PRECONDITION_REQUIRED, response.getStatusCode());
+        assertEquals(mensagemErro, response.getBody().get("erro"));
+    }
+
+    @Test
+    @DisplayName("Deve tratar LimiteTaxaExcedidoException e retornar status 429 com Retry-After")
+    void deveTratar_LimiteTaxaExcedidoException_E_Retornar_Status429() {
+
+        String mensagemErro = "Limite global de escritas excedido";
+        LimiteTaxaExcedidoException exception = new LimiteTaxaExcedidoException(mensagemErro, 3);
+
+        ResponseEntity<Map<String, String>> response = exceptionHandler.handleLimiteTaxaExcedido(exception);
+
+        assertNotNull(response);
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, response.getStatusCode());
+        assertEquals("3", response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+        assertEquals(mensagemErro, response.getBody().get("erro"));
+    }
+
+    @Test
+    @DisplayName("Deve tratar IngestaoIndisponivelException e retornar status 503 com Retry-After")
+    void deveTratar_IngestaoIndisponivelException_E_Retornar_Status503() {
+
+        String mensagemErro = "Fila de ingestão cheia; tente novamente em instantes";
+        IngestaoIndisponivelException exception = new IngestaoIndisponivelException(mensagemErro);
+
+        ResponseEntity<Map<String, String>> response = exceptionHandler.handleIngestaoIndisponivel(exception);
+
+        assertNotNull(response);
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.getStatusCode());
+        assertEquals("1", response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+        assertEquals(mensagemErro, response.getBody().get("erro"));
+    }
+
     @Test
     @DisplayName("Deve tratar EntityExistsException e retornar status 409")
     void deveTratar_EntityExistsException_E_Retornar_Status409() {
@@ -48,6 +48,22 @@ class PostTest {
         assertNotNull(post.getDataCriacao());
     }
 
+    @Test
+    @DisplayName("Deve renovar a data de atualização no preUpdate")
+    void deveRenovarDataAtualizacaoNoPreUpdate() {
+
+        Post post = new Post();
+        post.prePersist();
+        LocalDateTime criacao = post.getDataAtualizacao();
+
+        post.setDataAtualizacao(criacao.minusMinutes(1));
+        post.preUpdate();
+
+        assertNotNull(criacao);
+        assertFalse(post.getDataAtualizacao().isBefore(criacao));
+        assertEquals(0, post.getDataAtualizacao().getNano() % 1000);
+    }
+
     @ParameterizedTest
     @NullAndEmptySource
     @ValueSource(strings = {" ", "   ", "\t", "\n"})
@@ -0,0 +1,67 @@
+package com.sylviavitoria.blogpets.service;
+
+import com.sylviavitoria.blogpets.PostgresTeste;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.Period;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ArquivamentoPostsPostgresTest {
+
+    private static PostgresTeste banco;
+    private static JdbcTemplate jdbcTemplate;
+
+    @BeforeAll
+    static void iniciarBanco() {
+        banco = PostgresTeste.iniciar("arquivamento_teste");
+        banco.flyway(null).migrate();
+        jdbcTemplate = banco.jdbcTemplate();
+    }
+
+    @AfterAll
+    static void pararBanco() {
+        if (banco != null) {
+            banco.close();
+        }
+    }
+
+    @Test
+    @DisplayName("Deve criar as partições dos próximos meses com a retenção desligada")
+    void deveManterParticoesSemRetencao() throws Exception {
+
+        ConcurrentMapCacheManager cacheManager = new ConcurrentMapCacheManager();
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        ArquivamentoPostsService arquivamento = new ArquivamentoPostsService(banco.dataSource(),
+                new DataSourceTransactionManager(banco.dataSource()),
+                new CachePaginasPosts(cacheManager, meterRegistry, 3, List.of("titulo")), cacheManager, meterRegistry,
+                Period.ZERO, 1000, Duration.ZERO, 3, false, Duration.ofSeconds(5));
+        LocalDate daquiAUmAno = LocalDate.now().plusYears(1);
+
+        assertEquals(new ArquivamentoPostsService.Resultado(0, 0), arquivamento.arquivar(daquiAUmAno.atStartOfDay()));
+        assertThrows(DataAccessException.class, () -> inserirPost(1L, daquiAUmAno.atTime(12, 0)));
+
+        assertTrue(arquivamento.manterParticoes(daquiAUmAno));
+
+        inserirPost(1L, daquiAUmAno.atTime(12, 0));
+        inserirPost(2L, daquiAUmAno.plusMonths(3).atTime(12, 0));
+        assertEquals(2, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM posts", Integer.class));
+    }
+
+    private static void inserirPost(Long id, LocalDateTime dataCriacao) {
+        jdbcTemplate.update("INSERT INTO posts (id, titulo, autor, data_criacao, data_atualizacao, versao) "
+                + "VALUES (?, 'Post futuro', 'Autor', ?, ?, 0)", id, dataCriacao, dataCriacao);
+    }
+}
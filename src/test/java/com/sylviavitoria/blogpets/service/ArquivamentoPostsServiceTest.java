@@ -0,0 +1,86 @@
+package com.sylviavitoria.blogpets.service;
+
+import com.sylviavitoria.blogpets.dto.PostRequest;
+import com.sylviavitoria.blogpets.dto.PostResponse;
+import com.sylviavitoria.blogpets.exception.EntityNotFoundException;
+import com.sylviavitoria.blogpets.interfaces.IPost;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// No H2 posts não é particionada: o arquivamento cai direto na exclusão em blocos.
+@SpringBootTest(properties = {
+        "blogpets.arquivamento.retencao=365d",
+        "blogpets.arquivamento.tamanho-bloco=2",
+        "blogpets.arquivamento.pausa=0ms"
+})
+class ArquivamentoPostsServiceTest {
+
+    @Autowired
+    private ArquivamentoPostsService arquivamentoPostsService;
+
+    @Autowired
+    private IPost postService;
+
+    @Autowired
+    private CachePaginasPosts cachePaginasPosts;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    @DisplayName("Deve excluir em blocos só os posts criados antes da retenção")
+    void deveExcluirEmBlocosPostsAntigos() {
+
+        List<Long> antigos = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            PostResponse antigo = postService.criar(novoPost("Post antigo " + i));
+            jdbcTemplate.update("UPDATE posts SET data_criacao = ? WHERE id = ?",
+                    LocalDateTime.of(2001, 1, 1, 0, 0).plusDays(i), antigo.getId());
+            antigos.add(antigo.getId());
+        }
+        PostResponse recente = postService.criar(novoPost("Post recente"));
+        postService.bucarPorId(antigos.get(0));
+        long geracao = cachePaginasPosts.geracao();
+
+        ArquivamentoPostsService.Resultado resultado = arquivamentoPostsService.arquivar(LocalDateTime.now());
+
+        assertEquals(0, resultado.particoes());
+        assertEquals(5, resultado.posts());
+        for (Long id : antigos) {
+            assertThrows(EntityNotFoundException.class, () -> postService.bucarPorId(id));
+        }
+        assertEquals(recente.getId(), postService.bucarPorId(recente.getId()).getId());
+        assertTrue(cachePaginasPosts.geracao() > geracao);
+    }
+
+    @Test
+    @DisplayName("Deve ler o limite superior da partição a partir de pg_get_expr")
+    void deveLerLimiteSuperiorDaParticao() {
+
+        assertEquals(Optional.of(LocalDateTime.of(2024, 2, 1, 0, 0)), ArquivamentoPostsService.limiteSuperior(
+                "FOR VALUES FROM ('2024-01-01 00:00:00') TO ('2024-02-01 00:00:00')"));
+        assertEquals(Optional.of(LocalDateTime.of(2024, 2, 1, 0, 0)), ArquivamentoPostsService.limiteSuperior(
+                "FOR VALUES FROM ('2024-01-01') TO ('2024-02-01')"));
+        assertEquals(Optional.empty(), ArquivamentoPostsService.limiteSuperior(
+                "FOR VALUES FROM (MINVALUE) TO (MAXVALUE)"));
+        assertEquals(Optional.empty(), ArquivamentoPostsService.limiteSuperior("DEFAULT"));
+    }
+
+    private static PostRequest novoPost(String titulo) {
+        PostRequest postRequest = new PostRequest();
+        postRequest.setTitulo(titulo);
+        postRequest.setDescricao("Descrição do post usado no teste de arquivamento");
+        postRequest.setAutor("Autor Arquivamento");
+        return postRequest;
+    }
+}
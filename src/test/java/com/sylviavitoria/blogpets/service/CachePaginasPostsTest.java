@@ -0,0 +1,147 @@
+package com.sylviavitoria.blogpets.service;
+
+import com.sylviavitoria.blogpets.config.CacheConfig;
+import com.sylviavitoria.blogpets.dto.PostResponse;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CachePaginasPostsTest {
+
+    private CachePaginasPosts cache;
+    private AtomicInteger consultas;
+
+    @BeforeEach
+    void setUp() {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager(CacheConfig.PAGINAS_POSTS);
+        cache = new CachePaginasPosts(cacheManager, new SimpleMeterRegistry(), 3, List.of("titulo", "dataCriacao"));
+        consultas = new AtomicInteger();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private static Sort ordem(String especificacao) {
+        return OrdenacaoPosts.interpretar(especificacao);
+    }
+
+    private Supplier<Page<PostResponse>> carregar() {
+        return () -> {
+            consultas.incrementAndGet();
+            return new PageImpl<>(List.of(PostResponse.builder().id((long) consultas.get()).build()));
+        };
+    }
+
+    @Test
+    @DisplayName("Deve servir a mesma página do cache até a próxima escrita")
+    void deveServirPaginaDoCacheAteProximaEscrita() {
+
+        Page<PostResponse> primeira = cache.obter(0, 10, ordem(null), carregar());
+        Page<PostResponse> segunda = cache.obter(0, 10, ordem("titulo"), carregar());
+
+        assertSame(primeira, segunda);
+        assertEquals(1, consultas.get());
+
+        cache.registrarEscrita();
+        cache.obter(0, 10, ordem(null), carregar());
+
+        assertEquals(2, consultas.get());
+    }
+
+    @Test
+    @DisplayName("Deve compartilhar a entrada entre especificações equivalentes da mesma ordenação")
+    void deveCompartilharEntradaEntreOrdenacoesEquivalentes() {
+
+        Page<PostResponse> primeira = cache.obter(0, 10, ordem("titulo"), carregar());
+
+        assertSame(primeira, cache.obter(0, 10, ordem("+titulo"), carregar()));
+        assertSame(primeira, cache.obter(0, 10, ordem("titulo,id"), carregar()));
+        assertSame(primeira, cache.obter(0, 10, ordem(" titulo , +id"), carregar()));
+        assertEquals(1, consultas.get());
+    }
+
+    @Test
+    @DisplayName("Deve avançar a geração só depois do commit da transação")
+    void deveAvancarGeracaoSoDepoisDoCommit() {
+
+        TransactionSynchronizationManager.initSynchronization();
+        cache.registrarEscrita();
+
+        assertEquals(0, cache.geracao());
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        assertEquals(1, cache.geracao());
+    }
+
+    @Test
+    @DisplayName("Não deve cachear páginas profundas, ordenações fora da lista nem páginas grandes")
+    void naoDeveCachearPaginasForaDoPerfil() {
+
+        cache.obter(3, 10, ordem(null), carregar());
+        cache.obter(3, 10, ordem(null), carregar());
+        cache.obter(0, 10, ordem("autor"), carregar());
+        cache.obter(0, 10, ordem("autor"), carregar());
+        cache.obter(0, 500, ordem(null), carregar());
+        cache.obter(0, 500, ordem(null), carregar());
+
+        assertEquals(6, consultas.get());
+    }
+
+    @Test
+    @DisplayName("Deve consultar o banco uma única vez com leituras simultâneas da mesma página")
+    void deveConsultarUmaVezComLeiturasSimultaneas() throws Exception {
+
+        CountDownLatch liberar = new CountDownLatch(1);
+        Supplier<Page<PostResponse>> lento = () -> {
+            try {
+                liberar.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return carregar().get();
+        };
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Page<PostResponse>>> leituras = IntStream.range(0, 8)
+                    .mapToObj(i -> executor.submit(() -> cache.obter(0, 10, ordem("dataCriacao"), lento)))
+                    .toList();
+            Thread.sleep(100);
+            liberar.countDown();
+
+            Page<PostResponse> esperada = leituras.get(0).get(5, TimeUnit.SECONDS);
+            for (Future<Page<PostResponse>> leitura : leituras) {
+                assertSame(esperada, leitura.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(1, consultas.get());
+    }
+}
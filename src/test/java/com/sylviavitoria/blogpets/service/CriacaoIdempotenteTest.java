@@ -0,0 +1,148 @@
+package com.sylviavitoria.blogpets.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sylviavitoria.blogpets.dto.PostRequest;
+import com.sylviavitoria.blogpets.dto.PostResponse;
+import com.sylviavitoria.blogpets.exception.ChaveIdempotenciaReutilizadaException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "blogpets.idempotencia.ttl=1h")
+class CriacaoIdempotenteTest {
+
+    @Autowired
+    private CriacaoIdempotente criacaoIdempotente;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    @DisplayName("Deve devolver a resposta original na repetição sem criar outro post")
+    void deveDevolverRespostaOriginalNaRepeticao() {
+
+        String chave = UUID.randomUUID().toString();
+        PostRequest postRequest = novoPost("Post idempotente " + chave.substring(0, 8));
+
+        CriacaoIdempotente.Resultado primeira = criacaoIdempotente.criar(chave, postRequest);
+        CriacaoIdempotente.Resultado repeticao = criacaoIdempotente.criar(chave, postRequest);
+
+        assertFalse(primeira.repetida());
+        assertTrue(repeticao.repetida());
+        assertEquals(primeira.post(), repeticao.post());
+        assertEquals(1, postsComTitulo(postRequest.getTitulo()));
+        assertEquals(primeira.post().getId(), jdbcTemplate.queryForObject(
+                "SELECT post_id FROM chaves_idempotencia WHERE chave = ?", Long.class, chave));
+    }
+
+    @Test
+    @DisplayName("Deve recusar a mesma chave com outro conteúdo")
+    void deveRecusarChaveComOutroConteudo() {
+
+        String chave = UUID.randomUUID().toString();
+        criacaoIdempotente.criar(chave, novoPost("Post original da chave"));
+
+        assertThrows(ChaveIdempotenciaReutilizadaException.class,
+                () -> criacaoIdempotente.criar(chave, novoPost("Post diferente com a mesma chave")));
+        assertEquals(0, postsComTitulo("Post diferente com a mesma chave"));
+    }
+
+    @Test
+    @DisplayName("Deve criar um único post quando repetições chegam ao mesmo tempo")
+    void deveCriarUmUnicoPostComRepeticoesSimultaneas() throws Exception {
+
+        String chave = UUID.randomUUID().toString();
+        PostRequest postRequest = novoPost("Post simultâneo " + chave.substring(0, 8));
+        int requisicoes = 8;
+        CountDownLatch largada = new CountDownLatch(1);
+        List<Future<CriacaoIdempotente.Resultado>> resultados = new ArrayList<>();
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(requisicoes)) {
+            for (int i = 0; i < requisicoes; i++) {
+                resultados.add(executor.submit(() -> {
+                    largada.await();
+                    return criacaoIdempotente.criar(chave, postRequest);
+                }));
+            }
+            largada.countDown();
+
+            Long id = resultados.get(0).get().post().getId();
+            long originais = 0;
+            for (Future<CriacaoIdempotente.Resultado> resultado : resultados) {
+                assertEquals(id, resultado.get().post().getId());
+                originais += resultado.get().repetida() ? 0 : 1;
+            }
+            assertEquals(1, originais);
+        }
+        assertEquals(1, postsComTitulo(postRequest.getTitulo()));
+    }
+
+    @Test
+    @DisplayName("Deve devolver a resposta gravada por outra instância e ignorar chaves vencidas")
+    void deveUsarRespostaGravadaEIgnorarChaveVencida() throws Exception {
+
+        PostRequest postRequest = novoPost("Post gravado por outra instância");
+        PostResponse gravado = PostResponse.builder()
+                .id(987654L)
+                .titulo(postRequest.getTitulo())
+                .descricao(postRequest.getDescricao())
+                .autor(postRequest.getAutor())
+                .dataAtualizacao(LocalDateTime.of(2024, 5, 10, 14, 30))
+                .versao(0L)
+                .build();
+        String vigente = UUID.randomUUID().toString();
+        String vencida = UUID.randomUUID().toString();
+        String hash = CriacaoIdempotente.hash(postRequest);
+        inserirChave(vigente, hash, gravado, LocalDateTime.now().minusMinutes(5));
+        inserirChave(vencida, hash, gravado, LocalDateTime.now().minusHours(2));
+
+        CriacaoIdempotente.Resultado repeticao = criacaoIdempotente.criar(vigente, postRequest);
+        assertTrue(repeticao.repetida());
+        assertEquals(gravado, repeticao.post());
+
+        CriacaoIdempotente.Resultado nova = criacaoIdempotente.criar(vencida, postRequest);
+        assertFalse(nova.repetida());
+        assertNotEquals(gravado.getId(), nova.post().getId());
+
+        jdbcTemplate.update("UPDATE chaves_idempotencia SET data_criacao = ? WHERE chave = ?",
+                LocalDateTime.now().minusHours(2), vigente);
+        criacaoIdempotente.limparVencidas();
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM chaves_idempotencia WHERE chave = ?", Integer.class, vigente));
+        assertEquals(1, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM chaves_idempotencia WHERE chave = ?", Integer.class, vencida));
+    }
+
+    private void inserirChave(String chave, String hash, PostResponse resposta, LocalDateTime dataCriacao) throws Exception {
+        jdbcTemplate.update("INSERT INTO chaves_idempotencia (chave, hash_requisicao, post_id, resposta, data_criacao) "
+                + "VALUES (?, ?, ?, ?, ?)", chave, hash, resposta.getId(), objectMapper.writeValueAsString(resposta), dataCriacao);
+    }
+
+    private int postsComTitulo(String titulo) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM posts WHERE titulo = ?", Integer.class, titulo);
+    }
+
+    private static PostRequest novoPost(String titulo) {
+        PostRequest postRequest = new PostRequest();
+        postRequest.setTitulo(titulo);
+        postRequest.setDescricao("Descrição do post usado no teste de idempotência");
+        postRequest.setAutor("Autor Idempotência");
+        return postRequest;
+    }
+}
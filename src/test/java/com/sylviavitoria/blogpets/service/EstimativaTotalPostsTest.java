@@ -0,0 +1,55 @@
+package com.sylviavitoria.blogpets.service;
+
+import com.sylviavitoria.blogpets.repository.PostRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class EstimativaTotalPostsTest {
+
+    @Mock
+    private PostRepository postRepository;
+
+    @InjectMocks
+    private EstimativaTotalPosts estimativaTotalPosts;
+
+    @Test
+    @DisplayName("Deve usar a contagem exata quando as estatísticas estiverem desabilitadas")
+    void deveUsarContagemExataPorPadrao() {
+
+        when(postRepository.count()).thenReturn(42L);
+
+        assertEquals(42L, estimativaTotalPosts.estimar());
+        verify(postRepository, never()).estimarTotalPorEstatisticas();
+    }
+
+    @Test
+    @DisplayName("Deve usar as estatísticas do planner quando habilitadas")
+    void deveUsarEstatisticasDoPlanner() {
+
+        ReflectionTestUtils.setField(estimativaTotalPosts, "usarEstatisticas", true);
+        when(postRepository.estimarTotalPorEstatisticas()).thenReturn(1_000_000L);
+
+        assertEquals(1_000_000L, estimativaTotalPosts.estimar());
+        verify(postRepository, never()).count();
+    }
+
+    @Test
+    @DisplayName("Deve recorrer à contagem exata quando a tabela ainda não tiver estatísticas")
+    void deveRecorrerAContagemSemEstatisticas() {
+
+        ReflectionTestUtils.setField(estimativaTotalPosts, "usarEstatisticas", true);
+        when(postRepository.estimarTotalPorEstatisticas()).thenReturn(-1L);
+        when(postRepository.count()).thenReturn(7L);
+
+        assertEquals(7L, estimativaTotalPosts.estimar());
+    }
+}
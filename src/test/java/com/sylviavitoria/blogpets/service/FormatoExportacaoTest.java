@@ -0,0 +1,35 @@
+package com.sylviavitoria.blogpets.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FormatoExportacaoTest {
+
+    @Test
+    @DisplayName("Deve reconhecer o formato sem diferenciar maiúsculas")
+    void deveReconhecerFormato() {
+
+        assertEquals(FormatoExportacao.CSV, FormatoExportacao.de("csv"));
+        assertEquals(FormatoExportacao.NDJSON, FormatoExportacao.de(" NDJSON "));
+    }
+
+    @Test
+    @DisplayName("Deve usar NDJSON quando o formato não for informado")
+    void deveUsarNdjsonPorPadrao() {
+
+        assertEquals(FormatoExportacao.NDJSON, FormatoExportacao.de(null));
+        assertEquals(FormatoExportacao.NDJSON, FormatoExportacao.de(""));
+    }
+
+    @Test
+    @DisplayName("Deve lançar exceção para formato desconhecido")
+    void deveLancarExcecaoParaFormatoDesconhecido() {
+
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> FormatoExportacao.de("xml"));
+
+        assertEquals("Formato de exportação inválido: xml", exception.getMessage());
+    }
+}
@@ -0,0 +1,240 @@
+package com.sylviavitoria.blogpets.service;
+
+import com.sylviavitoria.blogpets.dto.IngestaoResponse;
+import com.sylviavitoria.blogpets.dto.PostRequest;
+import com.sylviavitoria.blogpets.dto.PostResponse;
+import com.sylviavitoria.blogpets.exception.EntityNotFoundException;
+import com.sylviavitoria.blogpets.exception.IngestaoIndisponivelException;
+import com.sylviavitoria.blogpets.mapper.PostMapper;
+import com.sylviavitoria.blogpets.model.Post;
+import com.sylviavitoria.blogpets.repository.PostRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class IngestaoPostServiceTest {
+
+    @Mock
+    private PostRepository postRepository;
+
+    @Mock
+    private PostMapper postMapper;
+
+    @Mock
+    private CachePaginasPosts cachePaginasPosts;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private MeterRegistry meterRegistry;
+    private IngestaoPostService ingestao;
+    private final AtomicLong ids = new AtomicLong();
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        when(transactionManager.getTransaction(any())).thenReturn(mock(TransactionStatus.class));
+        when(postRepository.saveAll(anyList())).thenAnswer(invocacao -> {
+            List<Post> posts = invocacao.getArgument(0);
+            posts.forEach(post -> post.setId(ids.incrementAndGet()));
+            return posts;
+        });
+        when(postRepository.save(any(Post.class))).thenAnswer(invocacao -> {
+            Post post = invocacao.getArgument(0);
+            post.setId(ids.incrementAndGet());
+            return post;
+        });
+        when(postMapper.toResponse(any(Post.class))).thenAnswer(invocacao -> {
+            Post post = invocacao.getArgument(0);
+            return PostResponse.builder().id(post.getId()).titulo(post.getTitulo()).build();
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (ingestao != null) {
+            ingestao.stop();
+        }
+    }
+
+    private IngestaoPostService ingestao(int capacidadeFila, int tamanhoGrupo, Duration janela) {
+        return ingestao(capacidadeFila, tamanhoGrupo, janela, Duration.ofSeconds(10));
+    }
+
+    private IngestaoPostService ingestao(int capacidadeFila, int tamanhoGrupo, Duration janela, Duration tempoDrenagem) {
+        ingestao = new IngestaoPostService(postRepository, postMapper, cachePaginasPosts, transactionManager, meterRegistry,
+                capacidadeFila, tamanhoGrupo, janela, Duration.ofMinutes(10), tempoDrenagem);
+        return ingestao;
+    }
+
+    private static PostRequest postRequest(String titulo) {
+        PostRequest postRequest = new PostRequest();
+        postRequest.setTitulo(titulo);
+        postRequest.setDescricao("Descrição do post " + titulo + " enviado para a fila");
+        postRequest.setAutor("Autor Teste");
+        return postRequest;
+    }
+
+    private IngestaoResponse aguardarConclusao(String ticket) throws InterruptedException {
+        long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        IngestaoResponse situacao = ingestao.consultar(ticket);
+        while (IngestaoResponse.PENDENTE.equals(situacao.getStatus()) && System.nanoTime() < limite) {
+            Thread.sleep(10);
+            situacao = ingestao.consultar(ticket);
+        }
+        return situacao;
+    }
+
+    @Test
+    @DisplayName("Deve gravar os posts enfileirados em um único commit por grupo")
+    void deveGravarPostsEmGrupo() throws Exception {
+
+        IngestaoPostService servico = ingestao(100, 3, Duration.ofSeconds(2));
+        servico.start();
+
+        List<String> tickets = List.of(
+                servico.enfileirar(postRequest("Cuidados com gatos")).getTicket(),
+                servico.enfileirar(postRequest("Passeios com cães")).getTicket(),
+                servico.enfileirar(postRequest("Alimentação de aves")).getTicket());
+
+        for (String ticket : tickets) {
+            IngestaoResponse situacao = aguardarConclusao(ticket);
+            assertEquals(IngestaoResponse.CRIADO, situacao.getStatus());
+            assertNotNull(situacao.getPost().getId());
+        }
+        verify(postRepository, times(1)).saveAll(anyList());
+        verify(transactionManager, times(1)).commit(any());
+        assertEquals(3.0, meterRegistry.get("blogpets.ingestao.grupo").summary().totalAmount());
+    }
+
+    @Test
+    @DisplayName("Deve regravar item a item quando o commit do grupo falhar")
+    void deveRegravarItemAItemQuandoGrupoFalhar() throws Exception {
+
+        when(postRepository.saveAll(anyList())).thenThrow(new DataIntegrityViolationException("violação"));
+        when(postRepository.save(argThat(post -> post != null && "Passeios com cães".equals(post.getTitulo()))))
+                .thenThrow(new DataIntegrityViolationException("título duplicado"));
+
+        IngestaoPostService servico = ingestao(100, 2, Duration.ofSeconds(2));
+        servico.start();
+
+        String gatos = servico.enfileirar(postRequest("Cuidados com gatos")).getTicket();
+        String caes = servico.enfileirar(postRequest("Passeios com cães")).getTicket();
+
+        assertEquals(IngestaoResponse.CRIADO, aguardarConclusao(gatos).getStatus());
+        IngestaoResponse falha = aguardarConclusao(caes);
+        assertEquals(IngestaoResponse.FALHOU, falha.getStatus());
+        assertEquals("título duplicado", falha.getErro());
+        verify(postRepository, times(2)).save(any(Post.class));
+    }
+
+    @Test
+    @DisplayName("Deve recusar novos posts quando a fila estiver cheia")
+    void deveRecusarQuandoFilaEstiverCheia() throws Exception {
+
+        CountDownLatch gravando = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+        when(postRepository.saveAll(anyList())).thenAnswer(invocacao -> {
+            gravando.countDown();
+            liberar.await(5, TimeUnit.SECONDS);
+            return invocacao.getArgument(0);
+        });
+
+        IngestaoPostService servico = ingestao(1, 1, Duration.ZERO);
+        servico.start();
+
+        servico.enfileirar(postRequest("Cuidados com gatos"));
+        assertTrue(gravando.await(5, TimeUnit.SECONDS));
+        servico.enfileirar(postRequest("Passeios com cães"));
+
+        assertThrows(IngestaoIndisponivelException.class, () -> servico.enfileirar(postRequest("Alimentação de aves")));
+        assertEquals(1.0, meterRegistry.get("blogpets.ingestao.recusados").counter().count());
+        liberar.countDown();
+    }
+
+    @Test
+    @DisplayName("Deve gravar a fila inteira ao encerrar e recusar posts depois disso")
+    void deveDrenarFilaAoEncerrar() {
+
+        IngestaoPostService servico = ingestao(100, 100, Duration.ofSeconds(30));
+        servico.start();
+
+        List<String> tickets = List.of(
+                servico.enfileirar(postRequest("Cuidados com gatos")).getTicket(),
+                servico.enfileirar(postRequest("Passeios com cães")).getTicket());
+
+        servico.stop();
+
+        tickets.forEach(ticket -> assertEquals(IngestaoResponse.CRIADO, servico.consultar(ticket).getStatus()));
+        assertFalse(servico.isRunning());
+        assertThrows(IngestaoIndisponivelException.class, () -> servico.enfileirar(postRequest("Alimentação de aves")));
+    }
+
+    @Test
+    @DisplayName("Deve marcar como falha os posts não gravados e interromper o escritor quando a drenagem expirar")
+    void deveMarcarFalhaQuandoDrenagemExpirar() throws Exception {
+
+        CountDownLatch gravando = new CountDownLatch(1);
+        CountDownLatch interrompido = new CountDownLatch(1);
+        when(postRepository.saveAll(anyList())).thenAnswer(invocacao -> {
+            gravando.countDown();
+            try {
+                new CountDownLatch(1).await(30, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                interrompido.countDown();
+                throw e;
+            }
+            return invocacao.getArgument(0);
+        });
+
+        IngestaoPostService servico = ingestao(100, 1, Duration.ZERO, Duration.ofMillis(200));
+        servico.start();
+
+        String gravandoTicket = servico.enfileirar(postRequest("Cuidados com gatos")).getTicket();
+        assertTrue(gravando.await(5, TimeUnit.SECONDS));
+        String naFila = servico.enfileirar(postRequest("Passeios com cães")).getTicket();
+
+        servico.stop();
+
+        assertTrue(interrompido.await(5, TimeUnit.SECONDS));
+        assertEquals(IngestaoResponse.FALHOU, servico.consultar(naFila).getStatus());
+        assertEquals("A ingestão foi encerrada antes de gravar o post", servico.consultar(naFila).getErro());
+        assertEquals(IngestaoResponse.FALHOU, aguardarConclusao(gravandoTicket).getStatus());
+        verify(postRepository, never()).save(any(Post.class));
+        assertFalse(servico.isRunning());
+    }
+
+    @Test
+    @DisplayName("Deve lançar exceção ao consultar ticket desconhecido")
+    void deveLancarExcecaoParaTicketDesconhecido() {
+
+        IngestaoPostService servico = ingestao(10, 10, Duration.ZERO);
+
+        EntityNotFoundException exception = assertThrows(EntityNotFoundException.class,
+                () -> servico.consultar("inexistente"));
+        assertEquals("Ticket de ingestão não encontrado: inexistente", exception.getMessage());
+    }
+}
@@ -0,0 +1,82 @@
+package com.sylviavitoria.blogpets.service;
+
+import org.flywaydb.core.Flyway;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.data.domain.Sort;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrdenacaoPostsTest {
+
+    @Test
+    @DisplayName("Deve ordenar por título e ID quando a ordenação não for informada")
+    void deveUsarTituloPorPadrao() {
+
+        assertEquals(Sort.by("titulo", "id"), OrdenacaoPosts.interpretar(null));
+        assertEquals(Sort.by("titulo", "id"), OrdenacaoPosts.interpretar(""));
+    }
+
+    @Test
+    @DisplayName("Deve desempatar pelo ID na direção do último campo")
+    void deveDesempatarPeloIdNaDirecaoDoUltimoCampo() {
+
+        assertEquals(Sort.by(Sort.Order.desc("dataCriacao"), Sort.Order.desc("id")),
+                OrdenacaoPosts.interpretar("-dataCriacao"));
+        assertEquals(Sort.by(Sort.Order.asc("autor"), Sort.Order.desc("dataCriacao"), Sort.Order.desc("id")),
+                OrdenacaoPosts.interpretar("autor,-dataCriacao"));
+        assertEquals(Sort.by(Sort.Order.desc("autor"), Sort.Order.asc("dataCriacao"), Sort.Order.asc("id")),
+                OrdenacaoPosts.interpretar("-autor, +dataCriacao"));
+        assertEquals(Sort.by(Sort.Order.desc("id")), OrdenacaoPosts.interpretar("-id"));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"descricao", "versao", "titulo,autor", "autor,dataCriacao", "titulo,titulo", "titulo,", "-", "dataCriacao,-id"})
+    @DisplayName("Deve rejeitar campos e combinações sem índice")
+    void deveRejeitarOrdenacaoSemIndice(String especificacao) {
+
+        IllegalArgumentException erro = assertThrows(IllegalArgumentException.class,
+                () -> OrdenacaoPosts.interpretar(especificacao));
+        assertTrue(erro.getMessage().startsWith("Ordenação inválida"));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"titulo", "-titulo", "autor", "-autor", "dataCriacao", "-dataCriacao",
+            "dataAtualizacao", "-dataAtualizacao", "id", "-id", "autor,-dataCriacao", "-autor,dataCriacao"})
+    @DisplayName("Deve ler cada ordenação aceita direto de um índice, sem ordenar a tabela")
+    void deveUsarIndiceEmCadaOrdenacaoAceita(String especificacao) throws Exception {
+
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:ordenacao;DB_CLOSE_DELAY=-1");
+        Flyway.configure()
+                .dataSource(dataSource)
+                .locations("classpath:db/migration", "classpath:db/vendor/h2")
+                .load()
+                .migrate();
+
+        String ordem = OrdenacaoPosts.interpretar(especificacao).stream()
+                .map(o -> o.getProperty().replaceAll("([A-Z])", "_$1").toLowerCase() + " " + o.getDirection())
+                .collect(Collectors.joining(", "));
+
+        try (Connection conexao = dataSource.getConnection(); Statement statement = conexao.createStatement()) {
+            statement.execute("DELETE FROM posts");
+            statement.execute("INSERT INTO posts (id, titulo, autor, data_criacao, data_atualizacao, versao) "
+                    + "SELECT X, CONCAT('Post ', X), CONCAT('Autor ', MOD(X, 10)), "
+                    + "DATEADD(SECOND, X, TIMESTAMP '2024-01-01 00:00:00'), DATEADD(SECOND, X, TIMESTAMP '2024-01-01 00:00:00'), 0 "
+                    + "FROM SYSTEM_RANGE(1, 1000)");
+            statement.execute("ANALYZE TABLE posts");
+            try (ResultSet plano = statement.executeQuery("EXPLAIN SELECT * FROM posts ORDER BY " + ordem + " OFFSET 20 ROWS FETCH NEXT 10 ROWS ONLY")) {
+                plano.next();
+                assertTrue(plano.getString(1).contains("/* index sorted */"), plano.getString(1));
+            }
+        }
+    }
+}
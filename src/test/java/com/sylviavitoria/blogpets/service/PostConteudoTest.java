@@ -0,0 +1,183 @@
+package com.sylviavitoria.blogpets.service;
+
+import com.sylviavitoria.blogpets.dto.PostRequest;
+import com.sylviavitoria.blogpets.dto.PostResponse;
+import com.sylviavitoria.blogpets.interfaces.IPost;
+import com.sylviavitoria.blogpets.model.Post;
+import com.sylviavitoria.blogpets.repository.PostRepository;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "com.sylviavitoria.blogpets.service.PostConteudoTest$Comandos")
+class PostConteudoTest {
+
+    private static final int ESCRITAS_SIMULTANEAS = 4;
+
+    public static class Comandos implements StatementInspector {
+
+        static final List<String> EXECUTADOS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            EXECUTADOS.add(sql.toLowerCase(Locale.ROOT));
+            return sql;
+        }
+
+        static long consultasAoConteudo() {
+            return EXECUTADOS.stream()
+                    .filter(sql -> sql.trim().startsWith("select") && sql.contains("post_conteudo"))
+                    .count();
+        }
+    }
+
+    @Autowired
+    private IPost postService;
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void limparComandos() {
+        Comandos.EXECUTADOS.clear();
+    }
+
+    @Test
+    @DisplayName("Deve carregar o Post sem ler a descrição até que ela seja usada")
+    void deveCarregarDescricaoSobDemanda() {
+
+        PostResponse criado = postService.criar(novoPost("Post com conteúdo separado"));
+        Comandos.EXECUTADOS.clear();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            Post post = postRepository.findById(criado.getId()).orElseThrow();
+            assertEquals("Post com conteúdo separado", post.getTitulo());
+            assertEquals(0, Comandos.consultasAoConteudo());
+
+            assertEquals(criado.getDescricao(), post.getDescricao());
+            assertEquals(1, Comandos.consultasAoConteudo());
+        });
+    }
+
+    @Test
+    @DisplayName("Deve carregar as descrições de uma página com uma única consulta")
+    void deveCarregarDescricoesDaPaginaEmLote() {
+
+        for (int i = 0; i < 5; i++) {
+            postService.criar(novoPost("Post em lote " + i));
+        }
+        Comandos.EXECUTADOS.clear();
+
+        List<PostResponse> pagina = postService.listarPorCursor(null, 5, "titulo").getContent();
+
+        assertEquals(5, pagina.size());
+        pagina.forEach(post -> assertNotNull(post.getDescricao()));
+        assertEquals(1, Comandos.consultasAoConteudo());
+    }
+
+    @Test
+    @DisplayName("Deve versionar a alteração só da descrição e excluir o conteúdo com o post")
+    void deveVersionarDescricaoEExcluirConteudo() {
+
+        PostResponse criado = postService.criar(novoPost("Post que muda de descrição"));
+
+        PostResponse alterado = postService.atualizarParcialmente(criado.getId(),
+                Map.of("descricao", "Descrição nova gravada só em post_conteudo"), criado.getVersao());
+
+        assertEquals(criado.getVersao() + 1, alterado.getVersao());
+        assertEquals("Descrição nova gravada só em post_conteudo", postService.bucarPorId(criado.getId()).getDescricao());
+
+        postService.excluir(criado.getId(), alterado.getVersao());
+
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM post_conteudo WHERE post_id = ?",
+                Integer.class, criado.getId()));
+    }
+
+    @Test
+    @DisplayName("Deve gravar a descrição do PUT só quando ela muda e recriar o conteúdo ausente")
+    void deveGravarDescricaoSoQuandoMuda() {
+
+        PostResponse criado = postService.criar(novoPost("Post atualizado por PUT"));
+        Long id = criado.getId();
+
+        assertEquals(Integer.valueOf(0), transactionTemplate.execute(status -> postRepository.gravarDescricao(id, criado.getDescricao())));
+        assertEquals(Integer.valueOf(1), transactionTemplate.execute(status -> postRepository.gravarDescricao(id, "Descrição trocada")));
+
+        jdbcTemplate.update("DELETE FROM post_conteudo WHERE post_id = ?", id);
+        PostRequest postRequest = novoPost("Post atualizado por PUT");
+        postRequest.setDescricao("Descrição gravada de novo pelo PUT");
+        postService.atualizar(id, postRequest, criado.getVersao());
+
+        assertEquals("Descrição gravada de novo pelo PUT", jdbcTemplate.queryForObject(
+                "SELECT descricao FROM post_conteudo WHERE post_id = ?", String.class, id));
+    }
+
+    @Test
+    @DisplayName("Deve sobrescrever sem versão (If-Match: *) mesmo com escritas simultâneas")
+    void deveSobrescreverSemConflitoComEscritasSimultaneas() throws Exception {
+
+        PostResponse criado = postService.criar(novoPost("Post sobrescrito em paralelo"));
+        Long id = criado.getId();
+        ExecutorService executor = Executors.newFixedThreadPool(ESCRITAS_SIMULTANEAS);
+        CountDownLatch largada = new CountDownLatch(1);
+        try {
+            List<Future<PostResponse>> escritas = new ArrayList<>();
+            for (int i = 0; i < ESCRITAS_SIMULTANEAS; i++) {
+                PostRequest postRequest = novoPost("Post sobrescrito em paralelo");
+                postRequest.setDescricao("Descrição gravada pela escrita " + i);
+                escritas.add(executor.submit(() -> {
+                    assertTrue(largada.await(5, TimeUnit.SECONDS));
+                    return postService.atualizar(id, postRequest, null);
+                }));
+            }
+            largada.countDown();
+
+            Set<Long> versoes = new HashSet<>();
+            for (Future<PostResponse> escrita : escritas) {
+                versoes.add(escrita.get(10, TimeUnit.SECONDS).getVersao());
+            }
+            assertEquals(ESCRITAS_SIMULTANEAS, versoes.size());
+            assertEquals(Long.valueOf(criado.getVersao() + ESCRITAS_SIMULTANEAS), Collections.max(versoes));
+            assertEquals(Collections.max(versoes), jdbcTemplate.queryForObject(
+                    "SELECT versao FROM posts WHERE id = ?", Long.class, id));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static PostRequest novoPost(String titulo) {
+        PostRequest postRequest = new PostRequest();
+        postRequest.setTitulo(titulo);
+        postRequest.setDescricao("Descrição guardada na tabela post_conteudo");
+        postRequest.setAutor("Autor Conteúdo");
+        return postRequest;
+    }
+}
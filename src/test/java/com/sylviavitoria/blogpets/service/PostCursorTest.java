@@ -0,0 +1,80 @@
+package com.sylviavitoria.blogpets.service;
+
+import com.sylviavitoria.blogpets.model.Post;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PostCursorTest {
+
+    @Test
+    @DisplayName("Deve codificar e decodificar o cursor mantendo campo, valor e ID")
+    void deveCodificarEDecodificarCursor() {
+
+        PostCursor original = new PostCursor("titulo", "Gatos: cuidados básicos", 42L);
+
+        PostCursor decodificado = PostCursor.decodificar(original.codificar());
+
+        assertEquals(original, decodificado);
+    }
+
+    @Test
+    @DisplayName("Deve criar cursor de data a partir do último post da página")
+    void deveCriarCursorDeDataAPartirDoPost() {
+
+        Post post = new Post();
+        post.setId(7L);
+        post.setDataCriacao(LocalDateTime.of(2024, 5, 10, 14, 30, 15));
+
+        PostCursor cursor = PostCursor.decodificar(PostCursor.aPartirDe("dataCriacao", post).codificar());
+
+        assertEquals("dataCriacao", cursor.campo());
+        assertEquals(7L, cursor.id());
+        assertEquals(post.getDataCriacao(), cursor.valorComoData());
+    }
+
+    @Test
+    @DisplayName("Deve usar titulo como campo padrão quando a ordenação não for informada")
+    void deveUsarTituloComoCampoPadrao() {
+
+        assertEquals("titulo", PostCursor.validarCampo(null));
+        assertEquals("titulo", PostCursor.validarCampo(""));
+    }
+
+    @Test
+    @DisplayName("Deve lançar exceção para campo de ordenação não suportado")
+    void deveLancarExcecaoParaCampoNaoSuportado() {
+
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> PostCursor.validarCampo("descricao"));
+
+        assertEquals("Campo de ordenação inválido para cursor: descricao", exception.getMessage());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"@@@", "dGl0dWxv", "ZGVzY3JpY2FvOjE6eA", "dGl0dWxvOmFiYzp4"})
+    @DisplayName("Deve lançar exceção para cursor malformado")
+    void deveLancarExcecaoParaCursorMalformado(String cursor) {
+
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> PostCursor.decodificar(cursor));
+
+        assertEquals("Cursor inválido", exception.getMessage());
+    }
+
+    @Test
+    @DisplayName("Deve lançar exceção para cursor de data com valor inválido")
+    void deveLancarExcecaoParaCursorDeDataInvalido() {
+
+        String cursor = Base64.getUrlEncoder().encodeToString("dataCriacao:1:ontem".getBytes(StandardCharsets.UTF_8));
+
+        assertThrows(IllegalArgumentException.class, () -> PostCursor.decodificar(cursor));
+    }
+}
@@ -0,0 +1,155 @@
+package com.sylviavitoria.blogpets.service;
+
+import com.sylviavitoria.blogpets.PostgresTeste;
+import com.sylviavitoria.blogpets.dto.PostRequest;
+import com.sylviavitoria.blogpets.dto.PostResponse;
+import com.sylviavitoria.blogpets.interfaces.IPost;
+import com.sylviavitoria.blogpets.repository.PostRepository;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Confere pelo EXPLAIN ANALYZE dos comandos gerados pelo Hibernate que as operações por id leem só
+// a partição do post, com posts particionada em vários meses.
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "com.sylviavitoria.blogpets.service.PostParticionadoPostgresTest$Comandos",
+        "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=WARN"
+})
+@ActiveProfiles("postgres")
+@DirtiesContext
+class PostParticionadoPostgresTest {
+
+    public static class Comandos implements StatementInspector {
+
+        static final List<String> EXECUTADOS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            EXECUTADOS.add(sql);
+            return sql;
+        }
+
+        static String ultimoEmPosts() {
+            return EXECUTADOS.stream()
+                    .filter(sql -> sql.toLowerCase(Locale.ROOT).matches("(?s).*\\bposts\\b.*"))
+                    .reduce((primeiro, segundo) -> segundo)
+                    .orElseThrow();
+        }
+    }
+
+    private static PostgresTeste banco;
+
+    @Autowired
+    private IPost postService;
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeAll
+    static void iniciarBanco() {
+        banco = PostgresTeste.iniciar("particionado_teste");
+    }
+
+    @AfterAll
+    static void pararBanco() {
+        if (banco != null) {
+            banco.close();
+        }
+    }
+
+    @DynamicPropertySource
+    static void apontarParaBanco(DynamicPropertyRegistry registro) {
+        registro.add("spring.datasource.url", () -> banco.url());
+        registro.add("spring.datasource.username", () -> banco.usuario());
+        registro.add("spring.datasource.password", () -> banco.senha());
+        registro.add("spring.flyway.schemas", () -> banco.schema());
+    }
+
+    @BeforeEach
+    void criarParticoesAntigas() {
+        banco.jdbcTemplate().queryForList("SELECT criar_particao_posts(CAST(mes AS DATE)) "
+                + "FROM generate_series(DATE '2020-01-01', DATE '2021-12-01', INTERVAL '1 month') AS mes");
+        Comandos.EXECUTADOS.clear();
+    }
+
+    @Test
+    @DisplayName("Deve ler, conferir e excluir um post por id só na partição dele")
+    void deveUsarSoAParticaoDoPostNasOperacoesPorId() {
+
+        Long id = postService.criar(novoPost()).getId();
+        Long outro = postService.criar(novoPost()).getId();
+
+        assertTrue(transactionTemplate.execute(status -> postRepository.findById(id)).isPresent());
+        assertEquals(1, particoesLidas(Comandos.ultimoEmPosts(), id));
+        assertTrue(postRepository.existsById(id));
+        assertEquals(1, particoesLidas(Comandos.ultimoEmPosts(), id));
+        assertEquals(0L, postRepository.buscarVersao(id).orElseThrow().getVersao());
+        assertEquals(1, particoesLidas(Comandos.ultimoEmPosts(), id));
+
+        PostResponse atualizado = postService.atualizarParcialmente(id, Map.of("titulo", "Título pelo PATCH"), 0L);
+        assertEquals(1L, atualizado.getVersao());
+        String update = Comandos.EXECUTADOS.stream()
+                .filter(sql -> sql.toLowerCase(Locale.ROOT).startsWith("update posts"))
+                .findFirst()
+                .orElseThrow();
+        assertTrue(update.toLowerCase(Locale.ROOT).contains("data_criacao=?"), update);
+
+        Comandos.EXECUTADOS.clear();
+        postService.excluir(id, 1L);
+        String delete = Comandos.EXECUTADOS.stream()
+                .filter(sql -> sql.toLowerCase(Locale.ROOT).startsWith("delete from posts"))
+                .findFirst()
+                .orElseThrow();
+        assertFalse(postRepository.existsById(id));
+        assertEquals(0, banco.jdbcTemplate().queryForObject(
+                "SELECT COUNT(*) FROM post_criacao WHERE post_id = ?", Integer.class, id));
+        assertEquals(1, particoesLidas(delete, outro));
+    }
+
+    // Partições de posts em que o executor chegou a procurar o id; as descartadas na execução
+    // aparecem como "never executed". O comando roda dentro de uma transação desfeita ao final.
+    private int particoesLidas(String sql, Long id) {
+        Object[] parametros = new Object[(int) sql.chars().filter(c -> c == '?').count()];
+        Arrays.fill(parametros, id);
+        List<String> plano = new TransactionTemplate(new DataSourceTransactionManager(banco.dataSource()))
+                .execute(status -> {
+                    status.setRollbackOnly();
+                    return banco.jdbcTemplate().queryForList("EXPLAIN (ANALYZE, COSTS OFF) " + sql, String.class, parametros);
+                });
+        return (int) plano.stream()
+                .filter(linha -> linha.contains("Scan") && linha.contains(" on posts_p") && !linha.contains("never executed"))
+                .count();
+    }
+
+    private static PostRequest novoPost() {
+        PostRequest postRequest = new PostRequest();
+        postRequest.setTitulo("Post particionado");
+        postRequest.setDescricao("Descrição do post usado no teste de partições");
+        postRequest.setAutor("Autor Partição");
+        return postRequest;
+    }
+}
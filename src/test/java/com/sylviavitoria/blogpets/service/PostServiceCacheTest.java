@@ -0,0 +1,237 @@
+package com.sylviavitoria.blogpets.service;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.sylviavitoria.blogpets.config.CacheConfig;
+import com.sylviavitoria.blogpets.dto.PostRequest;
+import com.sylviavitoria.blogpets.dto.PostResponse;
+import com.sylviavitoria.blogpets.interfaces.IPost;
+import com.sylviavitoria.blogpets.model.Post;
+import com.sylviavitoria.blogpets.repository.PostRepository;
+import com.sylviavitoria.blogpets.repository.PostVersao;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@SpringBootTest
+class PostServiceCacheTest {
+
+    @MockitoBean
+    private PostRepository postRepository;
+
+    @Autowired
+    private IPost postService;
+
+    @MockitoSpyBean
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    private static final int LEITURAS_SIMULTANEAS = 8;
+
+    private Post post;
+
+    @BeforeEach
+    void setup() {
+        cacheManager.getCache(CacheConfig.POSTS_POR_ID).clear();
+        cacheManager.getCache(CacheConfig.PAGINAS_POSTS).clear();
+
+        post = new Post();
+        post.setId(1L);
+        post.setTitulo("Como cuidar de gatos");
+        post.setDescricao("Dicas para cuidar adequadamente do seu felino");
+        post.setAutor("Maria Silva");
+        post.setDataCriacao(LocalDateTime.now());
+
+        when(postRepository.findById(1L)).thenReturn(Optional.of(post));
+    }
+
+    @Test
+    @DisplayName("Deve servir leituras repetidas do cache sem consultar o repositório")
+    void deveServirLeiturasRepetidasDoCache() {
+
+        PostResponse primeira = postService.bucarPorId(1L);
+        PostResponse segunda = postService.bucarPorId(1L);
+
+        assertEquals(primeira, segunda);
+        verify(postRepository, times(1)).findById(1L);
+
+        CacheStats stats = caffeine().stats();
+        assertEquals(1, stats.hitCount());
+        assertEquals(1, stats.missCount());
+    }
+
+    @Test
+    @DisplayName("Deve invalidar o cache ao atualizar o post")
+    void deveInvalidarCacheAoAtualizar() {
+
+        when(postRepository.atualizarPorId(eq(1L), any(), any(), any())).thenAnswer(invocation -> {
+            post.setTitulo(invocation.getArgument(1));
+            return 1;
+        });
+        when(postRepository.buscarVersao(1L)).thenReturn(Optional.of(versao(1L)));
+        postService.bucarPorId(1L);
+
+        PostRequest postRequest = new PostRequest();
+        postRequest.setTitulo("Como cuidar de cães");
+        postRequest.setDescricao("Dicas para cuidar adequadamente do seu cão");
+        postRequest.setAutor("Maria Silva");
+        postService.atualizar(1L, postRequest, null);
+
+        assertNull(caffeine().getIfPresent(1L));
+        assertEquals("Como cuidar de cães", postService.bucarPorId(1L).getTitulo());
+    }
+
+    @Test
+    @DisplayName("Deve abrir transação só quando a leitura não está no cache")
+    void deveAbrirTransacaoSoNaFaltaDoCache() {
+
+        postService.bucarPorId(1L);
+        postService.bucarPorId(1L);
+
+        verify(transactionManager, times(1)).getTransaction(any());
+    }
+
+    @Test
+    @DisplayName("Não deve guardar no cache a leitura feita antes de uma atualização concorrente")
+    void naoDeveGuardarLeituraAnteriorAAtualizacaoConcorrente() throws Exception {
+
+        CountDownLatch lido = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+        when(postRepository.findById(1L)).thenAnswer(invocation -> {
+            Post anterior = copia(post);
+            lido.countDown();
+            assertTrue(liberar.await(5, TimeUnit.SECONDS));
+            return Optional.of(anterior);
+        }).thenAnswer(invocation -> Optional.of(post));
+        when(postRepository.atualizarPorId(eq(1L), any(), any(), any())).thenAnswer(invocation -> {
+            post.setTitulo(invocation.getArgument(1));
+            return 1;
+        });
+        when(postRepository.buscarVersao(1L)).thenReturn(Optional.of(versao(1L)));
+
+        CompletableFuture<PostResponse> leitura = CompletableFuture.supplyAsync(() -> postService.bucarPorId(1L));
+        assertTrue(lido.await(5, TimeUnit.SECONDS));
+        PostRequest postRequest = new PostRequest();
+        postRequest.setTitulo("Como cuidar de cães");
+        postRequest.setDescricao("Dicas para cuidar adequadamente do seu cão");
+        postRequest.setAutor("Maria Silva");
+        postService.atualizar(1L, postRequest, null);
+        liberar.countDown();
+
+        assertEquals("Como cuidar de gatos", leitura.get(5, TimeUnit.SECONDS).getTitulo());
+        assertNull(caffeine().getIfPresent(1L));
+        assertEquals("Como cuidar de cães", postService.bucarPorId(1L).getTitulo());
+    }
+
+    @Test
+    @DisplayName("Deve consultar o repositório uma única vez com leituras simultâneas do mesmo post ausente")
+    void deveConsultarUmaVezComLeiturasSimultaneas() throws Exception {
+
+        CountDownLatch liberar = new CountDownLatch(1);
+        when(postRepository.findById(1L)).thenAnswer(invocation -> {
+            assertTrue(liberar.await(5, TimeUnit.SECONDS));
+            return Optional.of(post);
+        });
+
+        ExecutorService executor = Executors.newFixedThreadPool(LEITURAS_SIMULTANEAS);
+        try {
+            List<Future<PostResponse>> leituras = IntStream.range(0, LEITURAS_SIMULTANEAS)
+                    .mapToObj(i -> executor.submit(() -> postService.bucarPorId(1L)))
+                    .toList();
+            Thread.sleep(100);
+            liberar.countDown();
+
+            for (Future<PostResponse> leitura : leituras) {
+                assertEquals("Como cuidar de gatos", leitura.get(5, TimeUnit.SECONDS).getTitulo());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        verify(postRepository, times(1)).findById(1L);
+        assertNotNull(caffeine().getIfPresent(1L));
+    }
+
+    @Test
+    @DisplayName("Deve invalidar o cache ao excluir o post")
+    void deveInvalidarCacheAoExcluir() {
+
+        when(postRepository.excluirPorId(1L)).thenReturn(1);
+        postService.bucarPorId(1L);
+
+        postService.excluir(1L, null);
+
+        assertNull(caffeine().getIfPresent(1L));
+    }
+
+    @Test
+    @DisplayName("Deve servir a primeira página do cache até uma escrita ser confirmada")
+    void deveServirPrimeiraPaginaDoCacheAteEscrita() {
+
+        when(postRepository.findAll(any(Pageable.class))).thenReturn(new PageImpl<>(List.of(post)));
+        when(postRepository.excluirPorId(1L)).thenReturn(1);
+
+        postService.listarTodos(0, 10, null);
+        postService.listarTodos(0, 10, null);
+        verify(postRepository, times(1)).findAll(any(Pageable.class));
+
+        postService.excluir(1L, null);
+        postService.listarTodos(0, 10, null);
+        verify(postRepository, times(2)).findAll(any(Pageable.class));
+    }
+
+    private static Post copia(Post original) {
+        Post copia = new Post();
+        copia.setId(original.getId());
+        copia.setTitulo(original.getTitulo());
+        copia.setDescricao(original.getDescricao());
+        copia.setAutor(original.getAutor());
+        copia.setDataCriacao(original.getDataCriacao());
+        return copia;
+    }
+
+    private PostVersao versao(Long numero) {
+        return new PostVersao() {
+            @Override
+            public Long getVersao() {
+                return numero;
+            }
+
+            @Override
+            public LocalDateTime getDataAtualizacao() {
+                return post.getDataAtualizacao();
+            }
+        };
+    }
+
+    private com.github.benmanes.caffeine.cache.Cache<Object, Object> caffeine() {
+        TransactionAwareCacheDecorator cache = (TransactionAwareCacheDecorator) cacheManager.getCache(CacheConfig.POSTS_POR_ID);
+        return ((CaffeineCache) cache.getTargetCache()).getNativeCache();
+    }
+}
@@ -0,0 +1,65 @@
+package com.sylviavitoria.blogpets.service;
+
+import com.sylviavitoria.blogpets.dto.PostRequest;
+import com.sylviavitoria.blogpets.dto.PostResponse;
+import com.sylviavitoria.blogpets.interfaces.IPost;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "com.sylviavitoria.blogpets.service.PostServicePatchTest$Comandos")
+class PostServicePatchTest {
+
+    public static class Comandos implements StatementInspector {
+
+        static final List<String> UPDATES = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            if (sql.trim().toLowerCase(Locale.ROOT).startsWith("update posts")) {
+                UPDATES.add(sql.toLowerCase(Locale.ROOT));
+            }
+            return sql;
+        }
+    }
+
+    @Autowired
+    private IPost postService;
+
+    @Test
+    @DisplayName("Deve gravar no UPDATE só as colunas alteradas pelo patch")
+    void deveGravarSoColunasAlteradas() {
+
+        PostRequest postRequest = new PostRequest();
+        postRequest.setTitulo("Post que recebe um patch");
+        postRequest.setDescricao("Descrição longa que não deve ser reescrita pelo patch no título");
+        postRequest.setAutor("Autor Teste");
+        PostResponse criado = postService.criar(postRequest);
+        Comandos.UPDATES.clear();
+
+        PostResponse alterado = postService.atualizarParcialmente(criado.getId(),
+                Map.of("titulo", "Post que recebeu um patch"), criado.getVersao());
+
+        assertEquals(1, Comandos.UPDATES.size());
+        String update = Comandos.UPDATES.get(0);
+        assertTrue(update.contains("titulo"), update);
+        assertTrue(update.contains("versao"), update);
+        assertFalse(update.contains("descricao"), update);
+        assertFalse(update.contains("autor"), update);
+
+        assertEquals(criado.getVersao() + 1, alterado.getVersao());
+        PostResponse lido = postService.bucarPorId(criado.getId());
+        assertEquals("Post que recebeu um patch", lido.getTitulo());
+        assertEquals(postRequest.getDescricao(), lido.getDescricao());
+    }
+}
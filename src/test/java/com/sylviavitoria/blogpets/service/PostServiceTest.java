@@ -3,30 +3,62 @@ package com.sylviavitoria.blogpets.service;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
+import java.io.StringWriter;
 import java.time.LocalDateTime;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.data.domain.Sort;
+import org.springframework.test.util.ReflectionTestUtils;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Path;
+import jakarta.validation.Validator;
+
+import com.sylviavitoria.blogpets.config.CacheConfig;
+import com.sylviavitoria.blogpets.dto.CursorPageResponse;
+import com.sylviavitoria.blogpets.dto.PostLoteItemResponse;
+import com.sylviavitoria.blogpets.dto.PostLoteResponse;
 import com.sylviavitoria.blogpets.dto.PostRequest;
 import com.sylviavitoria.blogpets.dto.PostResponse;
+import com.sylviavitoria.blogpets.dto.PostResumoResponse;
+import com.sylviavitoria.blogpets.dto.SliceResponse;
 import com.sylviavitoria.blogpets.exception.EntityNotFoundException;
+import com.sylviavitoria.blogpets.exception.VersionConflictException;
 import com.sylviavitoria.blogpets.mapper.PostMapper;
 import com.sylviavitoria.blogpets.model.Post;
 import com.sylviavitoria.blogpets.repository.PostRepository;
+import com.sylviavitoria.blogpets.repository.PostResumo;
+import com.sylviavitoria.blogpets.repository.PostVersao;
 
 @ExtendWith(MockitoExtension.class)
 class PostServiceTest {
@@ -37,6 +69,24 @@ class PostServiceTest {
     @Mock
     private PostMapper postMapper;
 
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private Validator validator;
+
+    @Mock
+    private EstimativaTotalPosts estimativaTotalPosts;
+
+    @Mock
+    private CachePaginasPosts cachePaginasPosts;
+
+    @Mock
+    private CacheManager cacheManager;
+
+    @Spy
+    private ObjectMapper objectMapper = JsonMapper.builder().findAndAddModules().build();
+
     @InjectMocks
     private PostService postService;
 
@@ -94,6 +144,100 @@ class PostServiceTest {
             p.getDescricao().equals(postRequest.getDescricao()) &&
             p.getAutor().equals(postRequest.getAutor())));
         verify(postMapper, times(1)).toResponse(post);
+        verify(cachePaginasPosts, times(1)).registrarEscrita();
+    }
+
+    @Test
+    @DisplayName("Deve criar posts em lote informando o resultado de cada item")
+    @SuppressWarnings("unchecked")
+    void deveCriarPostsEmLoteComResultadoPorItem() {
+
+        PostRequest invalido = new PostRequest();
+        invalido.setTitulo("Gato");
+        invalido.setDescricao("Dicas para cuidar adequadamente do seu felino");
+        invalido.setAutor("Maria Silva");
+
+        ConstraintViolation<PostRequest> violacao = mock(ConstraintViolation.class);
+        Path campo = mock(Path.class);
+        when(campo.toString()).thenReturn("titulo");
+        when(violacao.getPropertyPath()).thenReturn(campo);
+        when(violacao.getMessage()).thenReturn("O título deve ter entre 5 e 100 caracteres");
+
+        when(validator.validate(postRequest)).thenReturn(Collections.emptySet());
+        when(validator.validate(invalido)).thenReturn(Set.of(violacao));
+        when(postMapper.toResponse(any(Post.class))).thenReturn(postResponse);
+
+        PostLoteResponse resultado = postService.criarEmLote(List.of(postRequest, invalido, postRequest));
+
+        assertEquals(3, resultado.getTotal());
+        assertEquals(2, resultado.getCriados());
+        assertEquals(1, resultado.getInvalidos());
+        assertEquals(PostLoteItemResponse.CRIADO, resultado.getItens().get(0).getStatus());
+        assertEquals(PostLoteItemResponse.INVALIDO, resultado.getItens().get(1).getStatus());
+        assertEquals("O título deve ter entre 5 e 100 caracteres", resultado.getItens().get(1).getErros().get("titulo"));
+        assertEquals(2, resultado.getItens().get(2).getIndice());
+
+        verify(postRepository, times(1)).saveAll(anyList());
+        verify(postMapper, times(2)).toResponse(any(Post.class));
+        verify(entityManager, times(1)).flush();
+        verify(entityManager, times(1)).clear();
+    }
+
+    @Test
+    @DisplayName("Deve aplicar as regras do domínio aos itens do lote aprovados pelo Bean Validation")
+    void deveAplicarRegrasDoDominioNoLote() {
+
+        PostRequest invalido = new PostRequest();
+        invalido.setTitulo("Cuidados com gatos");
+        invalido.setDescricao("Dicas para cuidar adequadamente do seu felino");
+        invalido.setAutor("  Al  ");
+
+        when(validator.validate(any(PostRequest.class))).thenReturn(Collections.emptySet());
+
+        PostLoteResponse resultado = postService.criarEmLote(List.of(invalido));
+
+        assertEquals(1, resultado.getInvalidos());
+        assertEquals(Map.of("autor", "O nome do autor deve ter pelo menos 3 caracteres"),
+                resultado.getItens().get(0).getErros());
+        verify(postRepository, never()).saveAll(anyList());
+    }
+
+    @Test
+    @DisplayName("Deve persistir o lote em blocos limpando o contexto de persistência")
+    void devePersistirLoteEmBlocos() {
+
+        when(validator.validate(postRequest)).thenReturn(Collections.emptySet());
+
+        PostLoteResponse resultado = postService.criarEmLote(Collections.nCopies(120, postRequest));
+
+        assertEquals(120, resultado.getCriados());
+        verify(postRepository, times(3)).saveAll(anyList());
+        verify(entityManager, times(3)).flush();
+        verify(entityManager, times(3)).clear();
+    }
+
+    @Test
+    @DisplayName("Deve lançar exceção ao criar lote vazio")
+    void deveLancarExcecaoAoCriarLoteVazio() {
+
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> {
+            postService.criarEmLote(List.of());
+        });
+
+        assertEquals("O lote deve conter pelo menos um post", exception.getMessage());
+        verifyNoInteractions(postRepository);
+    }
+
+    @Test
+    @DisplayName("Deve lançar exceção ao criar lote acima do tamanho máximo")
+    void deveLancarExcecaoAoCriarLoteAcimaDoMaximo() {
+
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> {
+            postService.criarEmLote(Collections.nCopies(1001, postRequest));
+        });
+
+        assertEquals("O lote não pode ter mais de 1000 posts", exception.getMessage());
+        verifyNoInteractions(postRepository);
     }
 
     @Test
@@ -131,6 +275,51 @@ class PostServiceTest {
         verifyNoInteractions(postMapper);
     }
 
+    @Test
+    @DisplayName("Deve consultar apenas a versão do post")
+    void deveBuscarVersaoSemCarregarPost() {
+
+        Long postId = 1L;
+        PostVersao versao = versao(3L);
+        when(postRepository.buscarVersao(postId)).thenReturn(Optional.of(versao));
+
+        assertEquals(versao, postService.buscarVersao(postId));
+
+        verify(postRepository, never()).findById(postId);
+        verifyNoInteractions(postMapper);
+    }
+
+    @Test
+    @DisplayName("Deve usar a versão do post em cache sem consultar o banco")
+    void deveBuscarVersaoNoCache() {
+
+        Long postId = 1L;
+        LocalDateTime dataAtualizacao = LocalDateTime.of(2024, 5, 10, 14, 30, 15);
+        Cache postsPorId = new ConcurrentMapCache(CacheConfig.POSTS_POR_ID);
+        postsPorId.put(postId, PostResponse.builder().id(postId).versao(4L).dataAtualizacao(dataAtualizacao).build());
+        when(cacheManager.getCache(CacheConfig.POSTS_POR_ID)).thenReturn(postsPorId);
+
+        PostVersao versao = postService.buscarVersao(postId);
+
+        assertEquals(4L, versao.getVersao());
+        assertEquals(dataAtualizacao, versao.getDataAtualizacao());
+        verifyNoInteractions(postRepository);
+    }
+
+    @Test
+    @DisplayName("Deve lançar exceção ao consultar versão de post inexistente")
+    void deveLancarExcecaoAoBuscarVersaoDePostInexistente() {
+
+        Long postId = 99L;
+        when(postRepository.buscarVersao(postId)).thenReturn(Optional.empty());
+
+        EntityNotFoundException exception = assertThrows(EntityNotFoundException.class, () -> {
+            postService.buscarVersao(postId);
+        });
+
+        assertEquals("Post não encontrado com ID: " + postId, exception.getMessage());
+    }
+
     @Test
     @DisplayName("Deve listar todos os posts com paginação")
     void deveListarTodosPostsComPaginacao() {
@@ -140,9 +329,11 @@ class PostServiceTest {
         List<Post> posts = Arrays.asList(post);
         Page<Post> postPage = new PageImpl<>(posts);
         
-        Pageable pageable = PageRequest.of(page, size, Sort.by("titulo"));
+        Pageable pageable = PageRequest.of(page, size, Sort.by("titulo", "id"));
         when(postRepository.findAll(pageable)).thenReturn(postPage);
         when(postMapper.toResponse(post)).thenReturn(postResponse);
+        when(cachePaginasPosts.obter(eq(page), eq(size), eq(Sort.by("titulo", "id")), any()))
+                .thenAnswer(invocacao -> invocacao.<Supplier<Page<PostResponse>>>getArgument(3).get());
 
         Page<PostResponse> resultado = postService.listarTodos(page, size, null);
 
@@ -164,9 +355,11 @@ class PostServiceTest {
         List<Post> posts = Arrays.asList(post);
         Page<Post> postPage = new PageImpl<>(posts);
         
-        Pageable pageable = PageRequest.of(page, size, Sort.by(sort));
+        Pageable pageable = PageRequest.of(page, size, Sort.by(sort, "id"));
         when(postRepository.findAll(pageable)).thenReturn(postPage);
         when(postMapper.toResponse(post)).thenReturn(postResponse);
+        when(cachePaginasPosts.obter(eq(page), eq(size), eq(Sort.by(sort, "id")), any()))
+                .thenAnswer(invocacao -> invocacao.<Supplier<Page<PostResponse>>>getArgument(3).get());
 
         Page<PostResponse> resultado = postService.listarTodos(page, size, sort);
 
@@ -178,32 +371,319 @@ class PostServiceTest {
     }
 
     @Test
-    @DisplayName("Deve atualizar um post com sucesso")
+    @DisplayName("Deve listar posts em fatia sem contagem total")
+    void deveListarFatiaSemContagem() {
+
+        Pageable pageable = PageRequest.of(0, 1, Sort.by("titulo", "id"));
+        when(postRepository.listarFatia(pageable)).thenReturn(new SliceImpl<>(List.of(post), pageable, true));
+        when(postMapper.toResponse(post)).thenReturn(postResponse);
+
+        SliceResponse<PostResponse> resultado = postService.listarFatia(0, 1, null, false);
+
+        assertEquals(List.of(postResponse), resultado.getContent());
+        assertEquals(0, resultado.getPage());
+        assertEquals(1, resultado.getSize());
+        assertTrue(resultado.isHasNext());
+        assertNull(resultado.getEstimatedTotal());
+        verify(postRepository, never()).count();
+        verifyNoInteractions(estimativaTotalPosts);
+    }
+
+    @Test
+    @DisplayName("Deve incluir o total estimado na fatia quando solicitado")
+    void deveIncluirTotalEstimadoNaFatia() {
+
+        Pageable pageable = PageRequest.of(2, 100, Sort.by("autor", "id"));
+        when(postRepository.listarFatia(pageable)).thenReturn(new SliceImpl<>(List.of(), pageable, false));
+        when(estimativaTotalPosts.estimar()).thenReturn(1_250L);
+
+        SliceResponse<PostResponse> resultado = postService.listarFatia(2, 500, "autor", true);
+
+        assertFalse(resultado.isHasNext());
+        assertEquals(1_250L, resultado.getEstimatedTotal());
+    }
+
+    @Test
+    @DisplayName("Deve listar resumos dos posts sem carregar a entidade completa")
+    void deveListarResumosDosPosts() {
+
+        PostResumo resumo = mock(PostResumo.class);
+        PostResumoResponse resumoResponse = PostResumoResponse.builder()
+                .id(1L)
+                .titulo("Como cuidar de gatos")
+                .autor("Maria Silva")
+                .resumo("Dicas para cuidar")
+                .build();
+
+        Pageable pageable = PageRequest.of(0, 10, Sort.by("dataCriacao", "id"));
+        when(postRepository.listarResumos(pageable)).thenReturn(new PageImpl<>(List.of(resumo)));
+        when(postMapper.toResumoResponse(resumo)).thenReturn(resumoResponse);
+
+        Page<PostResumoResponse> resultado = postService.listarResumos(0, 10, "dataCriacao");
+
+        assertEquals(1, resultado.getTotalElements());
+        assertEquals(resumoResponse, resultado.getContent().get(0));
+        verify(postRepository, never()).findAll(any(Pageable.class));
+    }
+
+    @Test
+    @DisplayName("Deve buscar posts por padrão escapando caracteres curinga")
+    void deveBuscarPostsPorPadrao() {
+
+        PostResumo resumo = mock(PostResumo.class);
+        PostResumoResponse resumoResponse = PostResumoResponse.builder().id(1L).build();
+        when(postRepository.buscarPorPadrao("%100\\% gatos%", PageRequest.of(0, 10)))
+                .thenReturn(new PageImpl<>(List.of(resumo)));
+        when(postMapper.toResumoResponse(resumo)).thenReturn(resumoResponse);
+
+        Page<PostResumoResponse> resultado = postService.buscar("  100% Gatos ", 0, 10);
+
+        assertEquals(List.of(resumoResponse), resultado.getContent());
+        verify(postRepository, never()).buscarPorTextoCompleto(any(), any());
+    }
+
+    @Test
+    @DisplayName("Deve usar a busca textual indexada quando habilitada")
+    void deveUsarBuscaTextualQuandoHabilitada() {
+
+        ReflectionTestUtils.setField(postService, "buscaTextoCompleto", true);
+        when(postRepository.buscarPorTextoCompleto("gatos idosos", PageRequest.of(1, 100)))
+                .thenReturn(Page.empty());
+
+        Page<PostResumoResponse> resultado = postService.buscar("gatos idosos", 1, 500);
+
+        assertTrue(resultado.isEmpty());
+        verify(postRepository, never()).buscarPorPadrao(any(), any());
+    }
+
+    @Test
+    @DisplayName("Deve lançar exceção ao buscar com termo vazio")
+    void deveLancarExcecaoAoBuscarComTermoVazio() {
+
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> {
+            postService.buscar("  ", 0, 10);
+        });
+
+        assertEquals("O termo de busca não pode ser vazio", exception.getMessage());
+        verifyNoInteractions(postRepository);
+    }
+
+    @Test
+    @DisplayName("Deve listar a primeira página por cursor e gerar o próximo cursor")
+    void deveListarPrimeiraPaginaPorCursor() {
+
+        Post segundo = new Post();
+        segundo.setId(2L);
+        segundo.setTitulo("Como cuidar de peixes");
+
+        when(postRepository.buscarPrimeirosPorTitulo(PageRequest.of(0, 2))).thenReturn(List.of(post, segundo));
+        when(postMapper.toResponse(post)).thenReturn(postResponse);
+
+        CursorPageResponse<PostResponse> resultado = postService.listarPorCursor(null, 1, null);
+
+        assertEquals(List.of(postResponse), resultado.getContent());
+        assertTrue(resultado.isHasNext());
+        assertEquals(new PostCursor("titulo", post.getTitulo(), post.getId()),
+                PostCursor.decodificar(resultado.getNextCursor()));
+        verify(postMapper, never()).toResponse(segundo);
+    }
+
+    @Test
+    @DisplayName("Deve continuar a listagem a partir do cursor informado")
+    void deveContinuarListagemAPartirDoCursor() {
+
+        String cursor = new PostCursor("autor", "Maria Silva", 1L).codificar();
+        when(postRepository.buscarAposAutor("Maria Silva", 1L, PageRequest.of(0, 11))).thenReturn(List.of(post));
+        when(postMapper.toResponse(post)).thenReturn(postResponse);
+
+        CursorPageResponse<PostResponse> resultado = postService.listarPorCursor(cursor, 10, "titulo");
+
+        assertEquals(1, resultado.getContent().size());
+        assertFalse(resultado.isHasNext());
+        assertNull(resultado.getNextCursor());
+        verify(postRepository, never()).buscarAposTitulo(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Deve lançar exceção ao listar por cursor com tamanho inválido")
+    void deveLancarExcecaoAoListarPorCursorComTamanhoInvalido() {
+
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> {
+            postService.listarPorCursor(null, 0, null);
+        });
+
+        assertEquals("O tamanho da página deve ser maior que zero", exception.getMessage());
+        verifyNoInteractions(postRepository);
+    }
+
+    @Test
+    @DisplayName("Deve listar os posts mais recentes do autor e gerar o próximo cursor")
+    void deveListarPostsMaisRecentesDoAutor() {
+
+        Post anterior = new Post();
+        anterior.setId(2L);
+        anterior.setAutor("Maria Silva");
+        anterior.setDataCriacao(post.getDataCriacao().minusDays(1));
+
+        when(postRepository.buscarMaisRecentesDoAutor("Maria Silva", PageRequest.of(0, 2))).thenReturn(List.of(post, anterior));
+        when(postMapper.toResponse(post)).thenReturn(postResponse);
+
+        CursorPageResponse<PostResponse> resultado = postService.listarPorAutor("Maria Silva", null, 1);
+
+        assertEquals(List.of(postResponse), resultado.getContent());
+        assertTrue(resultado.isHasNext());
+        assertEquals(new PostCursor("dataCriacao", post.getDataCriacao().toString(), post.getId()),
+                PostCursor.decodificar(resultado.getNextCursor()));
+    }
+
+    @Test
+    @DisplayName("Deve continuar o feed do autor a partir do cursor informado")
+    void deveContinuarFeedDoAutorAPartirDoCursor() {
+
+        LocalDateTime dataCriacao = LocalDateTime.of(2024, 5, 10, 14, 30);
+        String cursor = new PostCursor("dataCriacao", dataCriacao.toString(), 7L).codificar();
+        when(postRepository.buscarDoAutorAntesDe("Maria Silva", dataCriacao, 7L, PageRequest.of(0, 11))).thenReturn(List.of(post));
+        when(postMapper.toResponse(post)).thenReturn(postResponse);
+
+        CursorPageResponse<PostResponse> resultado = postService.listarPorAutor("Maria Silva", cursor, 10);
+
+        assertEquals(1, resultado.getContent().size());
+        assertFalse(resultado.isHasNext());
+        assertNull(resultado.getNextCursor());
+        verify(postRepository, never()).buscarMaisRecentesDoAutor(any(), any());
+    }
+
+    @Test
+    @DisplayName("Deve lançar exceção ao listar feed sem autor ou com cursor de outra ordenação")
+    void deveLancarExcecaoAoListarFeedInvalido() {
+
+        String cursorPorTitulo = new PostCursor("titulo", "Como cuidar de gatos", 1L).codificar();
+
+        IllegalArgumentException semAutor = assertThrows(IllegalArgumentException.class,
+                () -> postService.listarPorAutor(" ", null, 10));
+        IllegalArgumentException cursorInvalido = assertThrows(IllegalArgumentException.class,
+                () -> postService.listarPorAutor("Maria Silva", cursorPorTitulo, 10));
+
+        assertEquals("O autor deve ser informado", semAutor.getMessage());
+        assertEquals("Cursor inválido", cursorInvalido.getMessage());
+        verifyNoInteractions(postRepository);
+    }
+
+    @Test
+    @DisplayName("Deve exportar posts em NDJSON com um objeto por linha")
+    void deveExportarPostsEmNdjson() throws Exception {
+
+        when(postRepository.exportarTodos()).thenReturn(Stream.of(post, post));
+        when(postMapper.toResponse(post)).thenReturn(postResponse);
+        StringWriter saida = new StringWriter();
+
+        long total = postService.exportar(FormatoExportacao.NDJSON, saida);
+
+        String[] linhas = saida.toString().split("\n");
+        assertEquals(2, total);
+        assertEquals(2, linhas.length);
+        assertEquals("Como cuidar de gatos", objectMapper.readTree(linhas[1]).get("titulo").asText());
+        assertTrue(saida.toString().endsWith("\n"));
+    }
+
+    @Test
+    @DisplayName("Deve exportar posts em CSV escapando vírgulas e aspas")
+    void deveExportarPostsEmCsv() throws Exception {
+
+        PostResponse comAspas = PostResponse.builder()
+                .id(7L)
+                .titulo("Gatos, cães e \"pets\"")
+                .descricao("Uma linha\noutra linha")
+                .autor("Maria Silva")
+                .dataAtualizacao(LocalDateTime.of(2024, 5, 10, 14, 30, 15))
+                .build();
+        when(postRepository.exportarTodos()).thenReturn(Stream.of(post));
+        when(postMapper.toResponse(post)).thenReturn(comAspas);
+        StringWriter saida = new StringWriter();
+
+        postService.exportar(FormatoExportacao.CSV, saida);
+
+        assertEquals("id,titulo,descricao,autor,dataAtualizacao\n"
+                + "7,\"Gatos, cães e \"\"pets\"\"\",\"Uma linha\noutra linha\",Maria Silva,2024-05-10T14:30:15\n",
+                saida.toString());
+    }
+
+    @Test
+    @DisplayName("Deve limpar o contexto de persistência a cada bloco exportado")
+    void deveLimparContextoDuranteExportacao() throws Exception {
+
+        when(postRepository.exportarTodos()).thenReturn(Stream.generate(() -> post).limit(1_200));
+        when(postMapper.toResponse(post)).thenReturn(postResponse);
+
+        long total = postService.exportar(FormatoExportacao.NDJSON, new StringWriter());
+
+        assertEquals(1_200, total);
+        verify(entityManager, times(2)).clear();
+    }
+
+    @Test
+    @DisplayName("Deve atualizar sem condição de versão quando nenhuma versão for informada")
     void deveAtualizarPostComSucesso() {
 
         Long postId = 1L;
-        when(postRepository.findById(postId)).thenReturn(Optional.of(post));
-        
-        Post postAtualizado = new Post();
-        postAtualizado.setId(postId);
-        postAtualizado.setTitulo(postRequest.getTitulo());
-        postAtualizado.setDescricao(postRequest.getDescricao());
-        postAtualizado.setAutor(postRequest.getAutor());
-        postAtualizado.setDataCriacao(post.getDataCriacao());
-        
-        when(postRepository.save(post)).thenReturn(postAtualizado);
-        when(postMapper.toResponse(postAtualizado)).thenReturn(postResponse);
+        when(postRepository.atualizarPorId(eq(postId), eq(postRequest.getTitulo()), eq(postRequest.getAutor()),
+                any(LocalDateTime.class))).thenReturn(1);
+        when(postRepository.buscarVersao(postId)).thenReturn(Optional.of(versao(5L)));
+        when(postMapper.toResponse(any(Post.class))).thenReturn(postResponse);
 
-        PostResponse resultado = postService.atualizar(postId, postRequest);
+        PostResponse resultado = postService.atualizar(postId, postRequest, null);
 
         assertNotNull(resultado);
         assertEquals(postRequest.getTitulo(), resultado.getTitulo());
         assertEquals(postRequest.getDescricao(), resultado.getDescricao());
         assertEquals(postRequest.getAutor(), resultado.getAutor());
-        
-        verify(postRepository, times(1)).findById(postId);
-        verify(postRepository, times(1)).save(post);
-        verify(postMapper, times(1)).toResponse(postAtualizado);
+
+        ArgumentCaptor<Post> captor = ArgumentCaptor.forClass(Post.class);
+        verify(postMapper, times(1)).toResponse(captor.capture());
+        assertEquals(5L, captor.getValue().getVersao());
+        InOrder ordem = inOrder(postRepository);
+        ordem.verify(postRepository).atualizarPorId(eq(postId), any(), any(), any());
+        ordem.verify(postRepository).gravarDescricao(postId, postRequest.getDescricao());
+        ordem.verify(postRepository).buscarVersao(postId);
+        verify(postRepository, never()).atualizarSeVersao(any(), any(), any(), any(), any());
+        verify(postRepository, never()).findById(postId);
+        verify(postRepository, never()).save(any(Post.class));
+    }
+
+    @Test
+    @DisplayName("Deve atualizar com um único UPDATE condicionado à versão informada")
+    void deveAtualizarPostNaVersaoInformada() {
+
+        Long postId = 1L;
+        when(postRepository.atualizarSeVersao(eq(postId), eq(2L), eq(postRequest.getTitulo()),
+                eq(postRequest.getAutor()), any(LocalDateTime.class))).thenReturn(1);
+        when(postMapper.toResponse(any(Post.class))).thenReturn(postResponse);
+
+        postService.atualizar(postId, postRequest, 2L);
+
+        ArgumentCaptor<Post> captor = ArgumentCaptor.forClass(Post.class);
+        verify(postMapper, times(1)).toResponse(captor.capture());
+        assertEquals(3L, captor.getValue().getVersao());
+        assertEquals(postRequest.getTitulo(), captor.getValue().getTitulo());
+        assertNotNull(captor.getValue().getDataAtualizacao());
+        verify(postRepository, never()).buscarVersao(postId);
+        verify(postRepository, never()).existsById(postId);
+    }
+
+    @Test
+    @DisplayName("Deve lançar conflito ao atualizar post alterado depois da versão informada")
+    void deveLancarConflitoAoAtualizarVersaoDesatualizada() {
+
+        Long postId = 1L;
+        when(postRepository.atualizarSeVersao(eq(postId), eq(2L), any(), any(), any())).thenReturn(0);
+        when(postRepository.existsById(postId)).thenReturn(true);
+
+        VersionConflictException exception = assertThrows(VersionConflictException.class, () -> {
+            postService.atualizar(postId, postRequest, 2L);
+        });
+
+        assertEquals("O post 1 foi alterado por outra requisição; a versão 2 não é mais a atual", exception.getMessage());
+        verifyNoInteractions(postMapper);
     }
 
     @Test
@@ -211,30 +691,148 @@ class PostServiceTest {
     void deveLancarExcecaoAoAtualizarPostInexistente() {
 
         Long postId = 99L;
-        when(postRepository.findById(postId)).thenReturn(Optional.empty());
+        when(postRepository.atualizarPorId(eq(postId), any(), any(), any())).thenReturn(0);
 
         EntityNotFoundException exception = assertThrows(EntityNotFoundException.class, () -> {
-            postService.atualizar(postId, postRequest);
+            postService.atualizar(postId, postRequest, null);
         });
 
         assertEquals("Post não encontrado com ID: " + postId, exception.getMessage());
-        verify(postRepository, times(1)).findById(postId);
         verifyNoInteractions(postMapper);
+        verify(postRepository, never()).gravarDescricao(any(), any());
+        verify(postRepository, never()).atualizarSeVersao(any(), any(), any(), any(), any());
         verify(postRepository, never()).save(any(Post.class));
     }
 
+    @Test
+    @DisplayName("Deve lançar exceção ao atualizar com versão um post inexistente")
+    void deveLancarExcecaoAoAtualizarComVersaoPostInexistente() {
+
+        Long postId = 99L;
+        when(postRepository.atualizarSeVersao(eq(postId), eq(2L), any(), any(), any())).thenReturn(0);
+        when(postRepository.existsById(postId)).thenReturn(false);
+
+        assertThrows(EntityNotFoundException.class, () -> {
+            postService.atualizar(postId, postRequest, 2L);
+        });
+    }
+
+    @Test
+    @DisplayName("Deve aplicar o patch só nos campos enviados")
+    void deveAtualizarParcialmenteSoOsCamposEnviados() {
+
+        Post existente = Post.criarNovo("Como cuidar de gatos", "Dicas para cuidar adequadamente do seu felino", "Maria Silva");
+        existente.setId(1L);
+        existente.setVersao(2L);
+        when(postRepository.findById(1L)).thenReturn(Optional.of(existente));
+        doAnswer(invocacao -> {
+            PostMapper.INSTANCE.updateEntityFromRequest(invocacao.getArgument(0), invocacao.getArgument(1));
+            return null;
+        }).when(postMapper).updateEntityFromRequest(any(PostRequest.class), any(Post.class));
+        when(postMapper.toResponse(existente)).thenReturn(postResponse);
+
+        PostResponse resultado = postService.atualizarParcialmente(1L, Map.of("titulo", "Como cuidar de gatos idosos"), 2L);
+
+        assertEquals(postResponse, resultado);
+        assertEquals("Como cuidar de gatos idosos", existente.getTitulo());
+        assertEquals("Dicas para cuidar adequadamente do seu felino", existente.getDescricao());
+        assertEquals("Maria Silva", existente.getAutor());
+        verify(postRepository, times(1)).flush();
+        verify(cachePaginasPosts, times(1)).registrarEscrita();
+    }
+
+    @Test
+    @DisplayName("Não deve gravar o patch que não muda nenhum campo")
+    void naoDeveGravarPatchSemMudancas() {
+
+        Post existente = Post.criarNovo("Como cuidar de gatos", "Dicas para cuidar adequadamente do seu felino", "Maria Silva");
+        existente.setId(1L);
+        when(postRepository.findById(1L)).thenReturn(Optional.of(existente));
+        when(postMapper.toResponse(existente)).thenReturn(postResponse);
+
+        postService.atualizarParcialmente(1L, Map.of("autor", "Maria Silva"), null);
+
+        verify(postMapper, never()).updateEntityFromRequest(any(), any());
+        verify(postRepository, never()).flush();
+        verify(cachePaginasPosts, never()).registrarEscrita();
+    }
+
+    @Test
+    @DisplayName("Deve validar os campos do patch com as regras do Post")
+    void deveValidarCamposDoPatch() {
+
+        assertEquals("O título deve ter pelo menos 5 caracteres", assertThrows(IllegalArgumentException.class,
+                () -> postService.atualizarParcialmente(1L, Map.of("titulo", "Gato"), null)).getMessage());
+        assertEquals("O campo versao não pode ser alterado", assertThrows(IllegalArgumentException.class,
+                () -> postService.atualizarParcialmente(1L, Map.of("versao", 9), null)).getMessage());
+        assertEquals("O campo autor deve ser um texto", assertThrows(IllegalArgumentException.class,
+                () -> postService.atualizarParcialmente(1L, Map.of("autor", 42), null)).getMessage());
+
+        Map<String, Object> remocao = new HashMap<>();
+        remocao.put("descricao", null);
+        assertEquals("O campo descricao é obrigatório e não pode ser removido", assertThrows(IllegalArgumentException.class,
+                () -> postService.atualizarParcialmente(1L, remocao, null)).getMessage());
+
+        verifyNoInteractions(postRepository);
+    }
+
+    @Test
+    @DisplayName("Deve recusar o patch quando o If-Match não for a versão atual")
+    void deveRecusarPatchComVersaoDesatualizada() {
+
+        Post existente = Post.criarNovo("Como cuidar de gatos", "Dicas para cuidar adequadamente do seu felino", "Maria Silva");
+        existente.setId(1L);
+        existente.setVersao(5L);
+        when(postRepository.findById(1L)).thenReturn(Optional.of(existente));
+        when(postRepository.existsById(1L)).thenReturn(true);
+
+        assertThrows(VersionConflictException.class,
+                () -> postService.atualizarParcialmente(1L, Map.of("titulo", "Como cuidar de gatos idosos"), 4L));
+
+        assertEquals("Como cuidar de gatos", existente.getTitulo());
+        verify(postRepository, never()).flush();
+    }
+
     @Test
     @DisplayName("Deve excluir um post com sucesso")
     void deveExcluirPostComSucesso() {
 
         Long postId = 1L;
-        when(postRepository.findById(postId)).thenReturn(Optional.of(post));
-        doNothing().when(postRepository).delete(post);
+        when(postRepository.excluirPorId(postId)).thenReturn(1);
 
-        postService.excluir(postId);
+        postService.excluir(postId, null);
 
-        verify(postRepository, times(1)).findById(postId);
-        verify(postRepository, times(1)).delete(post);
+        verify(postRepository, times(1)).excluirPorId(postId);
+        verify(postRepository, times(1)).excluirConteudo(postId);
+        verify(postRepository, never()).findById(postId);
+        verify(postRepository, never()).delete(any(Post.class));
+        verify(cachePaginasPosts, times(1)).registrarEscrita();
+    }
+
+    @Test
+    @DisplayName("Deve excluir com um único DELETE condicionado à versão informada")
+    void deveExcluirPostNaVersaoInformada() {
+
+        Long postId = 1L;
+        when(postRepository.excluirSeVersao(postId, 2L)).thenReturn(1);
+
+        postService.excluir(postId, 2L);
+
+        verify(postRepository, times(1)).excluirSeVersao(postId, 2L);
+        verify(postRepository, never()).existsById(postId);
+    }
+
+    @Test
+    @DisplayName("Deve lançar conflito ao excluir post alterado depois da versão informada")
+    void deveLancarConflitoAoExcluirVersaoDesatualizada() {
+
+        Long postId = 1L;
+        when(postRepository.excluirSeVersao(postId, 2L)).thenReturn(0);
+        when(postRepository.existsById(postId)).thenReturn(true);
+
+        assertThrows(VersionConflictException.class, () -> {
+            postService.excluir(postId, 2L);
+        });
     }
 
     @Test
@@ -242,15 +840,28 @@ class PostServiceTest {
     void deveLancarExcecaoAoExcluirPostInexistente() {
 
         Long postId = 99L;
-        when(postRepository.findById(postId)).thenReturn(Optional.empty());
-
+        when(postRepository.excluirPorId(postId)).thenReturn(0);
 
         EntityNotFoundException exception = assertThrows(EntityNotFoundException.class, () -> {
-            postService.excluir(postId);
+            postService.excluir(postId, null);
         });
 
         assertEquals("Post não encontrado com ID: " + postId, exception.getMessage());
-        verify(postRepository, times(1)).findById(postId);
-        verify(postRepository, never()).delete(any(Post.class));
+        verify(postRepository, times(1)).excluirPorId(postId);
+        verify(postRepository, never()).excluirConteudo(postId);
+    }
+
+    private PostVersao versao(Long numero) {
+        return new PostVersao() {
+            @Override
+            public Long getVersao() {
+                return numero;
+            }
+
+            @Override
+            public LocalDateTime getDataAtualizacao() {
+                return LocalDateTime.of(2024, 5, 10, 14, 30, 15);
+            }
+        };
     }
-}
\ No newline at end of file
+}